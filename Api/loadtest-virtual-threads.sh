@@ -0,0 +1,19 @@
+#!/bin/sh
+# Platform vs virtual threads at 500 concurrent users, using the in-process load harness.
+# Runs the same workload twice on the H2 load-test database, then prints the throughput and
+# p95 change per scenario. Needs a JDK 21 (java21 profile).
+#
+# Usage: ./loadtest-virtual-threads.sh [extra --property=value arguments]
+set -e
+cd "$(dirname "$0")"
+
+USERS=${USERS:-500}
+ARGS="--loadtest.harness.threads=$USERS $*"
+
+sh ./mvnw -B -q -Pjava21,loadtest spring-boot:run \
+    -Dspring-boot.run.profiles=loadtest \
+    -Dspring-boot.run.arguments="$ARGS --loadtest.harness.report-file=target/loadtest-platform-threads.json"
+
+sh ./mvnw -B -q -Pjava21,loadtest spring-boot:run \
+    -Dspring-boot.run.profiles=loadtest,virtual-threads \
+    -Dspring-boot.run.arguments="$ARGS --loadtest.harness.report-file=target/loadtest-virtual-threads.json --loadtest.harness.baseline-file=target/loadtest-platform-threads.json"
@@ -0,0 +1,63 @@
+package com.pfe.estl.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pfe.estl.dto.AbsenceReportRowDTO;
+import com.pfe.estl.service.impl.AttendanceRecordServiceImpl;
+
+/**
+ * Absence-report aggregation in AttendanceRecordServiceImpl with repositories served from
+ * memory, so the numbers reflect the per-student filtering and summing, not the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbsenceReportBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int recordCount;
+
+    private AttendanceRecordServiceImpl service;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = BenchmarkServices.attendanceRecordService(new BenchmarkData(recordCount), 9);
+        startDate = BenchmarkData.START_DATE;
+        endDate = BenchmarkData.START_DATE.plusDays(BenchmarkData.DAYS);
+    }
+
+    @Benchmark
+    public List<AbsenceReportRowDTO> absenceReport() {
+        return service.getAbsenceReport(startDate, endDate);
+    }
+
+    @Benchmark
+    public List<AbsenceReportRowDTO> absenceReportFiltered() {
+        return service.getAbsenceReport(startDate, endDate, "all", "all", "all", false);
+    }
+
+    @Benchmark
+    public List<AbsenceReportRowDTO> absenceReportExceededOnly() {
+        return service.getAbsenceReport(startDate, endDate, "1", "all", "all", true);
+    }
+}
@@ -0,0 +1,75 @@
+package com.pfe.estl.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pfe.estl.dto.AnnouncementDto;
+import com.pfe.estl.service.AnnouncementEmailService;
+
+/**
+ * AnnouncementEmailService.formatAnnouncementAsHtml for announcement bodies of
+ * {@code contentLength} characters, broken into lines like typed announcements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnnouncementHtmlBenchmark {
+
+    private static final MethodHandle FORMAT_AS_HTML;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(AnnouncementEmailService.class, MethodHandles.lookup());
+            FORMAT_AS_HTML = lookup.findVirtual(AnnouncementEmailService.class, "formatAnnouncementAsHtml",
+                    MethodType.methodType(String.class, AnnouncementDto.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int contentLength;
+
+    private AnnouncementEmailService service;
+    private AnnouncementDto announcement;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Formatting does not touch the mail sender or repositories
+        service = new AnnouncementEmailService(null, null, null, null, null, null);
+
+        StringBuilder content = new StringBuilder(contentLength);
+        String line = "Les cours du module de programmation sont reportes a la semaine prochaine.";
+        while (content.length() < contentLength) {
+            content.append(line).append('\n');
+        }
+        content.setLength(contentLength);
+
+        announcement = new AnnouncementDto();
+        announcement.setTitle("Schedule change");
+        announcement.setContent(content.toString());
+    }
+
+    @Benchmark
+    public String formatAnnouncementAsHtml() throws Throwable {
+        return (String) FORMAT_AS_HTML.invokeExact(service, announcement);
+    }
+}
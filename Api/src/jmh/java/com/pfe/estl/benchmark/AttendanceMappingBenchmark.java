@@ -0,0 +1,89 @@
+package com.pfe.estl.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.model.AttendanceRecord;
+import com.pfe.estl.service.impl.AttendanceRecordServiceImpl;
+
+/**
+ * Entity/DTO mapping in AttendanceRecordServiceImpl over a whole dataset.
+ * The mappers are private, so they are reached through method handles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendanceMappingBenchmark {
+
+    private static final MethodHandle TO_DTO;
+    private static final MethodHandle TO_ENTITY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(AttendanceRecordServiceImpl.class, MethodHandles.lookup());
+            TO_DTO = lookup.findVirtual(AttendanceRecordServiceImpl.class, "toDTO",
+                    MethodType.methodType(AttendanceRecordDTO.class, AttendanceRecord.class));
+            TO_ENTITY = lookup.findVirtual(AttendanceRecordServiceImpl.class, "toEntity",
+                    MethodType.methodType(AttendanceRecord.class, AttendanceRecordDTO.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int recordCount;
+
+    private AttendanceRecordServiceImpl service;
+    private List<AttendanceRecord> records;
+    private List<AttendanceRecordDTO> dtos;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        BenchmarkData data = new BenchmarkData(recordCount);
+        service = BenchmarkServices.attendanceRecordService(data, 9);
+        records = data.records;
+        dtos = new ArrayList<>(records.size());
+        for (AttendanceRecord record : records) {
+            dtos.add((AttendanceRecordDTO) TO_DTO.invokeExact(service, record));
+        }
+    }
+
+    @Benchmark
+    public List<AttendanceRecordDTO> toDTO() throws Throwable {
+        List<AttendanceRecordDTO> result = new ArrayList<>(records.size());
+        for (AttendanceRecord record : records) {
+            result.add((AttendanceRecordDTO) TO_DTO.invokeExact(service, record));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<AttendanceRecord> toEntity() throws Throwable {
+        List<AttendanceRecord> result = new ArrayList<>(dtos.size());
+        for (AttendanceRecordDTO dto : dtos) {
+            result.add((AttendanceRecord) TO_ENTITY.invokeExact(service, dto));
+        }
+        return result;
+    }
+}
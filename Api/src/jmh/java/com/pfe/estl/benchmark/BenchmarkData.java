@@ -0,0 +1,83 @@
+package com.pfe.estl.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.pfe.estl.model.AttendanceRecord;
+import com.pfe.estl.model.Department;
+import com.pfe.estl.model.Semester;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.model.Subject;
+
+/**
+ * Deterministic synthetic dataset shared by the benchmarks: a handful of departments and
+ * semesters, a subject catalogue, and attendance records spread over students so that
+ * each student holds about {@link #RECORDS_PER_STUDENT} records.
+ */
+public final class BenchmarkData {
+
+    public static final int RECORDS_PER_STUDENT = 40;
+    public static final LocalDate START_DATE = LocalDate.of(2025, 1, 6);
+    public static final int DAYS = 120;
+
+    public final List<Department> departments = new ArrayList<>();
+    public final List<Semester> semesters = new ArrayList<>();
+    public final List<Subject> subjects = new ArrayList<>();
+    public final List<Student> students = new ArrayList<>();
+    public final List<AttendanceRecord> records = new ArrayList<>();
+
+    public BenchmarkData(int recordCount) {
+        Random random = new Random(42);
+
+        for (int i = 1; i <= 5; i++) {
+            Department department = new Department();
+            department.setId((long) i);
+            department.setName("Department " + i);
+            departments.add(department);
+        }
+        for (int i = 1; i <= 6; i++) {
+            Semester semester = new Semester();
+            semester.setId((long) i);
+            semester.setName("Semester " + i);
+            semesters.add(semester);
+        }
+        for (int i = 1; i <= 60; i++) {
+            Subject subject = new Subject();
+            subject.setId((long) i);
+            subject.setName("Subject " + i);
+            subject.setCode("SUB" + i);
+            subject.setDepartment(departments.get(i % departments.size()));
+            subject.setSemester(semesters.get(i % semesters.size()));
+            subjects.add(subject);
+        }
+
+        int studentCount = Math.max(1, recordCount / RECORDS_PER_STUDENT);
+        for (int i = 1; i <= studentCount; i++) {
+            Student student = new Student();
+            student.setId((long) i);
+            student.setStudentId(String.format("S%06d", i));
+            student.setFullName("Student " + i);
+            student.setEmail("student" + i + "@estl.example");
+            student.setDepartment(departments.get(i % departments.size()));
+            student.setSemester(semesters.get(i % semesters.size()));
+            student.setAttendanceRecords(new ArrayList<>());
+            students.add(student);
+        }
+
+        for (int i = 1; i <= recordCount; i++) {
+            Student student = students.get((i - 1) % studentCount);
+            AttendanceRecord record = new AttendanceRecord();
+            record.setId((long) i);
+            record.setStudent(student);
+            record.setSubject(subjects.get(random.nextInt(subjects.size())));
+            record.setDate(START_DATE.plusDays(random.nextInt(DAYS)));
+            record.setDuration(random.nextBoolean() ? 90 : 120);
+            // Roughly one absence in eight
+            record.setPresent(random.nextInt(8) != 0);
+            student.getAttendanceRecords().add(record);
+            records.add(record);
+        }
+    }
+}
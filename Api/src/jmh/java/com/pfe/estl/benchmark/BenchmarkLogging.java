@@ -0,0 +1,19 @@
+package com.pfe.estl.benchmark;
+
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+
+/**
+ * Adjusts the application log level inside a forked benchmark JVM
+ */
+public final class BenchmarkLogging {
+
+    private BenchmarkLogging() {
+    }
+
+    public static void setApplicationLogLevel(String level) {
+        ((Logger) LoggerFactory.getLogger("com.pfe.estl")).setLevel(Level.toLevel(level, Level.WARN));
+    }
+}
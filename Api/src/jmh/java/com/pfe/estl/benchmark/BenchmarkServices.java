@@ -0,0 +1,83 @@
+package com.pfe.estl.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import com.pfe.estl.model.AttendanceRecord;
+import com.pfe.estl.model.Department;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.model.Subject;
+import com.pfe.estl.repository.AttendanceRecordRepository;
+import com.pfe.estl.repository.DepartmentRepository;
+import com.pfe.estl.repository.StudentRepository;
+import com.pfe.estl.repository.SubjectRepository;
+import com.pfe.estl.service.AbsenceAlertService;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.impl.AttendanceRecordServiceImpl;
+
+/**
+ * Builds production services on top of in-memory repositories backed by {@link BenchmarkData}
+ */
+public final class BenchmarkServices {
+
+    private BenchmarkServices() {
+    }
+
+    public static AttendanceRecordServiceImpl attendanceRecordService(BenchmarkData data, int thresholdHours) {
+        Map<Long, Student> studentsById = data.students.stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<Long, Subject> subjectsById = data.subjects.stream()
+                .collect(Collectors.toMap(Subject::getId, Function.identity()));
+        Map<Long, Department> departmentsById = data.departments.stream()
+                .collect(Collectors.toMap(Department::getId, Function.identity()));
+
+        StudentRepository studentRepository = Stubs.of(StudentRepository.class)
+                .answer("findAll", args -> data.students)
+                .answer("findById", args -> Optional.ofNullable(studentsById.get((Long) args[0])))
+                .answer("findByDepartment", args -> data.students.stream()
+                        .filter(student -> student.getDepartment() == args[0])
+                        .collect(Collectors.toList()))
+                .answer("count", args -> (long) data.students.size())
+                .build();
+        SubjectRepository subjectRepository = Stubs.of(SubjectRepository.class)
+                .answer("findById", args -> Optional.ofNullable(subjectsById.get((Long) args[0])))
+                .build();
+        DepartmentRepository departmentRepository = Stubs.of(DepartmentRepository.class)
+                .answer("findById", args -> Optional.ofNullable(departmentsById.get((Long) args[0])))
+                .answer("findAll", args -> data.departments)
+                .build();
+        AttendanceRecordRepository attendanceRecordRepository = Stubs.of(AttendanceRecordRepository.class)
+                .answer("findAll", args -> data.records)
+                .answer("findByStudent", args -> ((Student) args[0]).getAttendanceRecords())
+                .answer("findByStudentAndDateBetween", args -> between(((Student) args[0]).getAttendanceRecords(),
+                        (LocalDate) args[1], (LocalDate) args[2]))
+                .answer("findByDateBetween", args -> between(data.records, (LocalDate) args[0], (LocalDate) args[1]))
+                .answer("findByStatusAndDateBetween", args -> between(data.records, (LocalDate) args[0], (LocalDate) args[1])
+                        .stream()
+                        .filter(record -> !record.isPresent())
+                        .collect(Collectors.toList()))
+                .build();
+        ToIntFunction<Student> thresholdResolver = student -> thresholdHours;
+        AbsenceAlertService absenceAlertService = Stubs.of(AbsenceAlertService.class)
+                .answer("getThresholdResolver", args -> thresholdResolver)
+                .answer("getThresholdHours", args -> thresholdHours)
+                .answer("countActiveAlerts", args -> 0L)
+                .build();
+
+        // The benchmarks only read, so no change log is needed
+        return new AttendanceRecordServiceImpl(attendanceRecordRepository, studentRepository,
+                departmentRepository, subjectRepository, event -> { }, absenceAlertService,
+                null, new ReferenceDataVersionService());
+    }
+
+    private static List<AttendanceRecord> between(List<AttendanceRecord> records, LocalDate start, LocalDate end) {
+        return records.stream()
+                .filter(record -> !record.getDate().isBefore(start) && !record.getDate().isAfter(end))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,123 @@
+package com.pfe.estl.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.pfe.estl.dto.AbsenceReportRowDTO;
+import com.pfe.estl.service.impl.PdfExportServiceImpl;
+
+/**
+ * School-wide absence report PDF. It compares the streaming writer against the same
+ * service buffering into a byte[], and against the former approach: the whole PdfPTable
+ * built in memory, with fonts and cells created on every call.
+ *
+ * Run with -prof gc to see the allocation difference as well as the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfAbsenceReportBenchmark {
+
+    @Param({"10000"})
+    public int rowCount;
+
+    private PdfExportServiceImpl service;
+    private List<AbsenceReportRowDTO> rows;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkLogging.setApplicationLogLevel("WARN");
+        service = new PdfExportServiceImpl();
+        rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new AbsenceReportRowDTO("Student " + i, String.format("ESTL%06d", i),
+                    "Department " + (i % 6), i % 40));
+        }
+        startDate = LocalDate.of(2025, 1, 1);
+        endDate = LocalDate.of(2025, 6, 30);
+    }
+
+    @Benchmark
+    public void streamed() throws DocumentException, IOException {
+        service.writeAbsenceReportPdf(rows, startDate, endDate, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public byte[] buffered() throws DocumentException, IOException {
+        return service.exportAbsenceReportToPdf(rows, startDate, endDate);
+    }
+
+    @Benchmark
+    public byte[] wholeTableBaseline() throws DocumentException {
+        Document document = new Document(PageSize.A4);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfWriter.getInstance(document, baos);
+        document.open();
+        document.add(new Paragraph("Absence Report", FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.DARK_GRAY)));
+        PdfPTable table = new PdfPTable(4);
+        table.setWidthPercentage(100);
+        table.setWidths(new float[]{3f, 2f, 3f, 2f});
+        Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE);
+        for (String header : new String[]{"Student Name", "Student ID", "Department", "Absence Hours"}) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
+            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            cell.setBackgroundColor(BaseColor.DARK_GRAY);
+            cell.setPadding(5);
+            table.addCell(cell);
+        }
+        table.setHeaderRows(1);
+        Font bodyFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
+        for (AbsenceReportRowDTO row : rows) {
+            addCell(table, row.getStudentName(), bodyFont, Element.ALIGN_LEFT);
+            addCell(table, row.getStudentId(), bodyFont, Element.ALIGN_CENTER);
+            addCell(table, row.getDepartmentName(), bodyFont, Element.ALIGN_LEFT);
+            addCell(table, String.valueOf(row.getTotalAbsenceHours()), bodyFont, Element.ALIGN_CENTER);
+        }
+        document.add(table);
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static void addCell(PdfPTable table, String text, Font font, int alignment) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setHorizontalAlignment(alignment);
+        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+        cell.setPadding(4);
+        table.addCell(cell);
+    }
+}
@@ -0,0 +1,162 @@
+package com.pfe.estl.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.pfe.estl.EstlApplication;
+import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.dto.ImportResult;
+import com.pfe.estl.service.AttendanceRecordService;
+import com.pfe.estl.service.ExcelImportService;
+
+/**
+ * Bulk roll-call saves and Excel student imports through the real services and database,
+ * with the default pool/JDBC/Hibernate settings ("baseline") and with the prod profile ("tuned").
+ *
+ * Runs on the in-memory H2 load-test database by default; the MySQL driver flags only take
+ * effect against MySQL:
+ *   mvn -Pbenchmark verify -Djmh.args="PersistenceSettings -p jdbcUrl=jdbc:mysql://localhost:3306/estl_bench?createDatabaseIfNotExist=true"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PersistenceSettingsBenchmark {
+
+    private static final int ROLL_CALL_SIZE = 30;
+
+    @Param({"baseline", "tuned"})
+    public String settings;
+
+    @Param({"h2"})
+    public String jdbcUrl;
+
+    @Param({"200"})
+    public int importRows;
+
+    private ConfigurableApplicationContext context;
+    private AttendanceRecordService attendanceRecordService;
+    private ExcelImportService excelImportService;
+    private List<Long> studentIds;
+    private List<Long> subjectIds;
+    private String departmentName;
+    private String semesterName;
+    private final AtomicInteger importBatch = new AtomicInteger();
+    private MockMultipartFile workbook;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        // Command-line arguments, so they win over application-loadtest.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--loadtest.harness.enabled=false",
+                "--loadtest.upstream.port=0",
+                "--loadtest.data.students=500",
+                "--loadtest.data.weeks=2"));
+        if (!"h2".equals(jdbcUrl)) {
+            arguments.add("--spring.datasource.url=" + jdbcUrl);
+            arguments.add("--spring.datasource.driver-class-name=com.mysql.cj.jdbc.Driver");
+            arguments.add("--spring.datasource.username=" + System.getProperty("db.username", "root"));
+            arguments.add("--spring.datasource.password=" + System.getProperty("db.password", "fung"));
+            arguments.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect");
+        }
+        context = new SpringApplicationBuilder(EstlApplication.class)
+                .profiles("tuned".equals(settings) ? new String[] {"loadtest", "prod"} : new String[] {"loadtest"})
+                .run(arguments.toArray(String[]::new));
+
+        attendanceRecordService = context.getBean(AttendanceRecordService.class);
+        excelImportService = context.getBean(ExcelImportService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long departmentId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM departments", Long.class);
+        Long semesterId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM semesters", Long.class);
+        departmentName = jdbcTemplate.queryForObject("SELECT name FROM departments WHERE id = ?", String.class, departmentId);
+        semesterName = jdbcTemplate.queryForObject("SELECT name FROM semesters WHERE id = ?", String.class, semesterId);
+        studentIds = jdbcTemplate.queryForList("SELECT id FROM students WHERE department_id = ? AND semester_id = ?",
+                Long.class, departmentId, semesterId);
+        subjectIds = jdbcTemplate.queryForList("SELECT id FROM subjects WHERE department_id = ? AND semester_id = ?",
+                Long.class, departmentId, semesterId);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    // A fresh set of student ids each time so the import inserts instead of skipping duplicates
+    @Setup(Level.Invocation)
+    public void prepareWorkbook() throws IOException {
+        int batch = importBatch.incrementAndGet();
+        try (XSSFWorkbook book = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = book.createSheet("Students");
+            Row header = sheet.createRow(0);
+            String[] columns = {"studentId", "fullName", "email", "department", "semester"};
+            for (int i = 0; i < columns.length; i++) {
+                header.createCell(i).setCellValue(columns[i]);
+            }
+            for (int i = 1; i <= importRows; i++) {
+                String studentId = settings + "-" + batch + "-" + i;
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(studentId);
+                row.createCell(1).setCellValue("Imported Student " + studentId);
+                row.createCell(2).setCellValue(studentId + "@import.estl.test");
+                row.createCell(3).setCellValue(departmentName);
+                row.createCell(4).setCellValue(semesterName);
+            }
+            book.write(out);
+            workbook = new MockMultipartFile("file", "students.xlsx",
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", out.toByteArray());
+        }
+    }
+
+    @Benchmark
+    public List<AttendanceRecordDTO> bulkAttendanceSave() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long subjectId = subjectIds.get(random.nextInt(subjectIds.size()));
+        LocalDate date = LocalDate.now().minusDays(random.nextInt(365));
+        List<AttendanceRecordDTO> records = new ArrayList<>(ROLL_CALL_SIZE);
+        for (int i = 0; i < ROLL_CALL_SIZE && i < studentIds.size(); i++) {
+            AttendanceRecordDTO record = new AttendanceRecordDTO();
+            record.setStudentId(studentIds.get(i));
+            record.setSubjectId(subjectId);
+            record.setDate(date);
+            record.setDuration(90);
+            record.setPresent(random.nextInt(10) != 0);
+            records.add(record);
+        }
+        return attendanceRecordService.saveBulkAttendanceRecords(records);
+    }
+
+    @Benchmark
+    public ImportResult excelStudentImport() throws IOException {
+        return excelImportService.processExcelFile(workbook);
+    }
+}
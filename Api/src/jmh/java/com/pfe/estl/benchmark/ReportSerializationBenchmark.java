@@ -0,0 +1,110 @@
+package com.pfe.estl.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pfe.estl.dto.AbsenceReportRowDTO;
+
+/**
+ * JSON serialization of absence report rows. It compares the former HashMap rows, the typed
+ * AbsenceReportRowDTO list, and the same DTOs written one by one into an open array the way
+ * JsonArrayStreamer does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rowCount;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter rowWriter;
+    private List<Map<String, Object>> mapRows;
+    private List<AbsenceReportRowDTO> typedRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same date handling as Spring Boot's auto-configured mapper
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        rowWriter = objectMapper.writerFor(AbsenceReportRowDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        mapRows = new ArrayList<>(rowCount);
+        typedRows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            String name = "Student " + i;
+            String studentId = String.format("ESTL%06d", i);
+            String department = "Department " + (i % 6);
+            int hours = i % 40;
+            List<LocalDate> dates = List.of(LocalDate.of(2025, 1, 6).plusDays(i % 30), LocalDate.of(2025, 2, 3));
+
+            Map<String, Object> map = new HashMap<>();
+            map.put("studentName", name);
+            map.put("studentId", studentId);
+            map.put("departmentName", department);
+            map.put("totalAbsenceHours", hours);
+            map.put("absenceDates", dates);
+            mapRows.add(map);
+
+            AbsenceReportRowDTO row = new AbsenceReportRowDTO(name, studentId, department, hours);
+            row.setAbsenceDates(dates);
+            typedRows.add(row);
+        }
+    }
+
+    @Benchmark
+    public byte[] mapRows() throws IOException {
+        return objectMapper.writeValueAsBytes(mapRows);
+    }
+
+    @Benchmark
+    public byte[] typedRows() throws IOException {
+        return objectMapper.writeValueAsBytes(typedRows);
+    }
+
+    @Benchmark
+    public byte[] typedRowsStreamed() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeStreamed(out);
+        return out.toByteArray();
+    }
+
+    private void writeStreamed(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (AbsenceReportRowDTO row : typedRows) {
+                rowWriter.writeValue(generator, row);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
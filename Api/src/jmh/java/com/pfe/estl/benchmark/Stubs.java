@@ -0,0 +1,49 @@
+package com.pfe.estl.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories so service logic can be measured
+ * without a database. Only the methods registered with {@link #answer} are supported.
+ */
+public final class Stubs<T> {
+
+    private final Class<T> type;
+    private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+    private Stubs(Class<T> type) {
+        this.type = type;
+    }
+
+    public static <T> Stubs<T> of(Class<T> type) {
+        return new Stubs<>(type);
+    }
+
+    public Stubs<T> answer(String methodName, Function<Object[], Object> answer) {
+        answers.put(methodName, answer);
+        return this;
+    }
+
+    public T build() {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                case "toString":
+                    return "Stub<" + type.getSimpleName() + ">";
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                    }
+                    return answer.apply(args);
+            }
+        });
+        return type.cast(proxy);
+    }
+}
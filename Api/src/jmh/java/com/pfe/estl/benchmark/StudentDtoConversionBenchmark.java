@@ -0,0 +1,73 @@
+package com.pfe.estl.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pfe.estl.controller.NaturalLanguageSearchController;
+import com.pfe.estl.dto.StudentDTO;
+import com.pfe.estl.model.Student;
+
+/**
+ * NaturalLanguageSearchController.convertToDTO over students whose attendance records
+ * add up to {@code recordCount}. Application logging goes to a file at WARN by default
+ * (see logback-test.xml); pass {@code -p logLevel=INFO} to include the per-record logging cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentDtoConversionBenchmark {
+
+    private static final MethodHandle CONVERT_TO_DTO;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(NaturalLanguageSearchController.class, MethodHandles.lookup());
+            CONVERT_TO_DTO = lookup.findVirtual(NaturalLanguageSearchController.class, "convertToDTO",
+                    MethodType.methodType(List.class, List.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int recordCount;
+
+    @Param({"WARN"})
+    public String logLevel;
+
+    private NaturalLanguageSearchController controller;
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkLogging.setApplicationLogLevel(logLevel);
+        // convertToDTO does not touch the query service
+        controller = new NaturalLanguageSearchController(null);
+        students = new BenchmarkData(recordCount).students;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<StudentDTO> convertToDTO() throws Throwable {
+        return (List<StudentDTO>) CONVERT_TO_DTO.invokeExact(controller, students);
+    }
+}
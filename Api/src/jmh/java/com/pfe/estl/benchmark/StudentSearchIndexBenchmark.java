@@ -0,0 +1,87 @@
+package com.pfe.estl.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pfe.estl.dto.StudentSuggestionDTO;
+import com.pfe.estl.repository.StudentRepository;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.StudentSearchIndex;
+
+/**
+ * Typeahead lookups against a 50k-student index: a short and therefore broad prefix, an
+ * accented two-word query, trailing student id digits (the linear id scan) and an exact id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "Élodie", "Hélène", "Mohamed", "Fatima", "Youssef", "Zoé", "Amine", "Inès", "Karim", "Salma",
+            "Noémie", "Mehdi", "Loïc", "Sara", "Anaïs", "Omar", "Chloé", "Rachid", "Maëlle", "Hamza"};
+    private static final String[] LAST_NAMES = {
+            "Durand", "Benali", "Lefèvre", "El Amrani", "Œuvray", "Martin", "Bouzid", "Müller", "Chraïbi",
+            "Garcia", "Ouazzani", "Dubois", "Naciri", "François", "Alaoui", "Petit", "Tazi", "Moreau"};
+
+    @Param({"50000"})
+    public int studentCount;
+
+    private StudentSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(studentCount);
+        for (long i = 1; i <= studentCount; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String studentId = String.format("ESTL-%d-%05d", 2020 + i % 5, i);
+            rows.add(new Object[] {i, studentId, first + " " + last,
+                    "student" + i + "@estl.ma", "Department " + (i % 6), "S" + (1 + i % 6)});
+        }
+        StudentRepository studentRepository = Stubs.of(StudentRepository.class)
+                .answer("findSearchRows", args -> rows)
+                .build();
+        index = new StudentSearchIndex(studentRepository, new ReferenceDataVersionService());
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<StudentSuggestionDTO> shortPrefix() {
+        return index.search("ma", 10);
+    }
+
+    @Benchmark
+    public List<StudentSuggestionDTO> accentedFullName() {
+        return index.search("elodie lefev", 10);
+    }
+
+    @Benchmark
+    public List<StudentSuggestionDTO> studentIdDigits() {
+        return index.search("0421", 10);
+    }
+
+    @Benchmark
+    public List<StudentSuggestionDTO> exactStudentId() {
+        return index.search("ESTL-2023-04213", 10);
+    }
+}
@@ -0,0 +1,428 @@
+package com.pfe.estl.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Drives the real HTTP endpoints (dashboard, reports, exports, bulk save) from concurrent
+ * clients once the application is up, then reports throughput and p50/p95/p99 latency per
+ * scenario to the log and to a JSON file.
+ *
+ * Requests go through the full stack: security filter, controllers, services and the
+ * database filled by {@link SyntheticDataGenerator}.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestHarness.class);
+    private static final int ROLL_CALL_SIZE = 30;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    @Value("${loadtest.harness.enabled:true}")
+    private boolean enabled;
+
+    @Value("${loadtest.harness.threads:16}")
+    private int threads;
+
+    @Value("${loadtest.harness.warmup-seconds:10}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.harness.duration-seconds:60}")
+    private int durationSeconds;
+
+    @Value("${loadtest.harness.username:admin}")
+    private String username;
+
+    @Value("${loadtest.harness.password:password}")
+    private String password;
+
+    @Value("${loadtest.harness.report-file:target/loadtest-report.json}")
+    private String reportFile;
+
+    @Value("${loadtest.harness.baseline-file:}")
+    private String baselineFile;
+
+    @Value("${loadtest.harness.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    private HttpClient httpClient;
+    private String baseUrl;
+    private String authorization;
+    private List<Long> departmentIds;
+    private List<String> departmentNames;
+    // Roll-call cohorts: students and subjects sharing a department and semester
+    private List<Cohort> cohorts;
+
+    public LoadTestHarness(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, Environment environment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Run outside the startup thread so the remaining ready listeners are not held up
+        Thread runner = new Thread(() -> run(event.getApplicationContext()), "loadtest-harness");
+        runner.start();
+    }
+
+    private void run(ConfigurableApplicationContext context) {
+        int exitCode = 0;
+        try {
+            prepare(context);
+            List<Scenario> scenarios = scenarios();
+
+            logger.info("Warming up for {} s with {} clients", warmupSeconds, threads);
+            drive(scenarios, warmupSeconds);
+
+            logger.info("Measuring for {} s with {} clients", durationSeconds, threads);
+            Map<String, Result> results = drive(scenarios, durationSeconds);
+            exitCode = report(results) ? 0 : 1;
+        } catch (Exception e) {
+            logger.error("Load test failed: {}", e.getMessage(), e);
+            exitCode = 2;
+        }
+        if (exitWhenDone) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private void prepare(ConfigurableApplicationContext context) {
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port", "8080") + "/api";
+        authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        departmentIds = jdbcTemplate.queryForList("SELECT id FROM departments ORDER BY id", Long.class);
+        departmentNames = jdbcTemplate.queryForList("SELECT name FROM departments ORDER BY id", String.class);
+
+        Map<String, Cohort> byKey = new HashMap<>();
+        jdbcTemplate.query("SELECT id, department_id, semester_id FROM students", rs -> {
+            byKey.computeIfAbsent(rs.getLong(2) + ":" + rs.getLong(3), key -> new Cohort()).studentIds.add(rs.getLong(1));
+        });
+        jdbcTemplate.query("SELECT id, department_id, semester_id FROM subjects", rs -> {
+            Cohort cohort = byKey.get(rs.getLong(2) + ":" + rs.getLong(3));
+            if (cohort != null) {
+                cohort.subjectIds.add(rs.getLong(1));
+            }
+        });
+        cohorts = byKey.values().stream()
+                .filter(cohort -> !cohort.subjectIds.isEmpty())
+                .toList();
+        if (departmentIds.isEmpty() || cohorts.isEmpty()) {
+            throw new IllegalStateException("No synthetic data found, check loadtest.data.* settings");
+        }
+    }
+
+    private List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        addScenario(scenarios, "dashboard", random -> get("/attendance/dashboard/stats?" + lastDays(30)));
+        addScenario(scenarios, "department-comparison", random -> get("/attendance/department/comparison?" + lastDays(30)));
+        addScenario(scenarios, "absence-report", random -> get("/attendance/report/absence?" + lastDays(90)
+                + "&departmentId=" + pick(departmentIds, random) + "&showExceededOnly=" + random.nextBoolean()));
+        addScenario(scenarios, "export-excel", random -> get("/attendance/export/absence-report?" + lastDays(90)
+                + "&departmentId=" + pick(departmentIds, random)));
+        addScenario(scenarios, "export-pdf", random -> get("/attendance/export/absence-report-pdf?" + lastDays(90)
+                + "&departmentId=" + pick(departmentIds, random)));
+        addScenario(scenarios, "bulk-save", random -> post("/attendance/bulk", rollCall(random)));
+        // LLM-backed search: mostly waiting on the (simulated) upstream API
+        addScenario(scenarios, "nl-search", random -> post("/search/natural",
+                Map.of("query", "students of " + pick(departmentNames, random) + " in the first semester")));
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("All load-test scenario weights are zero");
+        }
+        logger.info("Scenario mix: {}", scenarios.stream().map(s -> s.name + "=" + s.weight).toList());
+        return scenarios;
+    }
+
+    private void addScenario(List<Scenario> scenarios, String name, Function<ThreadLocalRandom, HttpRequest> request) {
+        int weight = environment.getProperty("loadtest.harness.weights." + name, Integer.class, 1);
+        if (weight > 0) {
+            scenarios.add(new Scenario(name, weight, request));
+        }
+    }
+
+    private Map<String, Result> drive(List<Scenario> scenarios, int seconds) throws InterruptedException {
+        int totalWeight = scenarios.stream().mapToInt(s -> s.weight).sum();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Map<String, Result>> perThread = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Map<String, Result> results = new HashMap<>();
+            perThread.add(results);
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Scenario scenario = choose(scenarios, random.nextInt(totalWeight));
+                        Result result = results.computeIfAbsent(scenario.name, name -> new Result());
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<byte[]> response = httpClient.send(scenario.request.apply(random),
+                                    HttpResponse.BodyHandlers.ofByteArray());
+                            ok = response.statusCode() < 400;
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        result.record(System.nanoTime() - start, ok);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "loadtest-client-" + t);
+            worker.start();
+        }
+        done.await();
+
+        Map<String, Result> merged = new LinkedHashMap<>();
+        for (Scenario scenario : scenarios) {
+            Result total = new Result();
+            perThread.forEach(results -> total.merge(results.get(scenario.name)));
+            merged.put(scenario.name, total);
+        }
+        merged.values().forEach(result -> result.seconds = seconds);
+        return merged;
+    }
+
+    private boolean report(Map<String, Result> results) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", threads);
+        report.put("javaVersion", Runtime.version().feature());
+        report.put("virtualThreads", Runtime.version().feature() >= 21
+                && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        report.put("durationSeconds", durationSeconds);
+        report.put("students", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class));
+        report.put("attendanceRecords", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_records", Long.class));
+
+        StringBuilder table = new StringBuilder(String.format("%n%-22s %8s %7s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        boolean clean = true;
+        for (Map.Entry<String, Result> entry : results.entrySet()) {
+            Map<String, Object> summary = entry.getValue().summary();
+            scenarios.put(entry.getKey(), summary);
+            clean &= entry.getValue().errors == 0;
+            table.append(String.format("%-22s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    summary.get("requests"), summary.get("errors"), summary.get("throughput"),
+                    summary.get("p50Ms"), summary.get("p95Ms"), summary.get("p99Ms"), summary.get("maxMs")));
+        }
+        report.put("scenarios", scenarios);
+        logger.info("Load test results (virtual threads: {}):{}", report.get("virtualThreads"), table);
+        if (!baselineFile.isBlank()) {
+            compareWithBaseline(scenarios);
+        }
+
+        Path path = Path.of(reportFile);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+        logger.info("Load test report written to {}", path.toAbsolutePath());
+        return clean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compareWithBaseline(Map<String, Object> scenarios) throws IOException {
+        Path path = Path.of(baselineFile);
+        if (!Files.exists(path)) {
+            logger.warn("Baseline report {} not found, skipping comparison", path.toAbsolutePath());
+            return;
+        }
+        Map<String, Object> baseline = objectMapper.readValue(path.toFile(), Map.class);
+        Map<String, Object> baselineScenarios = (Map<String, Object>) baseline.getOrDefault("scenarios", Map.of());
+
+        StringBuilder table = new StringBuilder(String.format("%n%-22s %12s %12s %9s %12s %12s%n",
+                "scenario", "base req/s", "req/s", "change", "base p95 ms", "p95 ms"));
+        for (Map.Entry<String, Object> entry : scenarios.entrySet()) {
+            Map<String, Object> current = (Map<String, Object>) entry.getValue();
+            Map<String, Object> before = (Map<String, Object>) baselineScenarios.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double baseThroughput = ((Number) before.get("throughput")).doubleValue();
+            double throughput = ((Number) current.get("throughput")).doubleValue();
+            table.append(String.format("%-22s %12.1f %12.1f %8.0f%% %12.1f %12.1f%n", entry.getKey(),
+                    baseThroughput, throughput,
+                    baseThroughput > 0 ? (throughput - baseThroughput) / baseThroughput * 100 : 0.0,
+                    ((Number) before.get("p95Ms")).doubleValue(), ((Number) current.get("p95Ms")).doubleValue()));
+        }
+        logger.info("Compared with {} (virtual threads: {}, {} clients):{}", path.getFileName(),
+                baseline.get("virtualThreads"), baseline.get("threads"), table);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", authorization)
+                .header("X-Requested-With", "XMLHttpRequest")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", authorization)
+                    .header("X-Requested-With", "XMLHttpRequest")
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request body", e);
+        }
+    }
+
+    // One class session: a subject, today's date and a present/absent flag per student
+    private List<Map<String, Object>> rollCall(ThreadLocalRandom random) {
+        Cohort cohort = pick(cohorts, random);
+        Long subjectId = pick(cohort.subjectIds, random);
+        String today = LocalDate.now().toString();
+        int size = Math.min(ROLL_CALL_SIZE, cohort.studentIds.size());
+        int offset = random.nextInt(cohort.studentIds.size());
+        List<Map<String, Object>> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("studentId", cohort.studentIds.get((offset + i) % cohort.studentIds.size()));
+            record.put("subjectId", subjectId);
+            record.put("date", today);
+            record.put("duration", 90);
+            record.put("present", random.nextInt(10) != 0);
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static String lastDays(int days) {
+        LocalDate endDate = LocalDate.now();
+        return "startDate=" + endDate.minusDays(days) + "&endDate=" + endDate;
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static Scenario choose(List<Scenario> scenarios, int roll) {
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private static final class Scenario {
+        private final String name;
+        private final int weight;
+        private final Function<ThreadLocalRandom, HttpRequest> request;
+
+        private Scenario(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    private static final class Cohort {
+        private final List<Long> studentIds = new ArrayList<>();
+        private final List<Long> subjectIds = new ArrayList<>();
+    }
+
+    // Latencies of one scenario; each client thread owns its own instance until merge
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private int seconds;
+
+        private void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        private void merge(Result other) {
+            if (other == null) {
+                return;
+            }
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        private Map<String, Object> summary() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", count);
+            summary.put("errors", errors);
+            summary.put("throughput", seconds > 0 ? (double) count / seconds : 0.0);
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p95Ms", percentile(sorted, 0.95));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            summary.put("maxMs", count > 0 ? sorted[count - 1] / 1_000_000.0 : 0.0);
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.pfe.estl.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stand-in for the OpenAI chat completion API so the natural-language search can be load
+ * tested: it waits a fixed latency, then answers with a canned JPQL query.
+ *
+ * It listens on its own port with an unbounded pool, so the application's request threads
+ * are the only ones waiting on upstream I/O (openai.api.url points here in the loadtest profile).
+ */
+@Component
+@Profile("loadtest")
+public class SimulatedLlmServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedLlmServer.class);
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${loadtest.upstream.port:18089}")
+    private int port;
+
+    @Value("${loadtest.upstream.latency-ms:800}")
+    private long latencyMs;
+
+    @Value("${loadtest.upstream.jpql:SELECT s FROM Student s WHERE s.department.id = 1 AND s.semester.id = 1}")
+    private String jpql;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public SimulatedLlmServer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("choices",
+                List.of(Map.of("message", Map.of("role", "assistant", "content", jpql)))));
+
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "simulated-llm");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.setExecutor(executor);
+        server.createContext("/v1/chat/completions", exchange -> respond(exchange, body));
+        server.start();
+        logger.info("Simulated LLM listening on port {} with {} ms latency", port, latencyMs);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            Thread.sleep(latencyMs);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.pfe.estl.loadtest;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+/**
+ * Bulk-loads a realistic dataset for load testing: departments, semesters, subjects per
+ * department and semester, students, and a weekly timetable of attendance records.
+ *
+ * Rows go straight through JDBC batches; loading millions of attendance records through
+ * JPA would take longer than the test itself. The generator is deterministic for a given
+ * seed and does nothing when students already exist.
+ */
+@Component
+@Profile("loadtest")
+@Order(1)
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    private static final int BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataVersionService referenceDataVersionService;
+
+    @Value("${loadtest.data.students:2000}")
+    private int studentCount;
+
+    @Value("${loadtest.data.departments:5}")
+    private int departmentCount;
+
+    @Value("${loadtest.data.semesters:6}")
+    private int semesterCount;
+
+    @Value("${loadtest.data.subjects-per-semester:6}")
+    private int subjectsPerSemester;
+
+    @Value("${loadtest.data.sessions-per-week:10}")
+    private int sessionsPerWeek;
+
+    @Value("${loadtest.data.weeks:14}")
+    private int weeks;
+
+    @Value("${loadtest.data.session-minutes:90}")
+    private int sessionMinutes;
+
+    @Value("${loadtest.data.absence-rate:0.08}")
+    private double absenceRate;
+
+    @Value("${loadtest.data.seed:42}")
+    private long seed;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, ReferenceDataVersionService referenceDataVersionService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.referenceDataVersionService = referenceDataVersionService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class);
+        if (existing != null && existing > 0) {
+            logger.info("Skipping synthetic data generation, {} students already present", existing);
+            return;
+        }
+
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+
+        List<Long> departmentIds = insertNamed("departments", "Department", departmentCount);
+        List<Long> semesterIds = insertNamed("semesters", "Semester", semesterCount);
+
+        // subjectIds[department][semester] -> subjects taught to that cohort
+        List<List<List<Long>>> subjectIds = insertSubjects(departmentIds, semesterIds);
+        List<long[]> students = insertStudents(departmentIds, semesterIds);
+        long attendanceRows = insertAttendance(students, subjectIds, random);
+
+        referenceDataVersionService.markChanged(Table.DEPARTMENTS, Table.SEMESTERS, Table.SUBJECTS, Table.STUDENTS, Table.ATTENDANCE);
+        logger.info("Generated {} departments, {} semesters, {} students and {} attendance records in {} ms",
+                departmentIds.size(), semesterIds.size(), students.size(), attendanceRows,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<Long> insertNamed(String table, String prefix, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            rows.add(new Object[] {prefix + " " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (name) VALUES (?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class);
+    }
+
+    private List<List<List<Long>>> insertSubjects(List<Long> departmentIds, List<Long> semesterIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int d = 0; d < departmentIds.size(); d++) {
+            for (int s = 0; s < semesterIds.size(); s++) {
+                for (int k = 1; k <= subjectsPerSemester; k++) {
+                    String code = String.format("D%02dS%02dM%02d", d + 1, s + 1, k);
+                    rows.add(new Object[] {"Module " + code, code, departmentIds.get(d), semesterIds.get(s)});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO subjects (name, code, department_id, semester_id) VALUES (?, ?, ?, ?)", rows);
+
+        List<List<List<Long>>> subjects = new ArrayList<>();
+        for (int d = 0; d < departmentIds.size(); d++) {
+            List<List<Long>> bySemester = new ArrayList<>();
+            for (int s = 0; s < semesterIds.size(); s++) {
+                bySemester.add(jdbcTemplate.queryForList(
+                        "SELECT id FROM subjects WHERE department_id = ? AND semester_id = ? ORDER BY id",
+                        Long.class, departmentIds.get(d), semesterIds.get(s)));
+            }
+            subjects.add(bySemester);
+        }
+        return subjects;
+    }
+
+    // Returns [studentId, departmentIndex, semesterIndex] for each student
+    private List<long[]> insertStudents(List<Long> departmentIds, List<Long> semesterIds) {
+        List<Object[]> rows = new ArrayList<>(studentCount);
+        for (int i = 1; i <= studentCount; i++) {
+            String number = String.format("LT%07d", i);
+            rows.add(new Object[] {"Student " + number, number, number.toLowerCase() + "@loadtest.estl",
+                    departmentIds.get(i % departmentIds.size()), semesterIds.get(i % semesterIds.size())});
+        }
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO students (full_name, student_id, email, department_id, semester_id) VALUES (?, ?, ?, ?, ?)",
+                    rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+
+        List<long[]> students = new ArrayList<>(studentCount);
+        jdbcTemplate.query("SELECT id, department_id, semester_id FROM students ORDER BY id", rs -> {
+            students.add(new long[] {rs.getLong(1),
+                    departmentIds.indexOf(rs.getLong(2)), semesterIds.indexOf(rs.getLong(3))});
+        });
+        return students;
+    }
+
+    private long insertAttendance(List<long[]> students, List<List<List<Long>>> subjectIds, Random random) {
+        LocalDate firstMonday = LocalDate.now()
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                .minusWeeks(weeks - 1L);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long total = 0;
+        for (long[] student : students) {
+            List<Long> subjects = subjectIds.get((int) student[1]).get((int) student[2]);
+            if (subjects.isEmpty()) {
+                continue;
+            }
+            for (int week = 0; week < weeks; week++) {
+                for (int session = 0; session < sessionsPerWeek; session++) {
+                    LocalDate date = firstMonday.plusWeeks(week).plusDays(session % 5);
+                    if (date.isAfter(LocalDate.now())) {
+                        continue;
+                    }
+                    boolean present = random.nextDouble() >= absenceRate;
+                    batch.add(new Object[] {student[0], subjects.get(session % subjects.size()),
+                            Date.valueOf(date), sessionMinutes, present});
+                    if (batch.size() == BATCH_SIZE) {
+                        total += flushAttendance(batch);
+                    }
+                }
+            }
+        }
+        total += flushAttendance(batch);
+        return total;
+    }
+
+    private int flushAttendance(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO attendance_records (student_reference_id, subject_id, date, duration, is_present) VALUES (?, ?, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = batch.get(i);
+                        ps.setLong(1, (Long) row[0]);
+                        ps.setLong(2, (Long) row[1]);
+                        ps.setDate(3, (Date) row[2]);
+                        ps.setInt(4, (Integer) row[3]);
+                        ps.setBoolean(5, (Boolean) row[4]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                });
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+}
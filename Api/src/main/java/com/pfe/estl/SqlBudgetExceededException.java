@@ -0,0 +1,13 @@
+package com.pfe.estl;
+
+/**
+ * Raised in test mode when a request issues more SQL than its budget allows
+ */
+public class SqlBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -4,6 +4,7 @@ import com.pfe.estl.model.User;
 import com.pfe.estl.model.Role;
 import com.pfe.estl.repository.UserRepository;
 import com.pfe.estl.repository.RoleRepository;
+import com.pfe.estl.service.ReferenceDataVersionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class DataInitializer {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ReferenceDataVersionService referenceDataVersionService;
+
     @Bean
     CommandLineRunner initDatabase() {
         return args -> {
@@ -41,6 +45,7 @@ public class DataInitializer {
                 adminRole.setDescription("Administrator role with all permissions");
                 adminRole.setPermissions(new HashSet<>(Collections.singletonList("ADMIN_ALL")));
                 adminRole = roleRepository.save(adminRole);
+                referenceDataVersionService.markChanged(ReferenceDataVersionService.Table.ROLES);
                 logger.info("ADMIN role created with ADMIN_ALL permission");
             } else {
                 adminRole = roleRepository.findByName("ADMIN").get();
@@ -49,6 +54,7 @@ public class DataInitializer {
                 if (!adminRole.getPermissions().contains("ADMIN_ALL")) {
                     adminRole.getPermissions().add("ADMIN_ALL");
                     adminRole = roleRepository.save(adminRole);
+                    referenceDataVersionService.markChanged(ReferenceDataVersionService.Table.ROLES);
                     logger.info("Added ADMIN_ALL permission to existing ADMIN role");
                 }
             }
@@ -66,6 +72,7 @@ public class DataInitializer {
                 adminUser.setRoles(new HashSet<>(Collections.singletonList(adminRole)));
                 
                 userRepository.save(adminUser);
+                referenceDataVersionService.markChanged(ReferenceDataVersionService.Table.USERS);
                 logger.info("Default admin user created with username 'admin', email 'admin@example.com', and password 'password'. Please change the password.");
             } else {
                 User adminUser = userRepository.findByUsername("admin").get();
@@ -0,0 +1,177 @@
+package com.pfe.estl.config;
+
+import java.lang.reflect.Field;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Reports the effective connection pool, JDBC driver and Hibernate batching settings at
+ * startup and under /actuator/info, and warns about combinations that quietly disable
+ * batching (no batch size, MySQL without rewriteBatchedStatements, IDENTITY ids) or make
+ * streamed queries buffer their whole result (MySQL without useCursorFetch).
+ */
+@Component
+public class DataSourceSelfCheck implements InfoContributor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceSelfCheck.class);
+
+    private static final String[] MYSQL_FLAGS = {
+            "rewriteBatchedStatements", "cachePrepStmts", "prepStmtCacheSize", "prepStmtCacheSqlLimit",
+            "useServerPrepStmts", "useLocalSessionState", "cacheResultSetMetadata", "elideSetAutoCommits",
+            "useCursorFetch"
+    };
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public DataSourceSelfCheck(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportSettings() {
+        Map<String, Object> settings = getSettings();
+        logger.info("Connection pool: {}", settings.get("pool"));
+        logger.info("JDBC driver flags: {}", settings.get("driver"));
+        logger.info("Hibernate batching: {}", settings.get("hibernate"));
+        for (Object warning : (List<?>) settings.get("warnings")) {
+            logger.warn("Data source self-check: {}", warning);
+        }
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("datasource", getSettings());
+    }
+
+    /**
+     * Collect the settings actually in effect, not the ones configured
+     * @return pool, driver, hibernate and warnings sections
+     */
+    public Map<String, Object> getSettings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        List<String> warnings = new ArrayList<>();
+
+        HikariDataSource hikari = unwrapHikari();
+        Map<String, Object> pool = new LinkedHashMap<>();
+        Map<String, Object> driver = new LinkedHashMap<>();
+        boolean mysql = false;
+        if (hikari != null) {
+            mysql = hikari.getJdbcUrl() != null && hikari.getJdbcUrl().startsWith("jdbc:mysql:");
+            pool.put("name", hikari.getPoolName());
+            pool.put("maximumPoolSize", hikari.getMaximumPoolSize());
+            pool.put("minimumIdle", hikari.getMinimumIdle());
+            pool.put("connectionTimeoutMs", hikari.getConnectionTimeout());
+            pool.put("maxLifetimeMs", hikari.getMaxLifetime());
+            pool.put("keepaliveTimeMs", hikari.getKeepaliveTime());
+            pool.put("leakDetectionThresholdMs", hikari.getLeakDetectionThreshold());
+            pool.put("autoCommit", hikari.isAutoCommit());
+
+            if (mysql) {
+                Properties properties = hikari.getDataSourceProperties();
+                for (String flag : MYSQL_FLAGS) {
+                    driver.put(flag, properties.getProperty(flag, urlParameter(hikari.getJdbcUrl(), flag)));
+                }
+                if (!"true".equalsIgnoreCase(String.valueOf(driver.get("rewriteBatchedStatements")))) {
+                    warnings.add("rewriteBatchedStatements is off: MySQL receives JDBC batches as single-row statements");
+                }
+                if (!"true".equalsIgnoreCase(String.valueOf(driver.get("cachePrepStmts")))) {
+                    warnings.add("cachePrepStmts is off: every statement is parsed again by the driver");
+                }
+                if (!"true".equalsIgnoreCase(String.valueOf(driver.get("useCursorFetch")))) {
+                    warnings.add("useCursorFetch is off: fetch sizes are ignored and streamed queries are read into memory whole");
+                }
+            }
+        } else {
+            pool.put("type", dataSource.getClass().getName());
+            warnings.add("Data source is not a HikariCP pool, pool settings cannot be reported");
+        }
+
+        SessionFactoryOptions options = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions();
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("batchSize", options.getJdbcBatchSize());
+        hibernate.put("orderInserts", options.isOrderInsertsEnabled());
+        hibernate.put("orderUpdates", options.isOrderUpdatesEnabled());
+        List<String> identityEntities = identityEntities();
+        hibernate.put("identityEntities", identityEntities);
+        if (options.getJdbcBatchSize() <= 1) {
+            warnings.add("hibernate.jdbc.batch_size is not set: inserts and updates are sent one statement at a time");
+        } else if (!identityEntities.isEmpty()) {
+            warnings.add("Inserts are not batched for IDENTITY entities " + identityEntities);
+        }
+
+        settings.put("pool", pool);
+        settings.put("driver", mysql ? driver : Map.of());
+        settings.put("hibernate", hibernate);
+        settings.put("warnings", warnings);
+        return settings;
+    }
+
+    private HikariDataSource unwrapHikari() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari;
+        }
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    // Hibernate has to execute an IDENTITY insert immediately to learn the id, so it cannot batch it
+    private List<String> identityEntities() {
+        List<String> names = new ArrayList<>();
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            for (Class<?> type = entity.getJavaType(); type != null && type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    GeneratedValue generatedValue = field.getAnnotation(GeneratedValue.class);
+                    if (field.isAnnotationPresent(Id.class) && generatedValue != null
+                            && generatedValue.strategy() == GenerationType.IDENTITY) {
+                        names.add(entity.getName());
+                    }
+                }
+            }
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private static String urlParameter(String url, String name) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String parameter : url.substring(query + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && parameter.substring(0, equals).equals(name)) {
+                return parameter.substring(equals + 1);
+            }
+        }
+        return null;
+    }
+}
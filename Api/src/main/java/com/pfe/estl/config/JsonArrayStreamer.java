@@ -0,0 +1,59 @@
+package com.pfe.estl.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes large lists as a JSON array while they are being read, instead of collecting them
+ * into a List and handing that to Jackson.
+ *
+ * Elements go through the application's ObjectMapper, so dates and other settings match the
+ * regular endpoints. Per-element flushing is disabled so the servlet buffer (and gzip, when
+ * enabled) sees large writes.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonArrayStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Response body streaming every element the source produces
+     * @param type Element type, used to resolve the serializer once
+     * @param source Called on the streaming thread with a callback to invoke for each element;
+     *               open any transaction it needs inside
+     * @return A 200 application/json response
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Class<T> type, Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                source.accept(element -> {
+                    try {
+                        writer.writeValue(generator, element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,20 @@
+package com.pfe.estl.config;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers shared by application log statements
+ */
+public final class LogMarkers {
+
+    /**
+     * Per-record DEBUG traces (one line per attendance row, student, ...). These are sampled by
+     * {@link SampledTraceFilter}; callers should guard loops with
+     * {@code logger.isDebugEnabled(LogMarkers.RECORD_TRACE)} so nothing is computed when disabled.
+     */
+    public static final Marker RECORD_TRACE = MarkerFactory.getMarker("RECORD_TRACE");
+
+    private LogMarkers() {
+    }
+}
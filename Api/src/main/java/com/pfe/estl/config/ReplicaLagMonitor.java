@@ -0,0 +1,142 @@
+package com.pfe.estl.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Polls the read replica's replication delay and decides whether read-only transactions may
+ * use it. When the replica is unreachable, replication is stopped or the delay exceeds
+ * datasource.replica.max-lag-seconds, reads fall back to the primary until it catches up.
+ *
+ * An instance that is not configured as a replica reports no status. Nothing proves it holds
+ * the primary's data (a mistyped URL, a second local instance without replication), so it is
+ * not used unless datasource.replica.allow-non-replica=true says it is meant to be read from.
+ */
+public class ReplicaLagMonitor implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // readLag result for a server that returned no replica status row
+    private static final long NO_REPLICA_STATUS = Long.MIN_VALUE;
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final boolean allowNonReplica;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean usable;
+    private volatile boolean checked;
+    private volatile long lagSeconds = -1;
+    private volatile String reason = "not checked yet";
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagSeconds, long checkIntervalMs, boolean allowNonReplica) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.allowNonReplica = allowNonReplica;
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether read-only transactions should currently go to the replica
+     */
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    /**
+     * Last measured replication delay in seconds, -1 when unknown
+     */
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection()) {
+            Long lag = readLag(connection);
+            if (lag != null && lag == NO_REPLICA_STATUS) {
+                lagSeconds = allowNonReplica ? 0 : -1;
+                usable = allowNonReplica;
+                reason = allowNonReplica ? "not a replica, used as allowed by datasource.replica.allow-non-replica"
+                        : "server reports no replica status (set datasource.replica.allow-non-replica=true to read from it anyway)";
+            } else if (lag == null) {
+                lagSeconds = -1;
+                usable = false;
+                reason = "replication is not running";
+            } else if (maxLagSeconds >= 0 && lag > maxLagSeconds) {
+                lagSeconds = lag;
+                usable = false;
+                reason = "replica is " + lag + " s behind (limit " + maxLagSeconds + " s)";
+            } else {
+                lagSeconds = lag;
+                usable = true;
+                reason = "ok";
+            }
+        } catch (SQLException e) {
+            usable = false;
+            lagSeconds = -1;
+            reason = "replica unreachable: " + e.getMessage();
+        }
+        boolean firstCheck = !checked;
+        checked = true;
+        if (firstCheck || wasUsable != usable) {
+            if (usable) {
+                logger.info("Read replica back in use, lag {} s", lagSeconds);
+            } else {
+                logger.warn("Routing reads to the primary: {}", reason);
+            }
+        }
+    }
+
+    // MySQL 8.0.22+ names it REPLICA/Source, older servers SLAVE/Master
+    private static Long readLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return lagFrom(rs, "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return lagFrom(rs, "Seconds_Behind_Master");
+                }
+            }
+        }
+    }
+
+    private static Long lagFrom(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return NO_REPLICA_STATUS;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+
+    @Override
+    public Health health() {
+        // Reads fall back to the primary, so a lagging replica degrades nothing but load spreading
+        return Health.up()
+                .withDetail("routingReadsTo", usable ? "replica" : "primary")
+                .withDetail("lagSeconds", lagSeconds)
+                .withDetail("maxLagSeconds", maxLagSeconds)
+                .withDetail("status", reason)
+                .build();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,85 @@
+package com.pfe.estl.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read/write splitting, active when datasource.replica.url is set.
+ *
+ * Transactions marked {@code @Transactional(readOnly = true)} (reports, exports, natural-language
+ * search) run on a separate replica pool; everything else uses the primary pool from
+ * spring.datasource.*. The lazy proxy defers fetching a connection until the first statement,
+ * by which time the transaction's read-only flag is known. Keeping the pools apart means a
+ * report storm cannot take connections away from roll-call saves.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${datasource.replica.url}") String url,
+            @Value("${datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource replica = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        replica.setPoolName("estl-replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+            @Value("${datasource.replica.lag-check-interval-ms:2000}") long checkIntervalMs,
+            @Value("${datasource.replica.allow-non-replica:false}") boolean allowNonReplica,
+            MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, maxLagSeconds, checkIntervalMs, allowNonReplica);
+        Gauge.builder("estl.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagSeconds)
+                .description("Replication delay of the read replica, -1 when unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("estl.datasource.replica.in-use", monitor, m -> m.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor replicaLagMonitor) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor));
+        return proxy;
+    }
+}
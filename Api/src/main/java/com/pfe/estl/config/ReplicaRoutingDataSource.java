@@ -0,0 +1,53 @@
+package com.pfe.estl.config;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Target for read-only connections: the replica while {@link ReplicaLagMonitor} considers it
+ * fresh enough, otherwise the primary. Work wrapped in {@link #onPrimary(Supplier)} always
+ * reads from the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Run an action whose read-only transactions must see everything committed so far, even when
+     * the replica is within its allowed lag. Only connections fetched inside the action are affected
+     * @param action Runs on the calling thread
+     * @return The action's result
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (FORCE_PRIMARY.get() != null) {
+            return action.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return FORCE_PRIMARY.get() == null && lagMonitor.isReplicaUsable() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,38 @@
+package com.pfe.estl.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Logback turbo filter letting through one in {@code sampleRate} events carrying
+ * {@link LogMarkers#RECORD_TRACE}, so per-record debugging can stay on under load.
+ *
+ * Level checks ({@code isDebugEnabled(marker)}) are not sampled: they fall through to the normal
+ * level decision, which keeps guarded loops free when DEBUG is off for the logger.
+ */
+public class SampledTraceFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+    private int sampleRate = 1;
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || !marker.contains(LogMarkers.RECORD_TRACE) || format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!logger.isEnabledFor(level)) {
+            return FilterReply.DENY;
+        }
+        return counter.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
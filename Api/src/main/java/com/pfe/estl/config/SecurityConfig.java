@@ -49,6 +49,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/health/**").permitAll()
                 .requestMatchers("/api/ping").permitAll()
                 .requestMatchers("/api/ping/**").permitAll()
+                // Liveness for load balancers; metrics and the Prometheus scrape endpoint need an admin login
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // Require authentication for all other requests
                 .anyRequest().authenticated()
             )
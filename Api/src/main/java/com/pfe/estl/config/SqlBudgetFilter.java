@@ -0,0 +1,125 @@
+package com.pfe.estl.config;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.pfe.estl.SqlBudgetExceededException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements and database time of every HTTP request and reports the ones
+ * that go over budget, naming the endpoint and the most repeated statement (usually an N+1).
+ *
+ * Breaches are logged and counted in the estl.sql.budget.breaches metric. The request's
+ * statistics and breach message are left in request attributes, which the MockMvc tests
+ * assert on so a query regression breaks the build rather than production. With
+ * sql.budget.fail-on-breach=true the request also fails, as long as its response has not been
+ * committed yet; a response already sent to the client is logged as an error instead.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+
+    /** Request attribute holding the {@link SqlRequestStatistics} of the request */
+    public static final String STATISTICS_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".statistics";
+    /** Request attribute holding the breach message, absent when the request stayed within budget */
+    public static final String BREACH_ATTRIBUTE = SqlBudgetFilter.class.getName() + ".breach";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final long maxTimeMs;
+    private final int repeatedStatementThreshold;
+    private final boolean failOnBreach;
+
+    public SqlBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql.budget.enabled:true}") boolean enabled,
+            @Value("${sql.budget.max-statements:100}") int maxStatements,
+            @Value("${sql.budget.max-time-ms:2000}") long maxTimeMs,
+            @Value("${sql.budget.repeated-statement-threshold:20}") int repeatedStatementThreshold,
+            @Value("${sql.budget.fail-on-breach:false}") boolean failOnBreach) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.maxTimeMs = maxTimeMs;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        this.failOnBreach = failOnBreach;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStatistics statistics = SqlRequestStatistics.begin();
+        request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestStatistics.end();
+        }
+        checkBudget(request, response, statistics);
+    }
+
+    private void checkBudget(HttpServletRequest request, HttpServletResponse response, SqlRequestStatistics statistics) {
+        Map.Entry<String, Integer> mostRepeated = statistics.getMostRepeatedStatement();
+        boolean tooManyStatements = statistics.getStatementCount() > maxStatements;
+        boolean tooSlow = statistics.getExecutionMillis() > maxTimeMs;
+        boolean repeated = mostRepeated != null && mostRepeated.getValue() > repeatedStatementThreshold;
+        if (!tooManyStatements && !tooSlow && !repeated) {
+            return;
+        }
+
+        String endpoint = request.getMethod() + " " + endpointPattern(request);
+        String reason = tooManyStatements ? "statements" : tooSlow ? "time" : "repeated";
+        meterRegistry.counter("estl.sql.budget.breaches", "endpoint", endpoint, "reason", reason).increment();
+
+        String message = String.format(
+                "SQL budget exceeded by %s: %d statements (limit %d), %d ms database time (limit %d ms)%s",
+                endpoint, statistics.getStatementCount(), maxStatements, statistics.getExecutionMillis(), maxTimeMs,
+                mostRepeated != null
+                        ? String.format(", most repeated %dx: %s", mostRepeated.getValue(), abbreviate(mostRepeated.getKey()))
+                        : "");
+        request.setAttribute(BREACH_ATTRIBUTE, message);
+        if (!failOnBreach) {
+            logger.warn(message);
+        } else if (!response.isCommitted()) {
+            throw new SqlBudgetExceededException(message);
+        } else {
+            // Too late to change the status the client received
+            logger.error("{} (response already committed)", message);
+        }
+    }
+
+    // The mapped pattern (/api/students/{id}) groups requests better than the raw URI
+    private static String endpointPattern(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() > MAX_LOGGED_SQL_LENGTH ? singleLine.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : singleLine;
+    }
+}
@@ -0,0 +1,21 @@
+package com.pfe.estl.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks the per-request SQL counters into Hibernate, see {@link SqlBudgetFilter}
+ */
+@Configuration
+public class SqlMonitoringConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlRequestStatistics.Inspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlRequestStatistics.TimingListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.pfe.estl.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Per-request SQL counters fed by Hibernate.
+ *
+ * {@link SqlBudgetFilter} opens a scope for each HTTP request; the {@link Inspector} counts every
+ * statement Hibernate prepares and the {@link TimingListener} adds up JDBC execution time. Work
+ * done outside a request (startup jobs, schedulers) is not tracked.
+ */
+public final class SqlRequestStatistics {
+
+    // Distinct statements remembered per request for N+1 detection
+    private static final int MAX_DISTINCT_STATEMENTS = 500;
+
+    private static final ThreadLocal<SqlRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long executionNanos;
+    private long executionStart;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    private SqlRequestStatistics() {
+    }
+
+    /**
+     * Start tracking statements issued by the current thread
+     */
+    static SqlRequestStatistics begin() {
+        SqlRequestStatistics statistics = new SqlRequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stop tracking statements issued by the current thread
+     */
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getExecutionMillis() {
+        return executionNanos / 1_000_000;
+    }
+
+    /**
+     * The statement issued most often during the request, the usual signature of an N+1 query
+     * @return The SQL and its count, or null when nothing was issued
+     */
+    public Map.Entry<String, Integer> getMostRepeatedStatement() {
+        return statementCounts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    private void recordStatement(String sql) {
+        statementCount++;
+        // Hibernate binds parameters as '?', so identical SQL means the same query shape
+        if (statementCounts.size() < MAX_DISTINCT_STATEMENTS || statementCounts.containsKey(sql)) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Counts statements as Hibernate prepares them; registered as the session factory inspector
+     */
+    public static class Inspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String inspect(String sql) {
+            SqlRequestStatistics statistics = CURRENT.get();
+            if (statistics != null) {
+                statistics.recordStatement(sql);
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * Measures JDBC execution time; Hibernate creates one instance per session
+     */
+    public static class TimingListener implements SessionEventListener {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            start();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            stop();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            start();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            stop();
+        }
+
+        private static void start() {
+            SqlRequestStatistics statistics = CURRENT.get();
+            if (statistics != null) {
+                statistics.executionStart = System.nanoTime();
+            }
+        }
+
+        private static void stop() {
+            SqlRequestStatistics statistics = CURRENT.get();
+            if (statistics != null && statistics.executionStart != 0) {
+                statistics.executionNanos += System.nanoTime() - statistics.executionStart;
+                statistics.executionStart = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.pfe.estl.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.pfe.estl.dto.AbsenceAlertDTO;
+import com.pfe.estl.dto.AbsenceThresholdDTO;
+import com.pfe.estl.service.AbsenceAlertService;
+
+/**
+ * Controller for absence threshold alerts and threshold configuration
+ */
+@RestController
+@RequestMapping("/api/absence-alerts")
+public class AbsenceAlertController {
+
+    private final AbsenceAlertService absenceAlertService;
+
+    public AbsenceAlertController(AbsenceAlertService absenceAlertService) {
+        this.absenceAlertService = absenceAlertService;
+    }
+
+    /**
+     * Page through threshold-crossing alerts, newest first
+     * @param active Only active (true) or resolved (false) alerts; all when omitted
+     * @param departmentId Restrict to one department
+     * @return The page content with paging metadata
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getAlerts(
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(absenceAlertService.getAlerts(active, departmentId, page, size));
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<List<AbsenceAlertDTO>> getActiveAlerts() {
+        return ResponseEntity.ok(absenceAlertService.getActiveAlerts());
+    }
+
+    /**
+     * Rebuild alerts for every student, e.g. after attendance was written outside the application
+     */
+    @PostMapping("/reevaluate")
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<Void> reevaluateAlerts() {
+        absenceAlertService.reevaluateAllStudents();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/thresholds")
+    public ResponseEntity<Map<String, Object>> getThresholds() {
+        return ResponseEntity.ok(Map.of(
+                "defaultThresholdHours", absenceAlertService.getDefaultThresholdHours(),
+                "overrides", absenceAlertService.getThresholds()));
+    }
+
+    /**
+     * Create or replace the threshold for a department, a semester or both.
+     * Leaving both ids empty overrides the default threshold.
+     */
+    @PostMapping("/thresholds")
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<AbsenceThresholdDTO> saveThreshold(@RequestBody AbsenceThresholdDTO thresholdDTO) {
+        return ResponseEntity.ok(absenceAlertService.saveThreshold(thresholdDTO));
+    }
+
+    @DeleteMapping("/thresholds/{id}")
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<Void> deleteThreshold(@PathVariable Long id) {
+        absenceAlertService.deleteThreshold(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.pfe.estl.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.pfe.estl.dto.AttendanceArchiveDTO;
+import com.pfe.estl.service.AttendanceArchiveService;
+
+/**
+ * Controller for archiving the attendance of closed academic years
+ */
+@RestController
+@RequestMapping("/api/admin/attendance-archive")
+public class AttendanceArchiveController {
+
+    private final AttendanceArchiveService attendanceArchiveService;
+
+    public AttendanceArchiveController(AttendanceArchiveService attendanceArchiveService) {
+        this.attendanceArchiveService = attendanceArchiveService;
+    }
+
+    /**
+     * Academic years with attendance and how many of their records are live or archived
+     */
+    @GetMapping
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<List<AttendanceArchiveDTO>> getAcademicYears() {
+        return ResponseEntity.ok(attendanceArchiveService.getAcademicYears());
+    }
+
+    /**
+     * Move the attendance of a closed academic year into its archive table
+     * @param academicYear The calendar year the academic year starts in, e.g. 2023 for 2023-2024
+     * @return The academic year after the move, or 400 if it is still open
+     */
+    @PostMapping("/{academicYear}")
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<?> archiveAcademicYear(@PathVariable int academicYear) {
+        try {
+            return ResponseEntity.ok(attendanceArchiveService.archiveAcademicYear(academicYear));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
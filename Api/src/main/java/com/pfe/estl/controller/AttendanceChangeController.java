@@ -0,0 +1,45 @@
+package com.pfe.estl.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.pfe.estl.dto.AttendanceChangePageDTO;
+import com.pfe.estl.service.AttendanceChangeLogService;
+
+/**
+ * Cursor-based reader of the attendance change log, for clients that keep derived data up to date
+ */
+@RestController
+@RequestMapping("/api/attendance/changes")
+public class AttendanceChangeController {
+
+    private final AttendanceChangeLogService attendanceChangeLog;
+
+    public AttendanceChangeController(AttendanceChangeLogService attendanceChangeLog) {
+        this.attendanceChangeLog = attendanceChangeLog;
+    }
+
+    /**
+     * Changes after a cursor, oldest first
+     * @param cursor Last sequence number already processed; 0 to read from the start
+     * @param limit Maximum number of changes, at most 1000
+     * @return The changes and the cursor to pass next time
+     */
+    @GetMapping
+    public ResponseEntity<AttendanceChangePageDTO> getChanges(
+            @RequestParam(defaultValue = "0") long cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(attendanceChangeLog.getChanges(cursor, limit));
+    }
+
+    /**
+     * Latest sequence number, for a consumer that wants to start from now rather than replay the log
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<Long> getLatestSequence() {
+        return ResponseEntity.ok(attendanceChangeLog.getLatestSequence());
+    }
+}
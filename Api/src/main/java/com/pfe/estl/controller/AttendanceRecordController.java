@@ -2,6 +2,7 @@ package com.pfe.estl.controller;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -28,24 +29,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.itextpdf.text.BaseColor;
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
-import com.itextpdf.text.Element;
-import com.itextpdf.text.Font;
-import com.itextpdf.text.PageSize;
 import com.itextpdf.text.Paragraph;
-import com.itextpdf.text.Phrase;
-import com.itextpdf.text.Rectangle;
-import com.itextpdf.text.pdf.PdfPCell;
-import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import com.pfe.estl.config.JsonArrayStreamer;
+import com.pfe.estl.dto.AbsenceReportRowDTO;
 import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.dto.AttendanceTimelineDTO;
+import com.pfe.estl.dto.StudentAbsenceReportDTO;
 import com.pfe.estl.repository.StudentRepository;
 import com.pfe.estl.service.AttendanceRecordService;
 import com.pfe.estl.service.ExcelExportService;
 import com.pfe.estl.service.PdfExportService;
+import com.pfe.estl.service.ReportCacheService;
+import com.pfe.estl.service.StudentReportArchiveService;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -56,22 +56,31 @@ public class AttendanceRecordController {
     private final AttendanceRecordService attendanceRecordService;
     private final ExcelExportService excelExportService;
     private final PdfExportService pdfExportService;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final StudentReportArchiveService studentReportArchiveService;
+    private final ReportCacheService reportCacheService;
 
     @Autowired
     public AttendanceRecordController(
             AttendanceRecordService attendanceRecordService,
             ExcelExportService excelExportService,
             PdfExportService pdfExportService,
-            StudentRepository studentRepository) {
+            StudentRepository studentRepository,
+            JsonArrayStreamer jsonArrayStreamer,
+            StudentReportArchiveService studentReportArchiveService,
+            ReportCacheService reportCacheService) {
         this.attendanceRecordService = attendanceRecordService;
         this.excelExportService = excelExportService;
         this.pdfExportService = pdfExportService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
+        this.studentReportArchiveService = studentReportArchiveService;
+        this.reportCacheService = reportCacheService;
     }
 
     @PostMapping("/save")
     public ResponseEntity<String> saveAttendance(@RequestBody Map<String, Object> attendanceData) {
         try {
-            logger.info("Received attendance data: {}", attendanceData);
+            logger.debug("Received attendance data: {}", attendanceData);
             
             // Extract data from the request
             String dateStr = (String) attendanceData.get("date");
@@ -163,9 +172,10 @@ public class AttendanceRecordController {
         return ResponseEntity.ok(attendanceRecordService.getAttendanceRecordById(id));
     }
 
+    // The whole table: streamed row by row rather than built as a list first
     @GetMapping
-    public ResponseEntity<List<AttendanceRecordDTO>> getAllAttendanceRecords() {
-        return ResponseEntity.ok(attendanceRecordService.getAllAttendanceRecords());
+    public ResponseEntity<StreamingResponseBody> getAllAttendanceRecords() {
+        return jsonArrayStreamer.stream(AttendanceRecordDTO.class, attendanceRecordService::forEachAttendanceRecord);
     }
 
     @GetMapping("/student/{studentId}")
@@ -195,6 +205,21 @@ public class AttendanceRecordController {
             attendanceRecordService.getAttendanceRecordsByStudentAndDateRange(studentId, startDate, endDate));
     }
 
+    /**
+     * Compact columnar timeline of a student's attendance, decoded on the client
+     * @param studentId The student's school id
+     * @param startDate Optional range start, given together with endDate
+     * @param endDate Optional range end
+     * @return Day offsets, subject dictionary, durations and presence bits
+     */
+    @GetMapping("/student/{studentId}/timeline")
+    public ResponseEntity<AttendanceTimelineDTO> getAttendanceTimeline(
+            @PathVariable String studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(attendanceRecordService.getAttendanceTimeline(studentId, startDate, endDate));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<AttendanceRecordDTO> updateAttendanceRecord(
             @PathVariable Long id,
@@ -237,9 +262,13 @@ public class AttendanceRecordController {
         return ResponseEntity.ok(attendanceRecordService.saveBulkAttendanceRecords(attendanceRecords));
     }
 
+    // Without an explicit thresholdHours, returns the students with an active absence alert
     @GetMapping("/absence/threshold")
     public ResponseEntity<List<Map<String, Object>>> getStudentsExceedingThreshold(
-            @RequestParam(defaultValue = "9") int thresholdHours) {
+            @RequestParam(required = false) Integer thresholdHours) {
+        if (thresholdHours == null) {
+            return ResponseEntity.ok(attendanceRecordService.getStudentsExceedingAbsenceThreshold());
+        }
         return ResponseEntity.ok(attendanceRecordService.getStudentsExceedingAbsenceThreshold(thresholdHours));
     }
 
@@ -261,7 +290,7 @@ public class AttendanceRecordController {
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             // Log the error for debugging
-            logger.error("Error getting absence hours for student " + studentId, e);
+            logger.error("Error getting absence hours for student {}", studentId, e);
             
             // Return a simplified error response
             Map<String, String> errorResponse = new HashMap<>();
@@ -308,13 +337,26 @@ public class AttendanceRecordController {
         // --- Add Logging ---
         logger.info("Controller: exportAbsenceReportToExcel called with showExceededOnly = {}", showExceededOnly);
 
-        List<Map<String, Object>> absenceReportData = attendanceRecordService.getAbsenceReport(
-            startDate, endDate, departmentId, semesterId, subjectId, showExceededOnly); // Pass the received value
+        List<AbsenceReportRowDTO> absenceReportData = getCachedAbsenceReport(
+            startDate, endDate, departmentId, semesterId, subjectId, showExceededOnly);
 
         // --- Add Logging ---
         logger.info("Controller: Service returned {} records for Excel export.", absenceReportData.size());
 
-        byte[] excelContent = excelExportService.exportAbsenceReportToExcel(absenceReportData);
+        // The workbook is cached too: building it costs more than the report itself
+        byte[] excelContent;
+        try {
+            excelContent = reportCacheService.get("absence-report-xlsx",
+                absenceReportKey(startDate, endDate, departmentId, semesterId, subjectId, showExceededOnly), () -> {
+                    try {
+                        return excelExportService.exportAbsenceReportToExcel(absenceReportData);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
@@ -328,7 +370,7 @@ public class AttendanceRecordController {
     }
 
     @GetMapping("/export/absence-report-pdf")
-    public ResponseEntity<byte[]> exportAbsenceReportPdf(
+    public ResponseEntity<StreamingResponseBody> exportAbsenceReportPdf(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "all") String departmentId,
@@ -339,13 +381,20 @@ public class AttendanceRecordController {
         // --- Add Logging ---
         logger.info("Controller: exportAbsenceReportPdf called with showExceededOnly = {}", showExceededOnly);
 
-        List<Map<String, Object>> absenceReportData = attendanceRecordService.getAbsenceReport(
-            startDate, endDate, departmentId, semesterId, subjectId, showExceededOnly); // Pass the received value
+        List<AbsenceReportRowDTO> absenceReportData = getCachedAbsenceReport(
+            startDate, endDate, departmentId, semesterId, subjectId, showExceededOnly);
 
         // --- Add Logging ---
         logger.info("Controller: Service returned {} records for PDF export.", absenceReportData.size());
 
-        byte[] pdfContent = pdfExportService.exportAbsenceReportToPdf(absenceReportData, startDate, endDate);
+        // Pages go to the client as they are laid out instead of being buffered as byte[]
+        StreamingResponseBody pdfContent = out -> {
+            try {
+                pdfExportService.writeAbsenceReportPdf(absenceReportData, startDate, endDate, out);
+            } catch (DocumentException e) {
+                throw new IOException("Failed to generate absence report PDF", e);
+            }
+        };
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
@@ -359,7 +408,7 @@ public class AttendanceRecordController {
     }
 
     @GetMapping("/report/absence")
-    public ResponseEntity<List<Map<String, Object>>> getAbsenceReport(
+    public ResponseEntity<List<AbsenceReportRowDTO>> getAbsenceReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false, defaultValue = "all") String departmentId,
@@ -370,7 +419,7 @@ public class AttendanceRecordController {
         // --- Add Logging ---
         logger.info("Controller: getAbsenceReport (for UI) called with showExceededOnly = {}", showExceededOnly);
 
-        List<Map<String, Object>> absenceReport = attendanceRecordService.getAbsenceReport(
+        List<AbsenceReportRowDTO> absenceReport = getCachedAbsenceReport(
             startDate,
             endDate,
             departmentId,
@@ -403,201 +452,29 @@ public class AttendanceRecordController {
             }
             
             List<AttendanceRecordDTO> studentRecords = attendanceRecordService.getAttendanceRecordsByStudent(studentId);
-            
-            // Filter to only show absence records
-            List<AttendanceRecordDTO> absenceRecords = studentRecords.stream()
+
+            StudentAbsenceReportDTO report = new StudentAbsenceReportDTO();
+            report.setStudentName((String) studentAbsence.get("studentName"));
+            report.setStudentId((String) studentAbsence.get("studentId"));
+            report.setDepartmentName((String) studentAbsence.get("departmentName"));
+            report.setSemesterName((String) studentAbsence.get("semesterName"));
+            report.setTotalAbsenceHours(studentAbsence.get("totalAbsenceHours") instanceof Integer hours ? hours : 0);
+            report.setThresholdHours(studentAbsence.get("thresholdHours") instanceof Integer threshold ? threshold : 0);
+            report.setExceedsThreshold(Boolean.TRUE.equals(studentAbsence.get("exceedsThreshold")));
+            // Only absence records are listed
+            report.setAbsences(studentRecords.stream()
                     .filter(record -> !record.isPresent())
-                    .collect(Collectors.toList());
+                    .map(record -> new StudentAbsenceReportDTO.Absence(record.getDate(), record.getSubjectId(), record.getDuration()))
+                    .collect(Collectors.toList()));
 
-            // Create a new document
-            Document document = new Document(PageSize.A4);
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            PdfWriter.getInstance(document, baos);
-            
-            // Open the document
-            document.open();
-            
-            // Add header and logo
-            document.addTitle("Student Absence Report");
-            document.addAuthor("ESTL Attendance System");
-            document.addCreationDate();
-            
-            // Add title
-            Font titleFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.DARK_GRAY);
-            Paragraph title = new Paragraph("Student Absence Report", titleFont);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(20);
-            document.add(title);
-            
-            // Student info section
-            Font sectionFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD, BaseColor.DARK_GRAY);
-            Paragraph studentInfo = new Paragraph("Student Information", sectionFont);
-            studentInfo.setSpacingAfter(10);
-            document.add(studentInfo);
-            
-            // Student details table
-            PdfPTable infoTable = new PdfPTable(2);
-            infoTable.setWidthPercentage(100);
-            infoTable.setSpacingAfter(20);
-            
-            // Style for info headers
-            Font infoHeaderFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-            // Style for info values
-            Font infoValueFont = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
-            
-            // Add student information rows - handle potential null values safely
-            addInfoRow(infoTable, "Student Name:", 
-                studentAbsence.get("studentName") != null ? studentAbsence.get("studentName").toString() : "N/A", 
-                infoHeaderFont, infoValueFont);
-            
-            addInfoRow(infoTable, "Student ID:", 
-                studentAbsence.get("studentId") != null ? studentAbsence.get("studentId").toString() : "N/A", 
-                infoHeaderFont, infoValueFont);
-            
-            addInfoRow(infoTable, "Department:", 
-                studentAbsence.get("departmentName") != null ? studentAbsence.get("departmentName").toString() : "N/A", 
-                infoHeaderFont, infoValueFont);
-            
-            addInfoRow(infoTable, "Semester:", 
-                studentAbsence.get("semesterName") != null ? studentAbsence.get("semesterName").toString() : "N/A", 
-                infoHeaderFont, infoValueFont);
-            
-            // Safely handle the total absence hours which might be an Integer or a String
-            Object totalAbsenceHoursObj = studentAbsence.get("totalAbsenceHours");
-            String totalAbsenceHoursStr = "0";
-            int totalAbsenceHoursInt = 0;
-            
-            if (totalAbsenceHoursObj != null) {
-                if (totalAbsenceHoursObj instanceof Integer) {
-                    totalAbsenceHoursInt = (Integer) totalAbsenceHoursObj;
-                    totalAbsenceHoursStr = String.valueOf(totalAbsenceHoursInt);
-                } else if (totalAbsenceHoursObj instanceof String) {
-                    totalAbsenceHoursStr = (String) totalAbsenceHoursObj;
-                    try {
-                        totalAbsenceHoursInt = Integer.parseInt(totalAbsenceHoursStr);
-                    } catch (NumberFormatException e) {
-                        // Use defaults if parsing fails
-                    }
-                }
-            }
-            
-            addInfoRow(infoTable, "Total Absence Hours:", totalAbsenceHoursStr, infoHeaderFont, infoValueFont);
-            
-            // Add threshold warning if needed
-            document.add(infoTable);
-            if (totalAbsenceHoursInt >= 9) {
-                Font warningFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.RED);
-                Paragraph warning = new Paragraph("Warning: Student has exceeded the absence threshold!", warningFont);
-                warning.setSpacingBefore(10);
-                warning.setSpacingAfter(20);
-                document.add(warning);
-            }
-            
-            // Add detailed absence records section
-            Paragraph absenceSection = new Paragraph("Detailed Absence Records", sectionFont);
-            absenceSection.setSpacingBefore(10);
-            absenceSection.setSpacingAfter(10);
-            document.add(absenceSection);
-            
-            if (absenceRecords.isEmpty()) {
-                Paragraph noRecords = new Paragraph("No absence records found for this student.");
-                noRecords.setSpacingAfter(20);
-                document.add(noRecords);
-            } else {
-                // Create absence records table
-                PdfPTable table = new PdfPTable(3);
-                table.setWidthPercentage(100);
-                table.setSpacingBefore(10);
-                table.setSpacingAfter(20);
-                
-                try {
-                    table.setWidths(new int[]{3, 5, 2});
-                } catch (DocumentException e) {
-                    e.printStackTrace();
-                }
-                
-                // Table header style
-                Font tableHeaderFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.WHITE);
-                BaseColor headerColor = new BaseColor(41, 128, 185); // Blue color
-                
-                // Add table headers
-                PdfPCell dateHeader = new PdfPCell(new Phrase("Date", tableHeaderFont));
-                dateHeader.setBackgroundColor(headerColor);
-                dateHeader.setPadding(8);
-                dateHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
-                dateHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                
-                PdfPCell subjectHeader = new PdfPCell(new Phrase("Subject ID", tableHeaderFont));
-                subjectHeader.setBackgroundColor(headerColor);
-                subjectHeader.setPadding(8);
-                subjectHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
-                subjectHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                
-                PdfPCell hoursHeader = new PdfPCell(new Phrase("Hours", tableHeaderFont));
-                hoursHeader.setBackgroundColor(headerColor);
-                hoursHeader.setPadding(8);
-                hoursHeader.setHorizontalAlignment(Element.ALIGN_CENTER);
-                hoursHeader.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                
-                table.addCell(dateHeader);
-                table.addCell(subjectHeader);
-                table.addCell(hoursHeader);
-                
-                // Add all absence records to the table
-                Font cellFont = new Font(Font.FontFamily.HELVETICA, 11);
-                BaseColor altColor = new BaseColor(240, 240, 240); // Light gray for alternating rows
-                
-                boolean isAltRow = false;
-                for (AttendanceRecordDTO record : absenceRecords) {
-                    // Date cell - handle potential null safely
-                    PdfPCell dateCell = new PdfPCell(new Phrase(
-                        record.getDate() != null ? record.getDate().toString() : "N/A", 
-                        cellFont));
-                    dateCell.setPadding(7);
-                    dateCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    if (isAltRow) dateCell.setBackgroundColor(altColor);
-                    
-                    // Subject cell - handle potential null safely
-                    PdfPCell subjectCell = new PdfPCell(new Phrase(
-                        record.getSubjectId() != null ? record.getSubjectId().toString() : "N/A", 
-                        cellFont));
-                    subjectCell.setPadding(7);
-                    subjectCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    if (isAltRow) subjectCell.setBackgroundColor(altColor);
-                    
-                    // Hours cell - handle potential null duration safely
-                    int hours = 0;
-                    if (record.getDuration() != null) {
-                        hours = record.getDuration() / 60; // Convert minutes to hours
-                    }
-                    PdfPCell hoursCell = new PdfPCell(new Phrase(String.valueOf(hours), cellFont));
-                    hoursCell.setPadding(7);
-                    hoursCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    if (isAltRow) hoursCell.setBackgroundColor(altColor);
-                    
-                    table.addCell(dateCell);
-                    table.addCell(subjectCell);
-                    table.addCell(hoursCell);
-                    
-                    isAltRow = !isAltRow; // Toggle for alternating row colors
-                }
-                
-                document.add(table);
-            }
-            
-            // Add footer with timestamp
-            Paragraph footer = new Paragraph("Generated on: " + LocalDate.now());
-            footer.setAlignment(Element.ALIGN_CENTER);
-            document.add(footer);
-            
-            // Close the document
-            document.close();
+            pdfExportService.writeStudentAbsenceReportPdf(report, baos);
             
             // Set headers
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
-            String fileName = studentAbsence.get("studentName") != null ? 
-                studentAbsence.get("studentName") + "_absence_report.pdf" : 
+            String fileName = report.getStudentName() != null ? 
+                report.getStudentName() + "_absence_report.pdf" : 
                 "student_absence_report.pdf";
             headers.setContentDispositionFormData("attachment", fileName);
             
@@ -623,17 +500,75 @@ public class AttendanceRecordController {
         }
     }
 
-    // Helper method to add info rows to the table
-    private void addInfoRow(PdfPTable table, String label, String value, Font labelFont, Font valueFont) {
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
-        labelCell.setBorder(Rectangle.NO_BORDER);
-        labelCell.setPadding(5);
-        
-        PdfPCell valueCell = new PdfPCell(new Phrase(value, valueFont));
-        valueCell.setBorder(Rectangle.NO_BORDER);
-        valueCell.setPadding(5);
-        
-        table.addCell(labelCell);
-        table.addCell(valueCell);
+    @GetMapping("/export/students/absence-reports")
+    public ResponseEntity<StreamingResponseBody> exportStudentAbsenceReportsZip(
+            @RequestParam(defaultValue = "all") String departmentId,
+            @RequestParam(defaultValue = "all") String semesterId) {
+
+        logger.info("Controller: exportStudentAbsenceReportsZip called with departmentId = {}, semesterId = {}",
+            departmentId, semesterId);
+
+        // Loaded here, inside the request, so lazy data and errors are dealt with before streaming starts
+        List<StudentAbsenceReportDTO> reports = attendanceRecordService.getStudentAbsenceReports(
+            parseFilterId("departmentId", departmentId), parseFilterId("semesterId", semesterId));
+
+        logger.info("Controller: Service returned {} students for ZIP export.", reports.size());
+
+        // Each PDF is added to the archive as soon as it is rendered
+        StreamingResponseBody zipContent = out -> studentReportArchiveService.writeZip(reports, out);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        String filename = String.format("student_absence_reports_%s_%s.zip", departmentId, semesterId)
+            .replaceAll("[^A-Za-z0-9._-]", "_");
+        headers.setContentDispositionFormData("attachment", filename);
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(zipContent);
+    }
+
+    // Concurrent identical requests (e.g. several department heads opening the same report) share one computation
+    private List<AbsenceReportRowDTO> getCachedAbsenceReport(LocalDate startDate, LocalDate endDate, String departmentId,
+            String semesterId, String subjectId, boolean showExceededOnly) {
+        String department = normalizeFilter(departmentId);
+        String semester = normalizeFilter(semesterId);
+        String subject = normalizeFilter(subjectId);
+        return reportCacheService.get("absence-report",
+            absenceReportKey(startDate, endDate, departmentId, semesterId, subjectId, showExceededOnly),
+            () -> List.copyOf(attendanceRecordService.getAbsenceReport(
+                startDate, endDate, department, semester, subject, showExceededOnly)));
+    }
+
+    private static String absenceReportKey(LocalDate startDate, LocalDate endDate, String departmentId,
+            String semesterId, String subjectId, boolean showExceededOnly) {
+        return ReportCacheService.key(startDate, endDate, normalizeFilter(departmentId),
+            normalizeFilter(semesterId), normalizeFilter(subjectId), showExceededOnly);
+    }
+
+    // "ALL", " all " and "all" are the same filter, and so are "07" and "7"
+    private static String normalizeFilter(String value) {
+        if (value == null || value.isBlank() || "all".equalsIgnoreCase(value.trim())) {
+            return "all";
+        }
+        String trimmed = value.trim();
+        try {
+            return Long.toString(Long.parseLong(trimmed));
+        } catch (NumberFormatException e) {
+            // Left to the service to reject
+            return trimmed;
+        }
+    }
+
+    // "all" (or blank) means no filter
+    private Long parseFilterId(String name, String value) {
+        if (value == null || value.isBlank() || "all".equalsIgnoreCase(value)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + " format: " + value);
+        }
     }
-}
\ No newline at end of file
+}
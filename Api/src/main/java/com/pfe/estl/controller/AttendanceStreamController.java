@@ -0,0 +1,34 @@
+package com.pfe.estl.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.pfe.estl.service.AttendanceEventBroadcaster;
+
+/**
+ * Server-Sent Events stream of attendance updates for the dashboard and roll-call pages
+ */
+@RestController
+@RequestMapping("/api/attendance")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AttendanceStreamController {
+
+    private final AttendanceEventBroadcaster attendanceEventBroadcaster;
+
+    public AttendanceStreamController(AttendanceEventBroadcaster attendanceEventBroadcaster) {
+        this.attendanceEventBroadcaster = attendanceEventBroadcaster;
+    }
+
+    /**
+     * Open a live update stream
+     * @return An emitter receiving attendance-saved, department-rate and threshold-crossed events
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAttendanceUpdates() {
+        return attendanceEventBroadcaster.subscribe();
+    }
+}
@@ -0,0 +1,71 @@
+package com.pfe.estl.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.pfe.estl.service.ReportCacheService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Controller exposing Hibernate second-level, query cache and report cache hit rates
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheStatisticsController {
+
+    private final Statistics statistics;
+    private final ReportCacheService reportCacheService;
+
+    public CacheStatisticsController(EntityManagerFactory entityManagerFactory, ReportCacheService reportCacheService) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.reportCacheService = reportCacheService;
+    }
+
+    /**
+     * Returns overall and per-region cache statistics
+     * @return Hit/miss/put counts and hit ratios
+     */
+    @GetMapping("/statistics")
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        body.put("secondLevelCache", counts(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        body.put("queryCache", counts(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region != null) {
+                Map<String, Object> regionStats = counts(region.getHitCount(), region.getMissCount(), region.getPutCount());
+                regionStats.put("elementsInMemory", region.getElementCountInMemory());
+                regions.put(regionName, regionStats);
+            }
+        }
+        body.put("regions", regions);
+        body.put("reportCache", reportCacheService.getStatistics());
+        return ResponseEntity.ok(body);
+    }
+
+    private Map<String, Object> counts(long hits, long misses, long puts) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        long lookups = hits + misses;
+        counts.put("hitRatio", lookups > 0 ? (double) hits / lookups : 0.0);
+        return counts;
+    }
+}
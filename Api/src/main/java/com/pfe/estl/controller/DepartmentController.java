@@ -2,6 +2,7 @@ package com.pfe.estl.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,9 +12,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.pfe.estl.dto.DepartmentDTO;
 import com.pfe.estl.service.DepartmentService;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 
 @RestController
 @RequestMapping("/api/departments")
@@ -21,14 +25,24 @@ import com.pfe.estl.service.DepartmentService;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
-    public DepartmentController(DepartmentService departmentService) {
+    public DepartmentController(DepartmentService departmentService,
+                                ReferenceDataVersionService referenceDataVersionService) {
         this.departmentService = departmentService;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     @GetMapping
-    public ResponseEntity<List<DepartmentDTO>> getAllDepartments() {
-        return ResponseEntity.ok(departmentService.getAllDepartments());
+    public ResponseEntity<List<DepartmentDTO>> getAllDepartments(WebRequest request) {
+        // Answer 304 straight from the version stamp, without querying the database
+        if (request.checkNotModified(referenceDataVersionService.eTag(Table.DEPARTMENTS),
+                referenceDataVersionService.lastModified(Table.DEPARTMENTS))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(departmentService.getAllDepartments());
     }
 
     @GetMapping("/{id}")
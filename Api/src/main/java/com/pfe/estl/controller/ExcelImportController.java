@@ -1,11 +1,18 @@
 package com.pfe.estl.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.pfe.estl.dto.ImportResult;
+import com.pfe.estl.service.AttendanceImportService;
 import com.pfe.estl.service.ExcelImportService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -13,6 +20,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * Controller for handling Excel file imports
@@ -23,9 +37,20 @@ public class ExcelImportController {
     
     private static final Logger logger = LoggerFactory.getLogger(ExcelImportController.class);
     
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    // Issues are flushed in small groups rather than one network write per line
+    private static final long FLUSH_INTERVAL_MS = 100;
+    
     @Autowired
     private ExcelImportService excelImportService;
     
+    @Autowired
+    private AttendanceImportService attendanceImportService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     /**
      * Import data from an Excel file
      * @param file The Excel file to import
@@ -53,4 +78,94 @@ public class ExcelImportController {
             return ResponseEntity.badRequest().body("Error processing file: " + e.getMessage());
         }
     }
+    
+    /**
+     * Validate an Excel file without importing anything (dry run). Errors and warnings are
+     * streamed as NDJSON while the rows are checked, one object per line, ending with a
+     * "summary" line. Importing the same file after a dry run with nothing to report skips
+     * the per-row database checks.
+     * @param file The Excel file to validate
+     * @return A stream of ImportIssueDTO lines followed by an ImportValidationSummaryDTO line
+     */
+    @PostMapping("/excel/validate")
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<StreamingResponseBody> validateExcel(@RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Received Excel dry-run request, filename: {}, size: {} bytes", 
+                   file.getOriginalFilename(), file.getSize());
+        
+        // The multipart upload is cleaned up when the request thread returns: copy it first
+        byte[] content = file.getBytes();
+        String filename = file.getOriginalFilename();
+        StreamingResponseBody body = ndjson(lines -> excelImportService.validateExcelFile(content, filename, lines::accept));
+        
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Import historical attendance records from a CSV or XLSX file with studentId, subjectCode,
+     * date, duration and present columns. Rows are written in large batches; rejected rows and
+     * progress after each batch are streamed as NDJSON, ending with a "summary" line.
+     * @param file The CSV or XLSX file to import
+     * @return A stream of ImportIssueDTO and AttendanceImportProgressDTO lines
+     */
+    @PostMapping("/attendance")
+    @PreAuthorize("hasAuthority('ADMIN_ALL')")
+    public ResponseEntity<StreamingResponseBody> importAttendance(@RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Received attendance import request, filename: {}, size: {} bytes", 
+                   file.getOriginalFilename(), file.getSize());
+        
+        // Kept on disk rather than in memory, and read while the response streams
+        Path content = Files.createTempFile("attendance-import-", ".tmp");
+        file.transferTo(content);
+        String filename = file.getOriginalFilename();
+        StreamingResponseBody body = ndjson(lines -> {
+            try {
+                return attendanceImportService.importFile(content, filename, lines);
+            } finally {
+                Files.deleteIfExists(content);
+            }
+        });
+        
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * Stream the lines a producer emits as NDJSON, followed by the value it returns
+     */
+    private StreamingResponseBody ndjson(NdjsonProducer producer) {
+        ObjectWriter lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                long[] lastFlush = {System.currentTimeMillis()};
+                Object last = producer.produce(line -> {
+                    try {
+                        lineWriter.writeValue(generator, line);
+                        long now = System.currentTimeMillis();
+                        if (now - lastFlush[0] >= FLUSH_INTERVAL_MS) {
+                            generator.flush();
+                            lastFlush[0] = now;
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                lineWriter.writeValue(generator, last);
+                generator.writeRaw('\n');
+            } catch (UncheckedIOException e) {
+                // Usually the client went away
+                throw e.getCause();
+            }
+        };
+    }
+    
+    @FunctionalInterface
+    private interface NdjsonProducer {
+        Object produce(Consumer<Object> lines) throws IOException;
+    }
 }
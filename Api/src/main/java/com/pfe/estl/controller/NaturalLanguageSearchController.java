@@ -1,5 +1,6 @@
 package com.pfe.estl.controller;
 
+import com.pfe.estl.config.LogMarkers;
 import com.pfe.estl.dto.DepartmentDTO;
 import com.pfe.estl.dto.NLQueryRequest;
 import com.pfe.estl.dto.NLQueryResponse;
@@ -68,11 +69,13 @@ public class NaturalLanguageSearchController {
             }
             
             // Debug logging for zero absence query
-            if (request.getQuery().toLowerCase().contains("0 absence") || 
-                request.getQuery().toLowerCase().contains("zero absence")) {
-                logger.info("Zero absence query - controller received {} students from service", students.size());
+            boolean traceZeroAbsence = logger.isDebugEnabled(LogMarkers.RECORD_TRACE)
+                    && (request.getQuery().toLowerCase().contains("0 absence")
+                            || request.getQuery().toLowerCase().contains("zero absence"));
+            if (traceZeroAbsence) {
+                logger.debug("Zero absence query - controller received {} students from service", students.size());
                 for (Student student : students) {
-                    logger.info("Controller received zero absence student: ID={}, Name={}, StudentID={}", 
+                    logger.debug(LogMarkers.RECORD_TRACE, "Controller received zero absence student: ID={}, Name={}, StudentID={}",
                                student.getId(), student.getFullName(), student.getStudentId());
                 }
             }
@@ -81,11 +84,10 @@ public class NaturalLanguageSearchController {
             List<StudentDTO> studentDTOs = convertToDTO(students);
             
             // More debug logging after conversion
-            if (request.getQuery().toLowerCase().contains("0 absence") || 
-                request.getQuery().toLowerCase().contains("zero absence")) {
-                logger.info("Zero absence query - after DTO conversion: {} DTOs", studentDTOs.size());
+            if (traceZeroAbsence) {
+                logger.debug("Zero absence query - after DTO conversion: {} DTOs", studentDTOs.size());
                 for (StudentDTO dto : studentDTOs) {
-                    logger.info("Zero absence DTO: ID={}, Name={}, StudentID={}, AbsenceCount={}", 
+                    logger.debug(LogMarkers.RECORD_TRACE, "Zero absence DTO: ID={}, Name={}, StudentID={}, AbsenceCount={}",
                                dto.getId(), dto.getFullName(), dto.getStudentId(), dto.getAbsenceCount());
                 }
             }
@@ -126,7 +128,6 @@ public class NaturalLanguageSearchController {
     }
     
     private StudentDTO convertToDTO(Student student) {
-        logger.info("Converting student {} to DTO", student.getFullName());
         if (student == null) {
             logger.warn("Attempted to convert a null student object.");
             return null;
@@ -137,31 +138,26 @@ public class NaturalLanguageSearchController {
             logger.warn("Attendance records collection is null for student: {}", student.getFullName());
             attendanceRecords = new ArrayList<>(); // Avoid NullPointerException
         }
-        logger.info("Student {} has {} attendance records", student.getFullName(), attendanceRecords.size());
+        logger.debug("Student {} has {} attendance records", student.getFullName(), attendanceRecords.size());
 
-        // Log details of each absence record (duration in minutes)
-        logger.info("Student {} raw absence details (in minutes):", student.getFullName());
-        List<Integer> absentDurationsInMinutes = new ArrayList<>();
-        attendanceRecords.stream()
-                .filter(record -> record != null && !record.isPresent())
-                .forEach(record -> {
-                    int durationInMinutes = record.getDuration();
-                    absentDurationsInMinutes.add(durationInMinutes);
-                    logger.info("  - Date: {}, Duration: {} minutes, Subject: {}",
-                            record.getDate(),
-                            durationInMinutes,
-                            record.getSubject() != null ? record.getSubject().getName() : "N/A");
-                    // Optional: Add logging or capping for unrealistic *minute* values here if needed
-                    // e.g., if (durationInMinutes > 1440) log.warn(...);
-                });
-
-        // Calculate total absence duration in minutes
-        int totalAbsenceMinutes = absentDurationsInMinutes.stream().mapToInt(Integer::intValue).sum();
-        logger.info("Student {} total absence minutes: {}", student.getFullName(), totalAbsenceMinutes);
+        // Per-record traces are sampled; the guard keeps the subject lookups out of the hot path
+        boolean traceRecords = logger.isDebugEnabled(LogMarkers.RECORD_TRACE);
+        int totalAbsenceMinutes = 0;
+        for (AttendanceRecord record : attendanceRecords) {
+            if (record == null || record.isPresent()) {
+                continue;
+            }
+            totalAbsenceMinutes += record.getDuration();
+            if (traceRecords) {
+                logger.debug(LogMarkers.RECORD_TRACE, "Student {} absence: date={}, duration={} minutes, subject={}",
+                        student.getFullName(), record.getDate(), record.getDuration(),
+                        record.getSubject() != null ? record.getSubject().getName() : "N/A");
+            }
+        }
 
         // Convert total minutes to hours (rounding to nearest hour)
         int absenceHours = (int) Math.round((double) totalAbsenceMinutes / 60.0);
-        logger.info("Student {} final calculated absence hours: {}", student.getFullName(), absenceHours);
+        logger.debug("Student {} total absence minutes: {}, hours: {}", student.getFullName(), totalAbsenceMinutes, absenceHours);
 
         StudentDTO dto = new StudentDTO();
         dto.setId(student.getId());
@@ -1,11 +1,15 @@
 package com.pfe.estl.controller;
 
 import com.pfe.estl.dto.RoleDTO;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 import com.pfe.estl.service.RoleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Set;
@@ -15,10 +19,12 @@ import java.util.Set;
 public class RoleController {
 
     private final RoleService roleService;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
     @Autowired
-    public RoleController(RoleService roleService) {
+    public RoleController(RoleService roleService, ReferenceDataVersionService referenceDataVersionService) {
         this.roleService = roleService;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     @PostMapping
@@ -48,8 +54,14 @@ public class RoleController {
     }
 
     @GetMapping
-    public ResponseEntity<List<RoleDTO>> getAllRoles() {
-        return ResponseEntity.ok(roleService.getAllRoles());
+    public ResponseEntity<List<RoleDTO>> getAllRoles(WebRequest request) {
+        if (request.checkNotModified(referenceDataVersionService.eTag(Table.ROLES),
+                referenceDataVersionService.lastModified(Table.ROLES))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(roleService.getAllRoles());
     }
 
     @PostMapping("/{roleId}/permissions/{permission}")
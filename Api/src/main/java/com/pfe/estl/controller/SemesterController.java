@@ -1,11 +1,16 @@
 package com.pfe.estl.controller;
 
 import com.pfe.estl.dto.SemesterDTO;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 import com.pfe.estl.service.SemesterService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,18 +19,36 @@ import java.util.List;
 public class SemesterController {
 
     private final SemesterService semesterService;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
-    public SemesterController(SemesterService semesterService) {
+    public SemesterController(SemesterService semesterService,
+                              ReferenceDataVersionService referenceDataVersionService) {
         this.semesterService = semesterService;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     @GetMapping
-    public List<SemesterDTO> getAllSemesters() {
-        return semesterService.getAllSemesters();
+    public ResponseEntity<List<SemesterDTO>> getAllSemesters(WebRequest request) {
+        if (request.checkNotModified(referenceDataVersionService.eTag(Table.SEMESTERS),
+                referenceDataVersionService.lastModified(Table.SEMESTERS))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(semesterService.getAllSemesters());
     }
 
     @GetMapping("/department/{departmentName}")
-    public List<SemesterDTO> getSemestersByDepartment(@PathVariable String departmentName) {
-        return semesterService.getSemestersByDepartment(departmentName);
+    public ResponseEntity<List<SemesterDTO>> getSemestersByDepartment(@PathVariable String departmentName,
+                                                                      WebRequest request) {
+        // Semesters are matched to a department through its students
+        Table[] tables = {Table.SEMESTERS, Table.STUDENTS, Table.DEPARTMENTS};
+        if (request.checkNotModified(referenceDataVersionService.eTag(tables),
+                referenceDataVersionService.lastModified(tables))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(semesterService.getSemestersByDepartment(departmentName));
     }
 }
@@ -2,6 +2,7 @@ package com.pfe.estl.controller;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +11,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.pfe.estl.dto.StudentDTO;
+import com.pfe.estl.dto.StudentSuggestionDTO;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+import com.pfe.estl.service.StudentSearchIndex;
 import com.pfe.estl.service.StudentService;
 
 @RestController
@@ -20,10 +27,19 @@ import com.pfe.estl.service.StudentService;
 // @CrossOrigin(origins = "*")
 public class StudentController {
 
+    // Student listings embed department and semester names
+    private static final Table[] STUDENT_TABLES = {Table.STUDENTS, Table.DEPARTMENTS, Table.SEMESTERS};
+
     private final StudentService studentService;
+    private final ReferenceDataVersionService referenceDataVersionService;
+    private final StudentSearchIndex studentSearchIndex;
     
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService,
+                             ReferenceDataVersionService referenceDataVersionService,
+                             StudentSearchIndex studentSearchIndex) {
         this.studentService = studentService;
+        this.referenceDataVersionService = referenceDataVersionService;
+        this.studentSearchIndex = studentSearchIndex;
     }
 
     @PostMapping()
@@ -31,27 +47,57 @@ public class StudentController {
         return ResponseEntity.ok(studentService.saveStudent(studentDTO));
     }
 
+    /**
+     * Typeahead suggestions matching a name, student id or email prefix, ignoring case and accents
+     * @param q The text typed so far
+     * @param limit Maximum number of suggestions
+     * @return Best matches first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<StudentSuggestionDTO>> searchStudents(
+            @RequestParam("q") String q,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(studentSearchIndex.search(q, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<StudentDTO> getStudent(@PathVariable Long id) {
         return ResponseEntity.ok(studentService.getStudentById(id));
     }
 
     @GetMapping
-    public ResponseEntity<List<StudentDTO>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<List<StudentDTO>> getAllStudents(WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(studentService.getAllStudents());
     }
 
     @GetMapping("/department/{departmentName}")
     public ResponseEntity<List<StudentDTO>> getStudentsByDepartment(
-            @PathVariable String departmentName) {
-        return ResponseEntity.ok(studentService.getStudentsByDepartmentName(departmentName));
+            @PathVariable String departmentName,
+            WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(studentService.getStudentsByDepartmentName(departmentName));
     }
 
     @GetMapping("/department/{departmentName}/semester/{semesterId}")
     public ResponseEntity<List<StudentDTO>> getStudentsByDepartmentAndSemester(
             @PathVariable String departmentName,
-            @PathVariable Long semesterId) {
-        return ResponseEntity.ok(studentService.getStudentsByDepartmentAndSemester(departmentName, semesterId));
+            @PathVariable Long semesterId,
+            WebRequest request) {
+        if (isNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(studentService.getStudentsByDepartmentAndSemester(departmentName, semesterId));
     }
 
     @PutMapping("/{id}")
@@ -72,4 +118,10 @@ public class StudentController {
     public ResponseEntity<StudentDTO> findByStudentId(@PathVariable String studentId) {
         return ResponseEntity.ok(studentService.findByStudentId(studentId));
     }
-}
+
+    // Checks If-None-Match / If-Modified-Since against the student version stamp and sets the 304 status on a match
+    private boolean isNotModified(WebRequest request) {
+        return request.checkNotModified(referenceDataVersionService.eTag(STUDENT_TABLES),
+                referenceDataVersionService.lastModified(STUDENT_TABLES));
+    }
+}
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.pfe.estl.controller;
 
 import com.pfe.estl.dto.SubjectDTO;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 import com.pfe.estl.service.SubjectService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,21 +22,41 @@ import java.util.List;
 // @CrossOrigin(origins = "*")
 public class SubjectController {
 
+    // Subject listings embed department and semester names
+    private static final Table[] SUBJECT_TABLES = {Table.SUBJECTS, Table.DEPARTMENTS, Table.SEMESTERS};
+
     private final SubjectService subjectService;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
-    public SubjectController(SubjectService subjectService) {
+    public SubjectController(SubjectService subjectService,
+                             ReferenceDataVersionService referenceDataVersionService) {
         this.subjectService = subjectService;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     // Method to get all subjects
     @GetMapping
-    public List<SubjectDTO> getAllSubjects() {
-        return subjectService.getAllSubjects(); // Assuming subjectService has this method
+    public ResponseEntity<List<SubjectDTO>> getAllSubjects(WebRequest request) {
+        if (request.checkNotModified(referenceDataVersionService.eTag(SUBJECT_TABLES),
+                referenceDataVersionService.lastModified(SUBJECT_TABLES))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(subjectService.getAllSubjects());
     }
 
     @GetMapping("/department/{departmentName}/semester/{semesterId}")
-    public List<SubjectDTO> getSubjectsByDepartmentAndSemester(@PathVariable String departmentName, @PathVariable Long semesterId) {
-        return subjectService.getSubjectsByDepartmentAndSemester(departmentName, semesterId);
+    public ResponseEntity<List<SubjectDTO>> getSubjectsByDepartmentAndSemester(@PathVariable String departmentName,
+                                                                               @PathVariable Long semesterId,
+                                                                               WebRequest request) {
+        if (request.checkNotModified(referenceDataVersionService.eTag(SUBJECT_TABLES),
+                referenceDataVersionService.lastModified(SUBJECT_TABLES))) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(subjectService.getSubjectsByDepartmentAndSemester(departmentName, semesterId));
     }
     
     // Method to create a new subject
@@ -0,0 +1,99 @@
+package com.pfe.estl.dto;
+
+import java.time.LocalDateTime;
+
+public class AbsenceAlertDTO {
+
+    private Long id;
+    private String studentId;
+    private String studentName;
+    private String departmentName;
+    private String semesterName;
+    private int thresholdHours;
+    private double totalAbsenceHours;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+
+    public AbsenceAlertDTO() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public String getSemesterName() {
+        return semesterName;
+    }
+
+    public void setSemesterName(String semesterName) {
+        this.semesterName = semesterName;
+    }
+
+    public int getThresholdHours() {
+        return thresholdHours;
+    }
+
+    public void setThresholdHours(int thresholdHours) {
+        this.thresholdHours = thresholdHours;
+    }
+
+    public double getTotalAbsenceHours() {
+        return totalAbsenceHours;
+    }
+
+    public void setTotalAbsenceHours(double totalAbsenceHours) {
+        this.totalAbsenceHours = totalAbsenceHours;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+}
@@ -0,0 +1,81 @@
+package com.pfe.estl.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One student's line in the absence report.
+ *
+ * The unfiltered report fills absenceDates. The filtered report fills exceedsThreshold
+ * instead. Whichever field is unset is left out of the JSON, so the payload keeps the
+ * same fields the report's former Map rows had.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AbsenceReportRowDTO {
+
+    private String studentName;
+    private String studentId;
+    private String departmentName;
+    private int totalAbsenceHours;
+    private Boolean exceedsThreshold;
+    private List<LocalDate> absenceDates;
+
+    public AbsenceReportRowDTO() {}
+
+    public AbsenceReportRowDTO(String studentName, String studentId, String departmentName, int totalAbsenceHours) {
+        this.studentName = studentName;
+        this.studentId = studentId;
+        this.departmentName = departmentName;
+        this.totalAbsenceHours = totalAbsenceHours;
+    }
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public int getTotalAbsenceHours() {
+        return totalAbsenceHours;
+    }
+
+    public void setTotalAbsenceHours(int totalAbsenceHours) {
+        this.totalAbsenceHours = totalAbsenceHours;
+    }
+
+    public Boolean getExceedsThreshold() {
+        return exceedsThreshold;
+    }
+
+    public void setExceedsThreshold(Boolean exceedsThreshold) {
+        this.exceedsThreshold = exceedsThreshold;
+    }
+
+    public List<LocalDate> getAbsenceDates() {
+        return absenceDates;
+    }
+
+    public void setAbsenceDates(List<LocalDate> absenceDates) {
+        this.absenceDates = absenceDates;
+    }
+}
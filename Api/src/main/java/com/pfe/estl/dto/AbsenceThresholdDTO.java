@@ -0,0 +1,61 @@
+package com.pfe.estl.dto;
+
+public class AbsenceThresholdDTO {
+
+    private Long id;
+    private Long departmentId;
+    private String departmentName;
+    private Long semesterId;
+    private String semesterName;
+    private Integer thresholdHours;
+
+    public AbsenceThresholdDTO() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getDepartmentId() {
+        return departmentId;
+    }
+
+    public void setDepartmentId(Long departmentId) {
+        this.departmentId = departmentId;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public Long getSemesterId() {
+        return semesterId;
+    }
+
+    public void setSemesterId(Long semesterId) {
+        this.semesterId = semesterId;
+    }
+
+    public String getSemesterName() {
+        return semesterName;
+    }
+
+    public void setSemesterName(String semesterName) {
+        this.semesterName = semesterName;
+    }
+
+    public Integer getThresholdHours() {
+        return thresholdHours;
+    }
+
+    public void setThresholdHours(Integer thresholdHours) {
+        this.thresholdHours = thresholdHours;
+    }
+}
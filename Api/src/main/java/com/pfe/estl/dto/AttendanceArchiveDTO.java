@@ -0,0 +1,75 @@
+package com.pfe.estl.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One academic year of attendance: where its records are and how many there are
+ */
+public class AttendanceArchiveDTO {
+
+    private int academicYear;
+    private String label;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private boolean open;
+    private long liveRecords;
+    private long archivedRecords;
+
+    public AttendanceArchiveDTO() {}
+
+    public int getAcademicYear() {
+        return academicYear;
+    }
+
+    public void setAcademicYear(int academicYear) {
+        this.academicYear = academicYear;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void setOpen(boolean open) {
+        this.open = open;
+    }
+
+    public long getLiveRecords() {
+        return liveRecords;
+    }
+
+    public void setLiveRecords(long liveRecords) {
+        this.liveRecords = liveRecords;
+    }
+
+    public long getArchivedRecords() {
+        return archivedRecords;
+    }
+
+    public void setArchivedRecords(long archivedRecords) {
+        this.archivedRecords = archivedRecords;
+    }
+}
@@ -0,0 +1,143 @@
+package com.pfe.estl.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An attendance change log entry; the previous* fields are only set for updates and deletes.
+ * A RESYNC entry has no record fields: derived data must be rebuilt from the records
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AttendanceChangeDTO {
+
+    private Long sequence;
+    private String operation;
+    private Long recordId;
+    private LocalDateTime changedAt;
+    private Long studentId;
+    private Long subjectId;
+    private LocalDate date;
+    private Integer duration;
+    private Boolean present;
+    private Long previousStudentId;
+    private Long previousSubjectId;
+    private LocalDate previousDate;
+    private Integer previousDuration;
+    private Boolean previousPresent;
+
+    public AttendanceChangeDTO() {}
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public Long getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(Long recordId) {
+        this.recordId = recordId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    public Boolean getPresent() {
+        return present;
+    }
+
+    public void setPresent(Boolean present) {
+        this.present = present;
+    }
+
+    public Long getPreviousStudentId() {
+        return previousStudentId;
+    }
+
+    public void setPreviousStudentId(Long previousStudentId) {
+        this.previousStudentId = previousStudentId;
+    }
+
+    public Long getPreviousSubjectId() {
+        return previousSubjectId;
+    }
+
+    public void setPreviousSubjectId(Long previousSubjectId) {
+        this.previousSubjectId = previousSubjectId;
+    }
+
+    public LocalDate getPreviousDate() {
+        return previousDate;
+    }
+
+    public void setPreviousDate(LocalDate previousDate) {
+        this.previousDate = previousDate;
+    }
+
+    public Integer getPreviousDuration() {
+        return previousDuration;
+    }
+
+    public void setPreviousDuration(Integer previousDuration) {
+        this.previousDuration = previousDuration;
+    }
+
+    public Boolean getPreviousPresent() {
+        return previousPresent;
+    }
+
+    public void setPreviousPresent(Boolean previousPresent) {
+        this.previousPresent = previousPresent;
+    }
+}
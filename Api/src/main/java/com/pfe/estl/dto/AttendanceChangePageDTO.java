@@ -0,0 +1,46 @@
+package com.pfe.estl.dto;
+
+import java.util.List;
+
+/**
+ * A page of the attendance change log. Pass nextCursor as the next request's cursor; when
+ * hasMore is false the consumer has caught up and can poll again later with the same cursor.
+ */
+public class AttendanceChangePageDTO {
+
+    private List<AttendanceChangeDTO> changes;
+    private long nextCursor;
+    private boolean hasMore;
+
+    public AttendanceChangePageDTO() {}
+
+    public AttendanceChangePageDTO(List<AttendanceChangeDTO> changes, long nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<AttendanceChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<AttendanceChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,91 @@
+package com.pfe.estl.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Progress of an attendance bulk import, streamed as a line of NDJSON after each batch
+ * ("progress") and once at the end ("summary")
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AttendanceImportProgressDTO {
+
+    public static final String PROGRESS = "progress";
+    public static final String SUMMARY = "summary";
+
+    private String type;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    // Rows the database already had, e.g. from an earlier upload of the same file
+    private long rowsSkipped;
+    private long rowsPerSecond;
+    private long elapsedMs;
+    // Only set on the summary: false when a batch failed and the import stopped
+    private Boolean completed;
+
+    public AttendanceImportProgressDTO() {}
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public void setRowsSkipped(long rowsSkipped) {
+        this.rowsSkipped = rowsSkipped;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+}
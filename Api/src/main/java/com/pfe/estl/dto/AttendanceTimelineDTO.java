@@ -0,0 +1,162 @@
+package com.pfe.estl.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar encoding of one student's attendance records, oldest first.
+ *
+ * Record i is held at index i of every column: its id is the sum of idDeltas[0..i], the date
+ * is startDate plus dayOffsets[i], the subject is subjects[subjectIndexes[i]], the length in
+ * minutes is durations[i], and the student was present when bit i of presence is set. Ids are
+ * delta encoded since records saved together have consecutive ids; a delta can be negative. Bits are stored least significant
+ * first, bit i in byte i / 8. The byte array is sent as base64, and trailing zero bytes are omitted.
+ */
+public class AttendanceTimelineDTO {
+
+    public static final int FORMAT_VERSION = 2;
+
+    private int format = FORMAT_VERSION;
+    private Long studentId;
+    private String studentCode;
+    private LocalDate startDate;
+    private int count;
+    private long[] idDeltas;
+    private int[] dayOffsets;
+    private List<TimelineSubject> subjects = new ArrayList<>();
+    private int[] subjectIndexes;
+    private int[] durations;
+    private byte[] presence;
+
+    public AttendanceTimelineDTO() {}
+
+    public int getFormat() {
+        return format;
+    }
+
+    public void setFormat(int format) {
+        this.format = format;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getStudentCode() {
+        return studentCode;
+    }
+
+    public void setStudentCode(String studentCode) {
+        this.studentCode = studentCode;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long[] getIdDeltas() {
+        return idDeltas;
+    }
+
+    public void setIdDeltas(long[] idDeltas) {
+        this.idDeltas = idDeltas;
+    }
+
+    public int[] getDayOffsets() {
+        return dayOffsets;
+    }
+
+    public void setDayOffsets(int[] dayOffsets) {
+        this.dayOffsets = dayOffsets;
+    }
+
+    public List<TimelineSubject> getSubjects() {
+        return subjects;
+    }
+
+    public void setSubjects(List<TimelineSubject> subjects) {
+        this.subjects = subjects;
+    }
+
+    public int[] getSubjectIndexes() {
+        return subjectIndexes;
+    }
+
+    public void setSubjectIndexes(int[] subjectIndexes) {
+        this.subjectIndexes = subjectIndexes;
+    }
+
+    public int[] getDurations() {
+        return durations;
+    }
+
+    public void setDurations(int[] durations) {
+        this.durations = durations;
+    }
+
+    public byte[] getPresence() {
+        return presence;
+    }
+
+    public void setPresence(byte[] presence) {
+        this.presence = presence;
+    }
+
+    /**
+     * Subject dictionary entry, listed once however many records reference it
+     */
+    public static class TimelineSubject {
+        private Long id;
+        private String code;
+        private String name;
+
+        public TimelineSubject() {}
+
+        public TimelineSubject(Long id, String code, String name) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.pfe.estl.dto;
+
+/**
+ * One problem found while validating an import workbook, streamed as a line of NDJSON
+ */
+public class ImportIssueDTO {
+
+    public static final String ERROR = "error";
+    public static final String WARNING = "warning";
+
+    private String type;
+    private String sheet;
+    // Spreadsheet row number; null for problems with the whole sheet
+    private Integer row;
+    private String message;
+
+    public ImportIssueDTO() {}
+
+    public ImportIssueDTO(String type, String sheet, Integer row, String message) {
+        this.type = type;
+        this.sheet = sheet;
+        this.row = row;
+        this.message = message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSheet() {
+        return sheet;
+    }
+
+    public void setSheet(String sheet) {
+        this.sheet = sheet;
+    }
+
+    public Integer getRow() {
+        return row;
+    }
+
+    public void setRow(Integer row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -20,6 +20,9 @@ public class ImportResult {
     private int studentsImported = 0;
     private int subjectsImported = 0;
 
+    // The file matched a clean dry run, so per-row existence checks were skipped
+    private boolean prevalidated = false;
+
     public void incrementSuccess() {
         successCount++;
     }
@@ -60,6 +63,22 @@ public class ImportResult {
         subjectsImported++;
     }
 
+    /**
+     * Add the counts and messages of another result, such as one sheet imported on its own
+     */
+    public void merge(ImportResult other) {
+        successCount += other.successCount;
+        failureCount += other.failureCount;
+        errors.addAll(other.errors);
+        warnings.addAll(other.warnings);
+        successMessages.addAll(other.successMessages);
+        usersImported += other.usersImported;
+        departmentsImported += other.departmentsImported;
+        semestersImported += other.semestersImported;
+        studentsImported += other.studentsImported;
+        subjectsImported += other.subjectsImported;
+    }
+
     // Getters and setters
     public int getSuccessCount() {
         return successCount;
@@ -140,4 +159,12 @@ public class ImportResult {
     public void setSubjectsImported(int subjectsImported) {
         this.subjectsImported = subjectsImported;
     }
+
+    public boolean isPrevalidated() {
+        return prevalidated;
+    }
+
+    public void setPrevalidated(boolean prevalidated) {
+        this.prevalidated = prevalidated;
+    }
 }
@@ -0,0 +1,79 @@
+package com.pfe.estl.dto;
+
+/**
+ * Last line of a dry-run import: totals, and whether the real import of the same file
+ * can skip its per-row checks
+ */
+public class ImportValidationSummaryDTO {
+
+    private final String type = "summary";
+    private String fileHash;
+    private int rowsChecked;
+    private int errorCount;
+    private int warningCount;
+    private boolean valid;
+    private boolean importPrevalidated;
+    private long durationMs;
+
+    public ImportValidationSummaryDTO() {}
+
+    public String getType() {
+        return type;
+    }
+
+    public String getFileHash() {
+        return fileHash;
+    }
+
+    public void setFileHash(String fileHash) {
+        this.fileHash = fileHash;
+    }
+
+    public int getRowsChecked() {
+        return rowsChecked;
+    }
+
+    public void setRowsChecked(int rowsChecked) {
+        this.rowsChecked = rowsChecked;
+    }
+
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(int errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void setWarningCount(int warningCount) {
+        this.warningCount = warningCount;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public boolean isImportPrevalidated() {
+        return importPrevalidated;
+    }
+
+    public void setImportPrevalidated(boolean importPrevalidated) {
+        this.importPrevalidated = importPrevalidated;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+}
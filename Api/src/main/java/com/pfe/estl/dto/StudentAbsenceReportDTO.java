@@ -0,0 +1,128 @@
+package com.pfe.estl.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the per-student absence report PDF shows: the student's details,
+ * totals against their threshold, and each absence, oldest first.
+ */
+public class StudentAbsenceReportDTO {
+
+    private String studentName;
+    private String studentId;
+    private String departmentName;
+    private String semesterName;
+    private int totalAbsenceHours;
+    private int thresholdHours;
+    private boolean exceedsThreshold;
+    private List<Absence> absences = new ArrayList<>();
+
+    public StudentAbsenceReportDTO() {}
+
+    public String getStudentName() {
+        return studentName;
+    }
+
+    public void setStudentName(String studentName) {
+        this.studentName = studentName;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public String getSemesterName() {
+        return semesterName;
+    }
+
+    public void setSemesterName(String semesterName) {
+        this.semesterName = semesterName;
+    }
+
+    public int getTotalAbsenceHours() {
+        return totalAbsenceHours;
+    }
+
+    public void setTotalAbsenceHours(int totalAbsenceHours) {
+        this.totalAbsenceHours = totalAbsenceHours;
+    }
+
+    public int getThresholdHours() {
+        return thresholdHours;
+    }
+
+    public void setThresholdHours(int thresholdHours) {
+        this.thresholdHours = thresholdHours;
+    }
+
+    public boolean isExceedsThreshold() {
+        return exceedsThreshold;
+    }
+
+    public void setExceedsThreshold(boolean exceedsThreshold) {
+        this.exceedsThreshold = exceedsThreshold;
+    }
+
+    public List<Absence> getAbsences() {
+        return absences;
+    }
+
+    public void setAbsences(List<Absence> absences) {
+        this.absences = absences;
+    }
+
+    /**
+     * A single missed session
+     */
+    public static class Absence {
+        private LocalDate date;
+        private Long subjectId;
+        private Integer duration;
+
+        public Absence() {}
+
+        public Absence(LocalDate date, Long subjectId, Integer duration) {
+            this.date = date;
+            this.subjectId = subjectId;
+            this.duration = duration;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public Long getSubjectId() {
+            return subjectId;
+        }
+
+        public void setSubjectId(Long subjectId) {
+            this.subjectId = subjectId;
+        }
+
+        public Integer getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Integer duration) {
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.pfe.estl.dto;
+
+public class StudentSuggestionDTO {
+
+    private Long id;
+    private String studentId;
+    private String fullName;
+    private String email;
+    private String departmentName;
+    private String semesterName;
+
+    public StudentSuggestionDTO() {}
+
+    public StudentSuggestionDTO(Long id, String studentId, String fullName, String email,
+                                String departmentName, String semesterName) {
+        this.id = id;
+        this.studentId = studentId;
+        this.fullName = fullName;
+        this.email = email;
+        this.departmentName = departmentName;
+        this.semesterName = semesterName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getDepartmentName() {
+        return departmentName;
+    }
+
+    public void setDepartmentName(String departmentName) {
+        this.departmentName = departmentName;
+    }
+
+    public String getSemesterName() {
+        return semesterName;
+    }
+
+    public void setSemesterName(String semesterName) {
+        this.semesterName = semesterName;
+    }
+}
@@ -0,0 +1,21 @@
+package com.pfe.estl.event;
+
+import java.util.List;
+
+import com.pfe.estl.dto.AbsenceAlertDTO;
+
+/**
+ * Published by the alert engine when students reach their absence threshold
+ */
+public class AbsenceThresholdCrossedEvent {
+
+    private final List<AbsenceAlertDTO> alerts;
+
+    public AbsenceThresholdCrossedEvent(List<AbsenceAlertDTO> alerts) {
+        this.alerts = List.copyOf(alerts);
+    }
+
+    public List<AbsenceAlertDTO> getAlerts() {
+        return alerts;
+    }
+}
@@ -0,0 +1,17 @@
+package com.pfe.estl.event;
+
+/**
+ * Published by the attendance service after an attendance record has been deleted
+ */
+public class AttendanceDeletedEvent {
+
+    private final Long studentId;
+
+    public AttendanceDeletedEvent(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pfe.estl.event;
+
+import java.util.List;
+import java.util.Set;
+
+import com.pfe.estl.dto.AttendanceRecordDTO;
+
+/**
+ * Published by the attendance service after a batch of attendance records
+ * (a roll call, a single record or an update) has been written
+ */
+public class AttendanceSavedEvent {
+
+    private final List<AttendanceRecordDTO> records;
+    private final Set<String> departmentNames;
+
+    public AttendanceSavedEvent(List<AttendanceRecordDTO> records, Set<String> departmentNames) {
+        this.records = List.copyOf(records);
+        this.departmentNames = Set.copyOf(departmentNames);
+    }
+
+    public List<AttendanceRecordDTO> getRecords() {
+        return records;
+    }
+
+    public Set<String> getDepartmentNames() {
+        return departmentNames;
+    }
+}
@@ -0,0 +1,132 @@
+package com.pfe.estl.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A student crossing their absence threshold. The alert stays active while the
+ * student remains at or above the threshold and is resolved when they drop below it.
+ * A unique index on active_student_id allows at most one active alert per student.
+ */
+@Entity
+@Table(name = "absence_alerts", indexes = {
+        @Index(name = "idx_absence_alerts_active_created", columnList = "active, created_at"),
+        @Index(name = "idx_absence_alerts_student_active", columnList = "student_id, active")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_absence_alerts_active_student", columnNames = "active_student_id")
+})
+public class AbsenceAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Student student;
+
+    @Column(name = "threshold_hours", nullable = false)
+    private int thresholdHours;
+
+    // Latest known absence total while the alert is active
+    @Column(name = "absence_minutes", nullable = false)
+    private long absenceMinutes;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    // The student id while active, null once resolved (unique indexes ignore nulls)
+    @Column(name = "active_student_id")
+    private Long activeStudentId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    public AbsenceAlert() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public void setStudent(Student student) {
+        this.student = student;
+        syncActiveStudentId();
+    }
+
+    public int getThresholdHours() {
+        return thresholdHours;
+    }
+
+    public void setThresholdHours(int thresholdHours) {
+        this.thresholdHours = thresholdHours;
+    }
+
+    public long getAbsenceMinutes() {
+        return absenceMinutes;
+    }
+
+    public void setAbsenceMinutes(long absenceMinutes) {
+        this.absenceMinutes = absenceMinutes;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+        syncActiveStudentId();
+    }
+
+    public Long getActiveStudentId() {
+        return activeStudentId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getResolvedAt() {
+        return resolvedAt;
+    }
+
+    public void setResolvedAt(LocalDateTime resolvedAt) {
+        this.resolvedAt = resolvedAt;
+    }
+
+    private void syncActiveStudentId() {
+        this.activeStudentId = active && student != null ? student.getId() : null;
+    }
+}
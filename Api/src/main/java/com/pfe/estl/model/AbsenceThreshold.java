@@ -0,0 +1,78 @@
+package com.pfe.estl.model;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Absence threshold override for a department, a semester or a department/semester pair.
+ * Students not covered by any override use the default threshold.
+ */
+@Entity
+@Table(name = "absence_thresholds")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class AbsenceThreshold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Null means any department
+    @ManyToOne
+    @JoinColumn(name = "department_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Department department;
+
+    // Null means any semester
+    @ManyToOne
+    @JoinColumn(name = "semester_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Semester semester;
+
+    @Column(name = "threshold_hours", nullable = false)
+    private Integer thresholdHours;
+
+    public AbsenceThreshold() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Department getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(Department department) {
+        this.department = department;
+    }
+
+    public Semester getSemester() {
+        return semester;
+    }
+
+    public void setSemester(Semester semester) {
+        this.semester = semester;
+    }
+
+    public Integer getThresholdHours() {
+        return thresholdHours;
+    }
+
+    public void setThresholdHours(Integer thresholdHours) {
+        this.thresholdHours = thresholdHours;
+    }
+}
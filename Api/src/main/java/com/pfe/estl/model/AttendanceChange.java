@@ -0,0 +1,183 @@
+package com.pfe.estl.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One entry of the append-only attendance change log. Sequence numbers follow commit order,
+ * so a consumer that has read up to N never later finds a committed entry below N.
+ *
+ * A CREATE carries the new state, a DELETE the removed state in the previous* columns and an
+ * UPDATE both. A RESYNC carries no record: records were changed in bulk (file import,
+ * archiving) and consumers must reload them. Ids are plain columns, not foreign keys: entries
+ * outlive deleted students.
+ */
+@Entity
+@Table(name = "attendance_change_log")
+public class AttendanceChange {
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE, RESYNC
+    }
+
+    @Id
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Operation operation;
+
+    @Column(name = "record_id")
+    private Long recordId;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    private LocalDate date;
+
+    private Integer duration;
+
+    private Boolean present;
+
+    @Column(name = "previous_student_id")
+    private Long previousStudentId;
+
+    @Column(name = "previous_subject_id")
+    private Long previousSubjectId;
+
+    @Column(name = "previous_date")
+    private LocalDate previousDate;
+
+    @Column(name = "previous_duration")
+    private Integer previousDuration;
+
+    @Column(name = "previous_present")
+    private Boolean previousPresent;
+
+    public AttendanceChange() {}
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public Long getRecordId() {
+        return recordId;
+    }
+
+    public void setRecordId(Long recordId) {
+        this.recordId = recordId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public void setSubjectId(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    public Boolean getPresent() {
+        return present;
+    }
+
+    public void setPresent(Boolean present) {
+        this.present = present;
+    }
+
+    public Long getPreviousStudentId() {
+        return previousStudentId;
+    }
+
+    public void setPreviousStudentId(Long previousStudentId) {
+        this.previousStudentId = previousStudentId;
+    }
+
+    public Long getPreviousSubjectId() {
+        return previousSubjectId;
+    }
+
+    public void setPreviousSubjectId(Long previousSubjectId) {
+        this.previousSubjectId = previousSubjectId;
+    }
+
+    public LocalDate getPreviousDate() {
+        return previousDate;
+    }
+
+    public void setPreviousDate(LocalDate previousDate) {
+        this.previousDate = previousDate;
+    }
+
+    public Integer getPreviousDuration() {
+        return previousDuration;
+    }
+
+    public void setPreviousDuration(Integer previousDuration) {
+        this.previousDuration = previousDuration;
+    }
+
+    public Boolean getPreviousPresent() {
+        return previousPresent;
+    }
+
+    public void setPreviousPresent(Boolean previousPresent) {
+        this.previousPresent = previousPresent;
+    }
+}
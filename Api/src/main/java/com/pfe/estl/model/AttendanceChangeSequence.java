@@ -0,0 +1,42 @@
+package com.pfe.estl.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Single-row counter handing out attendance change log sequence numbers. Writers increment it
+ * just before committing and hold its row lock until the commit, which makes sequence order
+ * match commit order.
+ */
+@Entity
+@Table(name = "attendance_change_sequence")
+public class AttendanceChangeSequence {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    public AttendanceChangeSequence() {}
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
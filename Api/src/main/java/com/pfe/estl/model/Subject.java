@@ -1,10 +1,13 @@
 package com.pfe.estl.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 
 @Entity
 @Table(name = "subjects")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Subject {
 
     @Id
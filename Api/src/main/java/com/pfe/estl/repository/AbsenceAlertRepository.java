@@ -0,0 +1,37 @@
+package com.pfe.estl.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.pfe.estl.model.AbsenceAlert;
+
+@Repository
+public interface AbsenceAlertRepository extends JpaRepository<AbsenceAlert, Long> {
+
+    List<AbsenceAlert> findByStudentIdInAndActiveTrue(Collection<Long> studentIds);
+
+    List<AbsenceAlert> findByActiveTrue();
+
+    long countByActiveTrue();
+
+    @Query("SELECT a FROM AbsenceAlert a JOIN FETCH a.student s WHERE a.active = true ORDER BY a.createdAt DESC")
+    List<AbsenceAlert> findActiveWithStudent();
+
+    @Query(value = "SELECT a FROM AbsenceAlert a JOIN FETCH a.student s " +
+                   "WHERE (:active IS NULL OR a.active = :active) " +
+                   "AND (:departmentId IS NULL OR s.department.id = :departmentId)",
+           countQuery = "SELECT COUNT(a) FROM AbsenceAlert a " +
+                   "WHERE (:active IS NULL OR a.active = :active) " +
+                   "AND (:departmentId IS NULL OR a.student.department.id = :departmentId)")
+    Page<AbsenceAlert> search(
+            @Param("active") Boolean active,
+            @Param("departmentId") Long departmentId,
+            Pageable pageable);
+}
@@ -0,0 +1,22 @@
+package com.pfe.estl.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.pfe.estl.model.AbsenceThreshold;
+
+@Repository
+public interface AbsenceThresholdRepository extends JpaRepository<AbsenceThreshold, Long> {
+
+    // Null-safe match on the (department, semester) scope
+    @Query("SELECT t FROM AbsenceThreshold t " +
+           "WHERE ((:departmentId IS NULL AND t.department IS NULL) OR t.department.id = :departmentId) " +
+           "AND ((:semesterId IS NULL AND t.semester IS NULL) OR t.semester.id = :semesterId)")
+    Optional<AbsenceThreshold> findByScope(
+            @Param("departmentId") Long departmentId,
+            @Param("semesterId") Long semesterId);
+}
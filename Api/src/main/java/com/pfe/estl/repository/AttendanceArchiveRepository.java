@@ -0,0 +1,289 @@
+package com.pfe.estl.repository;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Archive tables of attendance_records, one per closed academic year
+ * (attendance_records_archive_2023 holds September 2023 to August 2024 by default).
+ *
+ * Archived rows keep their ids and columns but no foreign keys; on MySQL the tables use
+ * ROW_FORMAT=COMPRESSED since they are only read. Date-range queries consult only the archive
+ * tables whose academic year overlaps the range, so queries on the current year touch none.
+ */
+@Repository
+public class AttendanceArchiveRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceArchiveRepository.class);
+
+    private static final String TABLE_PREFIX = "attendance_records_archive_";
+    private static final String COLUMNS = "id, student_reference_id, subject_id, date, duration, is_present";
+    private static final String IN_DEPARTMENT =
+            " AND student_reference_id IN (SELECT s.id FROM students s JOIN departments d ON d.id = s.department_id WHERE d.name = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int academicYearStartMonth;
+
+    // Academic years (by starting calendar year) that have an archive table; discovered on first use
+    private volatile NavigableSet<Integer> archivedYears;
+
+    public AttendanceArchiveRepository(JdbcTemplate jdbcTemplate,
+                                       @Value("${attendance.archive.academic-year-start-month:9}") int academicYearStartMonth) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.academicYearStartMonth = academicYearStartMonth;
+    }
+
+    /**
+     * The academic year a date belongs to, named by the calendar year it starts in
+     */
+    public int academicYearOf(LocalDate date) {
+        return date.getMonthValue() >= academicYearStartMonth ? date.getYear() : date.getYear() - 1;
+    }
+
+    public LocalDate startOf(int academicYear) {
+        return LocalDate.of(academicYear, academicYearStartMonth, 1);
+    }
+
+    public LocalDate endOf(int academicYear) {
+        return startOf(academicYear + 1).minusDays(1);
+    }
+
+    public NavigableSet<Integer> getArchivedYears() {
+        NavigableSet<Integer> years = archivedYears;
+        if (years == null) {
+            synchronized (this) {
+                years = archivedYears;
+                if (years == null) {
+                    years = Collections.unmodifiableNavigableSet(findArchiveTables());
+                    archivedYears = years;
+                }
+            }
+        }
+        return years;
+    }
+
+    /**
+     * Archived academic years overlapping a date range, oldest first; empty for the current year
+     */
+    public List<Integer> getArchivedYearsBetween(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            return List.of();
+        }
+        NavigableSet<Integer> years = getArchivedYears();
+        if (years.isEmpty()) {
+            return List.of();
+        }
+        return new ArrayList<>(years.subSet(academicYearOf(startDate), true, academicYearOf(endDate), true));
+    }
+
+    /**
+     * Create the archive table of an academic year if it does not exist yet. Must not run inside a
+     * transaction: MySQL commits implicitly on DDL
+     */
+    public synchronized void createArchiveTable(int academicYear) {
+        if (getArchivedYears().contains(academicYear)) {
+            return;
+        }
+        String table = tableName(academicYear);
+        boolean mysql = isMySql();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                + "id BIGINT NOT NULL PRIMARY KEY, "
+                + "student_reference_id BIGINT NOT NULL, "
+                + "subject_id BIGINT NOT NULL, "
+                + "date DATE NOT NULL, "
+                + "duration INT NOT NULL, "
+                + "is_present BOOLEAN NOT NULL)"
+                + (mysql ? " ROW_FORMAT=COMPRESSED" : ""));
+        jdbcTemplate.execute("CREATE INDEX " + table + "_date_idx ON " + table + " (date)");
+        jdbcTemplate.execute("CREATE INDEX " + table + "_student_idx ON " + table + " (student_reference_id, date)");
+
+        // Visible to queries right away: the table is empty until the move commits, and until then
+        // the rows are still read from attendance_records
+        NavigableSet<Integer> years = new TreeSet<>(getArchivedYears());
+        years.add(academicYear);
+        archivedYears = Collections.unmodifiableNavigableSet(years);
+        logger.info("Created attendance archive table {}", table);
+    }
+
+    /**
+     * Move the records of an academic year from attendance_records into its archive table; the
+     * caller provides the transaction so both statements commit together
+     * @return Number of records moved
+     */
+    public int moveToArchive(int academicYear) {
+        String table = tableName(academicYear);
+        LocalDate start = startOf(academicYear);
+        LocalDate end = endOf(academicYear);
+        int copied = jdbcTemplate.update("INSERT INTO " + table + " (" + COLUMNS + ") SELECT " + COLUMNS
+                + " FROM attendance_records WHERE date BETWEEN ? AND ?", start, end);
+        int deleted = jdbcTemplate.update("DELETE FROM attendance_records WHERE date BETWEEN ? AND ?", start, end);
+        if (copied != deleted) {
+            throw new IllegalStateException("Attendance of " + academicYear + " changed while archiving: copied "
+                    + copied + " records but deleted " + deleted);
+        }
+        return copied;
+    }
+
+    public long countArchivedRows(int academicYear) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName(academicYear), Long.class);
+        return count != null ? count : 0;
+    }
+
+    public long countLiveRows(int academicYear) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_records WHERE date BETWEEN ? AND ?",
+                Long.class, startOf(academicYear), endOf(academicYear));
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Academic years with records still in attendance_records, oldest first
+     */
+    public List<Integer> findLiveYears() {
+        List<Integer> years = new ArrayList<>();
+        jdbcTemplate.query("SELECT MIN(date), MAX(date) FROM attendance_records", rs -> {
+            if (rs.getDate(1) != null) {
+                int last = academicYearOf(rs.getDate(2).toLocalDate());
+                for (int year = academicYearOf(rs.getDate(1).toLocalDate()); year <= last; year++) {
+                    years.add(year);
+                }
+            }
+        });
+        return years;
+    }
+
+    /**
+     * Archived records of a date range as [id, studentId, subjectId, date, duration, isPresent] rows
+     * @param academicYears Archived years to read, from {@link #getArchivedYearsBetween}
+     * @param absentOnly Only absences
+     * @param studentId Only this student; null for all
+     * @param departmentName Only students of this department; null for all
+     */
+    public List<Object[]> findRows(List<Integer> academicYears, LocalDate startDate, LocalDate endDate,
+                                   boolean absentOnly, Long studentId, String departmentName) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int academicYear : academicYears) {
+            List<Object> args = new ArrayList<>(List.of(startDate, endDate));
+            StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM ")
+                    .append(tableName(academicYear)).append(" WHERE date BETWEEN ? AND ?");
+            if (absentOnly) {
+                sql.append(" AND is_present = false");
+            }
+            if (studentId != null) {
+                sql.append(" AND student_reference_id = ?");
+                args.add(studentId);
+            }
+            if (departmentName != null) {
+                sql.append(IN_DEPARTMENT);
+                args.add(departmentName);
+            }
+            queryRows(sql.toString(), rows, args.toArray());
+        }
+        return rows;
+    }
+
+    /**
+     * Every archived absence of the students of a department and semester, in the row shape of
+     * {@link #findRows}
+     * @param departmentId Only students of this department; null for all
+     * @param semesterId Only students of this semester; null for all
+     */
+    public List<Object[]> findAbsenceRows(Long departmentId, Long semesterId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int academicYear : getArchivedYears()) {
+            List<Object> args = new ArrayList<>();
+            StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM ")
+                    .append(tableName(academicYear)).append(" WHERE is_present = false");
+            if (departmentId != null || semesterId != null) {
+                sql.append(" AND student_reference_id IN (SELECT s.id FROM students s WHERE 1 = 1");
+                if (departmentId != null) {
+                    sql.append(" AND s.department_id = ?");
+                    args.add(departmentId);
+                }
+                if (semesterId != null) {
+                    sql.append(" AND s.semester_id = ?");
+                    args.add(semesterId);
+                }
+                sql.append(")");
+            }
+            queryRows(sql.toString(), rows, args.toArray());
+        }
+        return rows;
+    }
+
+    private void queryRows(String sql, List<Object[]> rows, Object[] args) {
+        jdbcTemplate.query(sql, rs -> {
+            rows.add(new Object[] {rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    rs.getDate(4).toLocalDate(), rs.getInt(5), rs.getBoolean(6)});
+        }, args);
+    }
+
+    /**
+     * Total and present archived record counts of a date range
+     * @param departmentName Only students of this department; null for all
+     * @return [total, present]
+     */
+    public long[] countPresence(List<Integer> academicYears, LocalDate startDate, LocalDate endDate, String departmentName) {
+        long[] counts = new long[2];
+        for (int academicYear : academicYears) {
+            String sql = "SELECT COUNT(*), COALESCE(SUM(CASE WHEN is_present = true THEN 1 ELSE 0 END), 0) FROM "
+                    + tableName(academicYear) + " WHERE date BETWEEN ? AND ?"
+                    + (departmentName != null ? IN_DEPARTMENT : "");
+            Object[] args = departmentName != null
+                    ? new Object[] {startDate, endDate, departmentName}
+                    : new Object[] {startDate, endDate};
+            jdbcTemplate.query(sql, rs -> {
+                counts[0] += rs.getLong(1);
+                counts[1] += rs.getLong(2);
+            }, args);
+        }
+        return counts;
+    }
+
+    private NavigableSet<Integer> findArchiveTables() {
+        NavigableSet<Integer> years = new TreeSet<>();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), "%", new String[] {"TABLE"})) {
+                while (tables.next()) {
+                    String name = tables.getString("TABLE_NAME").toLowerCase(Locale.ROOT);
+                    if (name.startsWith(TABLE_PREFIX)) {
+                        try {
+                            years.add(Integer.parseInt(name.substring(TABLE_PREFIX.length())));
+                        } catch (NumberFormatException e) {
+                            // Not one of ours
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        if (!years.isEmpty()) {
+            logger.info("Attendance archive tables found for academic years {}", years);
+        }
+        return years;
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase(Locale.ROOT).contains("mysql");
+    }
+
+    private static String tableName(int academicYear) {
+        return TABLE_PREFIX + academicYear;
+    }
+}
@@ -0,0 +1,22 @@
+package com.pfe.estl.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.pfe.estl.model.AttendanceChange;
+
+@Repository
+public interface AttendanceChangeRepository extends JpaRepository<AttendanceChange, Long> {
+
+    /**
+     * Entries after a cursor, oldest first
+     */
+    List<AttendanceChange> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(c.sequence), 0) FROM AttendanceChange c")
+    Long findLatestSequence();
+}
@@ -1,33 +1,45 @@
 package com.pfe.estl.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.pfe.estl.model.AttendanceRecord;
 import com.pfe.estl.model.Student;
 
+import jakarta.persistence.QueryHint;
+
+/**
+ * Attendance records. The date-range and per-student history queries of
+ * {@link AttendanceRecordRepositoryCustom} also cover archived academic years; every other query
+ * reads attendance_records only.
+ */
 @Repository
-public interface AttendanceRecordRepository extends JpaRepository<AttendanceRecord, Long> {
-    List<AttendanceRecord> findByStudent(Student student);
+public interface AttendanceRecordRepository extends JpaRepository<AttendanceRecord, Long>, AttendanceRecordRepositoryCustom {
     List<AttendanceRecord> findByDate(LocalDate date);
-    List<AttendanceRecord> findByDateBetween(LocalDate startDate, LocalDate endDate);
-    List<AttendanceRecord> findByStudentAndDateBetween(Student student, LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Every record as [id, studentId, subjectId, date, duration, isPresent] rows, read as a
+     * stream so the whole table is never materialised as entities; must be consumed inside a
+     * transaction and closed. On MySQL the fetch size only takes effect with useCursorFetch=true
+     * on the connection; without it the driver buffers the whole result.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a.id, a.student.id, a.subject.id, a.date, a.duration, a.isPresent FROM AttendanceRecord a ORDER BY a.id")
+    Stream<Object[]> streamAllRows();
     
     @Query("SELECT a FROM AttendanceRecord a WHERE a.student.department.name = :departmentName")
     List<AttendanceRecord> findByStudentDepartmentName(@Param("departmentName") String departmentName);
     
-    @Query("SELECT a FROM AttendanceRecord a WHERE a.student.department.name = :departmentName " +
-           "AND a.date BETWEEN :startDate AND :endDate")
-    List<AttendanceRecord> findByStudentDepartmentNameAndDateBetween(
-            @Param("departmentName") String departmentName,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
-    
     /**
      * Count the total number of attendance records for a specific student.
      * We'll use this as a simple indicator of absence hours until we have the actual field.
@@ -41,16 +53,28 @@ public interface AttendanceRecordRepository extends JpaRepository<AttendanceReco
     @Query(value = "SELECT COALESCE(SUM(duration), 0) / 60 FROM attendance_records WHERE student_reference_id = :studentId AND is_present = false", nativeQuery = true)
     Integer calculateTotalAbsenceHoursByStudentId(@Param("studentId") Long studentId);
     
-    // Methods for email announcements
+    /**
+     * Total absence duration of a student, in minutes
+     */
+    @Query("SELECT COALESCE(SUM(a.duration), 0) FROM AttendanceRecord a WHERE a.student.id = :studentId AND a.isPresent = false")
+    Long sumAbsenceMinutesByStudentId(@Param("studentId") Long studentId);
+    
+    /**
+     * Absence minutes per student for the given students, as [studentId, minutes] rows.
+     * Students without absences are not returned.
+     */
+    @Query("SELECT a.student.id, SUM(a.duration) FROM AttendanceRecord a " +
+           "WHERE a.isPresent = false AND a.student.id IN :studentIds GROUP BY a.student.id")
+    List<Object[]> sumAbsenceMinutesByStudentIds(@Param("studentIds") Collection<Long> studentIds);
     
     /**
-     * Find attendance records for absent students within a date range
+     * Absence minutes of every student with at least one absence, as [studentId, minutes] rows
      */
-    @Query("SELECT a FROM AttendanceRecord a WHERE a.isPresent = false AND a.date BETWEEN :startDate AND :endDate")
-    List<AttendanceRecord> findByStatusAndDateBetween(
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate);
-            
+    @Query("SELECT a.student.id, SUM(a.duration) FROM AttendanceRecord a WHERE a.isPresent = false GROUP BY a.student.id")
+    List<Object[]> sumAbsenceMinutesGroupedByStudent();
+    
+    // Methods for email announcements
+    
     /**
      * Count attendance records by student and presence status
      */
@@ -0,0 +1,58 @@
+package com.pfe.estl.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.pfe.estl.model.AttendanceRecord;
+import com.pfe.estl.model.Student;
+
+/**
+ * Date-range and per-student history queries of {@link AttendanceRecordRepository} that also read
+ * the archive tables of closed academic years (see {@link AttendanceArchiveRepository}). Records
+ * read from an archive are detached copies and must not be saved back.
+ */
+public interface AttendanceRecordRepositoryCustom {
+
+    /**
+     * Every record of a student, archived years included
+     */
+    List<AttendanceRecord> findByStudent(Student student);
+
+    /**
+     * Timeline of one student as [date, subjectId, subjectCode, subjectName, duration, isPresent, id]
+     * rows, oldest first; skips the eager student and subject graphs of the entity query
+     */
+    List<Object[]> findTimelineRowsByStudentId(Long studentId);
+
+    /**
+     * Same as {@link #findTimelineRowsByStudentId} restricted to a date range
+     */
+    List<Object[]> findTimelineRowsByStudentIdAndDateBetween(Long studentId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Every absence of the students matching the filters as [studentId, date, subjectId, duration]
+     * rows, grouped by student and oldest first; a null filter matches all students
+     */
+    List<Object[]> findAbsenceRowsForReports(Long departmentId, Long semesterId);
+
+    List<AttendanceRecord> findByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    List<AttendanceRecord> findByStudentAndDateBetween(Student student, LocalDate startDate, LocalDate endDate);
+
+    List<AttendanceRecord> findByStudentDepartmentNameAndDateBetween(String departmentName, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Find attendance records for absent students within a date range
+     */
+    List<AttendanceRecord> findByStatusAndDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Total and present record counts in a date range, as a single [total, present] row
+     */
+    List<Object[]> countPresenceByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Total and present record counts of a department in a date range, as a single [total, present] row
+     */
+    List<Object[]> countPresenceByDepartmentNameAndDateBetween(String departmentName, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,285 @@
+package com.pfe.estl.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.pfe.estl.model.AttendanceRecord;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.model.Subject;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Runs the date-range queries against attendance_records and, only when the range reaches back
+ * into archived academic years, against those years' archive tables as well. A student's whole
+ * history reads every archive table.
+ */
+public class AttendanceRecordRepositoryCustomImpl implements AttendanceRecordRepositoryCustom {
+
+    // Student and subject are eager: fetching them in the same query avoids a select per record
+    private static final String SELECT_RECORDS = "SELECT a FROM AttendanceRecord a "
+            + "JOIN FETCH a.student s JOIN FETCH s.department JOIN FETCH s.semester "
+            + "JOIN FETCH a.subject sub JOIN FETCH sub.department JOIN FETCH sub.semester ";
+    private static final String SELECT_TIMELINE_ROWS = "SELECT a.date, sub.id, sub.code, sub.name, a.duration, a.isPresent, a.id "
+            + "FROM AttendanceRecord a JOIN a.subject sub WHERE a.student.id = :studentId ";
+    private static final Comparator<Object[]> TIMELINE_ORDER =
+            Comparator.comparing((Object[] row) -> (LocalDate) row[0]).thenComparing(row -> (Long) row[6]);
+    private static final Comparator<Object[]> REPORT_ORDER = Comparator.comparing((Object[] row) -> (Long) row[0])
+            .thenComparing(row -> (LocalDate) row[1]).thenComparing(row -> (Long) row[4]);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AttendanceArchiveRepository archiveRepository;
+
+    public AttendanceRecordRepositoryCustomImpl(AttendanceArchiveRepository archiveRepository) {
+        this.archiveRepository = archiveRepository;
+    }
+
+    @Override
+    public List<AttendanceRecord> findByStudent(Student student) {
+        if (student == null) {
+            return new ArrayList<>();
+        }
+        List<AttendanceRecord> live = entityManager.createQuery(SELECT_RECORDS + "WHERE a.student = :student", AttendanceRecord.class)
+                .setParameter("student", student)
+                .getResultList();
+        NavigableSet<Integer> years = archiveRepository.getArchivedYears();
+        if (years.isEmpty()) {
+            return live;
+        }
+        return withArchived(live, archiveRepository.startOf(years.first()), archiveRepository.endOf(years.last()),
+                false, student.getId(), null);
+    }
+
+    @Override
+    public List<Object[]> findTimelineRowsByStudentId(Long studentId) {
+        List<Object[]> live = entityManager.createQuery(SELECT_TIMELINE_ROWS + "ORDER BY a.date, a.id", Object[].class)
+                .setParameter("studentId", studentId)
+                .getResultList();
+        NavigableSet<Integer> years = archiveRepository.getArchivedYears();
+        if (years.isEmpty()) {
+            return live;
+        }
+        return withArchivedTimeline(live, studentId, new ArrayList<>(years),
+                archiveRepository.startOf(years.first()), archiveRepository.endOf(years.last()));
+    }
+
+    @Override
+    public List<Object[]> findTimelineRowsByStudentIdAndDateBetween(Long studentId, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> live = entityManager.createQuery(
+                        SELECT_TIMELINE_ROWS + "AND a.date BETWEEN :startDate AND :endDate ORDER BY a.date, a.id", Object[].class)
+                .setParameter("studentId", studentId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        List<Integer> years = archiveRepository.getArchivedYearsBetween(startDate, endDate);
+        if (years.isEmpty()) {
+            return live;
+        }
+        return withArchivedTimeline(live, studentId, years, startDate, endDate);
+    }
+
+    @Override
+    public List<Object[]> findAbsenceRowsForReports(Long departmentId, Long semesterId) {
+        // The id only orders live and archived rows together; callers read the first four columns
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT a.student.id, a.date, a.subject.id, a.duration, a.id FROM AttendanceRecord a " +
+                        "WHERE a.isPresent = false " +
+                        "AND (:departmentId IS NULL OR a.student.department.id = :departmentId) " +
+                        "AND (:semesterId IS NULL OR a.student.semester.id = :semesterId) " +
+                        "ORDER BY a.student.id, a.date, a.id", Object[].class)
+                .setParameter("departmentId", departmentId)
+                .setParameter("semesterId", semesterId)
+                .getResultList();
+        if (archiveRepository.getArchivedYears().isEmpty()) {
+            return rows;
+        }
+        List<Object[]> archived = archiveRepository.findAbsenceRows(departmentId, semesterId);
+        if (archived.isEmpty()) {
+            return rows;
+        }
+        rows = new ArrayList<>(rows);
+        for (Object[] row : archived) {
+            rows.add(new Object[] {row[1], row[3], row[2], row[4], row[0]});
+        }
+        rows.sort(REPORT_ORDER);
+        return rows;
+    }
+
+    @Override
+    public List<AttendanceRecord> findByDateBetween(LocalDate startDate, LocalDate endDate) {
+        List<AttendanceRecord> live = entityManager.createQuery(
+                        SELECT_RECORDS + "WHERE a.date BETWEEN :startDate AND :endDate", AttendanceRecord.class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        return withArchived(live, startDate, endDate, false, null, null);
+    }
+
+    @Override
+    public List<AttendanceRecord> findByStudentAndDateBetween(Student student, LocalDate startDate, LocalDate endDate) {
+        List<AttendanceRecord> live = entityManager.createQuery(
+                        SELECT_RECORDS + "WHERE a.student = :student AND a.date BETWEEN :startDate AND :endDate",
+                        AttendanceRecord.class)
+                .setParameter("student", student)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        return withArchived(live, startDate, endDate, false, student.getId(), null);
+    }
+
+    @Override
+    public List<AttendanceRecord> findByStudentDepartmentNameAndDateBetween(String departmentName, LocalDate startDate, LocalDate endDate) {
+        List<AttendanceRecord> live = entityManager.createQuery(
+                        SELECT_RECORDS + "WHERE s.department.name = :departmentName " +
+                        "AND a.date BETWEEN :startDate AND :endDate", AttendanceRecord.class)
+                .setParameter("departmentName", departmentName)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        return withArchived(live, startDate, endDate, false, null, departmentName);
+    }
+
+    @Override
+    public List<AttendanceRecord> findByStatusAndDateBetween(LocalDate startDate, LocalDate endDate) {
+        List<AttendanceRecord> live = entityManager.createQuery(
+                        SELECT_RECORDS + "WHERE a.isPresent = false AND a.date BETWEEN :startDate AND :endDate",
+                        AttendanceRecord.class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        return withArchived(live, startDate, endDate, true, null, null);
+    }
+
+    @Override
+    public List<Object[]> countPresenceByDateBetween(LocalDate startDate, LocalDate endDate) {
+        List<Object[]> live = entityManager.createQuery(
+                        "SELECT COUNT(a), COALESCE(SUM(CASE WHEN a.isPresent = true THEN 1 ELSE 0 END), 0) FROM AttendanceRecord a " +
+                        "WHERE a.date BETWEEN :startDate AND :endDate", Object[].class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        return withArchivedCounts(live, startDate, endDate, null);
+    }
+
+    @Override
+    public List<Object[]> countPresenceByDepartmentNameAndDateBetween(String departmentName, LocalDate startDate, LocalDate endDate) {
+        List<Object[]> live = entityManager.createQuery(
+                        "SELECT COUNT(a), COALESCE(SUM(CASE WHEN a.isPresent = true THEN 1 ELSE 0 END), 0) FROM AttendanceRecord a " +
+                        "WHERE a.student.department.name = :departmentName AND a.date BETWEEN :startDate AND :endDate", Object[].class)
+                .setParameter("departmentName", departmentName)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        return withArchivedCounts(live, startDate, endDate, departmentName);
+    }
+
+    // Archived records first (they are the older ones), rebuilt around managed students and subjects
+    private List<AttendanceRecord> withArchived(List<AttendanceRecord> live, LocalDate startDate, LocalDate endDate,
+                                                boolean absentOnly, Long studentId, String departmentName) {
+        List<Integer> academicYears = archiveRepository.getArchivedYearsBetween(startDate, endDate);
+        if (academicYears.isEmpty()) {
+            return live;
+        }
+        List<Object[]> rows = archiveRepository.findRows(academicYears, startDate, endDate, absentOnly, studentId, departmentName);
+        if (rows.isEmpty()) {
+            return live;
+        }
+
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> subjectIds = new HashSet<>();
+        for (Object[] row : rows) {
+            studentIds.add((Long) row[1]);
+            subjectIds.add((Long) row[2]);
+        }
+        // Lists, not streams: without a transaction the shared EntityManager closes before a stream is read
+        Map<Long, Student> students = entityManager.createQuery("SELECT s FROM Student s WHERE s.id IN :ids", Student.class)
+                .setParameter("ids", studentIds)
+                .getResultList().stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<Long, Subject> subjects = entityManager.createQuery("SELECT s FROM Subject s WHERE s.id IN :ids", Subject.class)
+                .setParameter("ids", subjectIds)
+                .getResultList().stream()
+                .collect(Collectors.toMap(Subject::getId, Function.identity()));
+
+        List<AttendanceRecord> records = new ArrayList<>(rows.size() + live.size());
+        for (Object[] row : rows) {
+            Student student = students.get((Long) row[1]);
+            Subject subject = subjects.get((Long) row[2]);
+            if (student == null || subject == null) {
+                // Archives have no foreign keys: the student or subject was deleted since
+                continue;
+            }
+            AttendanceRecord record = new AttendanceRecord();
+            record.setId((Long) row[0]);
+            record.setStudent(student);
+            record.setSubject(subject);
+            record.setDate((LocalDate) row[3]);
+            record.setDuration((Integer) row[4]);
+            record.setPresent((Boolean) row[5]);
+            records.add(record);
+        }
+        records.addAll(live);
+        return records;
+    }
+
+    // Archived rows only name their subject: its code and name are read once per subject
+    private List<Object[]> withArchivedTimeline(List<Object[]> live, Long studentId, List<Integer> academicYears,
+                                                LocalDate startDate, LocalDate endDate) {
+        List<Object[]> rows = archiveRepository.findRows(academicYears, startDate, endDate, false, studentId, null);
+        if (rows.isEmpty()) {
+            return live;
+        }
+        Set<Long> subjectIds = new HashSet<>();
+        for (Object[] row : rows) {
+            subjectIds.add((Long) row[2]);
+        }
+        Map<Long, Object[]> subjects = new HashMap<>();
+        for (Object[] subject : entityManager.createQuery("SELECT s.id, s.code, s.name FROM Subject s WHERE s.id IN :ids", Object[].class)
+                .setParameter("ids", subjectIds)
+                .getResultList()) {
+            subjects.put((Long) subject[0], subject);
+        }
+
+        List<Object[]> timeline = new ArrayList<>(rows.size() + live.size());
+        for (Object[] row : rows) {
+            Object[] subject = subjects.get((Long) row[2]);
+            if (subject == null) {
+                continue;
+            }
+            timeline.add(new Object[] {row[3], subject[0], subject[1], subject[2], row[4], row[5], row[0]});
+        }
+        timeline.addAll(live);
+        // Closed years can still be live when a later one was archived first
+        timeline.sort(TIMELINE_ORDER);
+        return timeline;
+    }
+
+    private List<Object[]> withArchivedCounts(List<Object[]> live, LocalDate startDate, LocalDate endDate, String departmentName) {
+        List<Integer> academicYears = archiveRepository.getArchivedYearsBetween(startDate, endDate);
+        if (academicYears.isEmpty()) {
+            return live;
+        }
+        long[] archived = archiveRepository.countPresence(academicYears, startDate, endDate, departmentName);
+        long total = archived[0];
+        long present = archived[1];
+        if (!live.isEmpty()) {
+            total += ((Number) live.get(0)[0]).longValue();
+            present += ((Number) live.get(0)[1]).longValue();
+        }
+        List<Object[]> counts = new ArrayList<>(1);
+        counts.add(new Object[] {total, present});
+        return counts;
+    }
+}
@@ -1,13 +1,25 @@
 package com.pfe.estl.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.pfe.estl.model.Department;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+    // Served from the query cache; invalidated by Hibernate on any write to departments
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Department> findByName(String name);
-}
\ No newline at end of file
+
+    // Names only, for validating an import without loading entities
+    @Query("SELECT d.name FROM Department d")
+    List<String> findAllNames();
+}
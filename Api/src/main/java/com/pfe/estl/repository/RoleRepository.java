@@ -1,13 +1,24 @@
 package com.pfe.estl.repository;
 
 import com.pfe.estl.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    // Served from the query cache; invalidated by Hibernate on any write to roles
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
     boolean existsByName(String name);
+
+    // Names only, for validating an import without loading entities
+    @Query("SELECT r.name FROM Role r")
+    List<String> findAllNames();
 }
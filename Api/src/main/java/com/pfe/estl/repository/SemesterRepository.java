@@ -1,8 +1,11 @@
 package com.pfe.estl.repository;
 
 import com.pfe.estl.model.Semester;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -16,6 +19,11 @@ public interface SemesterRepository extends JpaRepository<Semester, Long> {
     @Query("SELECT DISTINCT s FROM Semester s JOIN s.students stu WHERE stu.department.name = :departmentName")
     List<Semester> findByDepartmentName(@Param("departmentName") String departmentName);
     
-    // Find semester by name for Excel import functionality
+    // Find semester by name for Excel import functionality (query-cached, called once per imported row)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Semester findByName(String name);
-}
\ No newline at end of file
+
+    // Names only, for validating an import without loading entities
+    @Query("SELECT s.name FROM Semester s")
+    List<String> findAllNames();
+}
@@ -34,9 +34,28 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT s FROM Student s WHERE s.department.id = :departmentId AND s.semester.id = :semesterId")
     List<Student> findByDepartmentIdAndSemesterId(@Param("departmentId") Long departmentId, @Param("semesterId") Long semesterId);
     
+    // Flat rows for the in-memory search index: id, studentId, fullName, email, department, semester
+    @Query("SELECT s.id, s.studentId, s.fullName, s.email, d.name, sem.name FROM Student s "
+            + "LEFT JOIN s.department d LEFT JOIN s.semester sem")
+    List<Object[]> findSearchRows();
+    
+    // Students for bulk reports with department and semester loaded; a null filter matches all
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.department d LEFT JOIN FETCH s.semester sem "
+            + "WHERE (:departmentId IS NULL OR d.id = :departmentId) AND (:semesterId IS NULL OR sem.id = :semesterId) "
+            + "ORDER BY s.studentId")
+    List<Student> findForReports(@Param("departmentId") Long departmentId, @Param("semesterId") Long semesterId);
+    
     @Query("SELECT s.email FROM Student s")
     List<String> findAllEmails();
     
+    // Student ids only, for validating an import without loading entities
+    @Query("SELECT s.studentId FROM Student s")
+    List<String> findAllStudentIds();
+    
+    // [studentId, id] pairs for resolving student ids in bulk imports
+    @Query("SELECT s.studentId, s.id FROM Student s")
+    List<Object[]> findIdRows();
+    
     @Query("SELECT CASE WHEN COUNT(s) > 0 THEN TRUE ELSE FALSE END FROM Student s WHERE LOWER(s.email) = LOWER(:email)")
     boolean existsByEmail(@Param("email") String email);
     
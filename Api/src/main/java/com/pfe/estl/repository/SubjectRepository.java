@@ -1,7 +1,11 @@
 package com.pfe.estl.repository;
 
 import com.pfe.estl.model.Subject;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,6 +18,15 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
     // Find if a subject with the given code already exists (for Excel import functionality)
     boolean existsByCode(String code);
     
-    // Find subject by code
+    // Find subject by code (query-cached)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Subject findByCode(String code);
+
+    // Codes only, for validating an import without loading entities
+    @Query("SELECT s.code FROM Subject s")
+    List<String> findAllCodes();
+    
+    // [code, id] pairs for resolving subject codes in bulk imports
+    @Query("SELECT s.code, s.id FROM Subject s")
+    List<Object[]> findIdRows();
 }
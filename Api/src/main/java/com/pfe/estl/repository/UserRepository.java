@@ -33,4 +33,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Find users who have a specific role (using JPQL query with JOIN)
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName")
     List<User> findByRoleName(String roleName);
+
+    // Usernames and emails only, for validating an import without loading entities
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+    
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
 }
@@ -0,0 +1,27 @@
+package com.pfe.estl.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import com.pfe.estl.dto.AbsenceAlertDTO;
+import com.pfe.estl.dto.AbsenceThresholdDTO;
+import com.pfe.estl.model.Student;
+
+public interface AbsenceAlertService {
+    void evaluateStudents(Collection<Long> studentIds);
+    void reevaluateAllStudents();
+
+    int getDefaultThresholdHours();
+    int getThresholdHours(Student student);
+    ToIntFunction<Student> getThresholdResolver();
+
+    long countActiveAlerts();
+    List<AbsenceAlertDTO> getActiveAlerts();
+    Map<String, Object> getAlerts(Boolean active, Long departmentId, int page, int size);
+
+    List<AbsenceThresholdDTO> getThresholds();
+    AbsenceThresholdDTO saveThreshold(AbsenceThresholdDTO thresholdDTO);
+    void deleteThreshold(Long id);
+}
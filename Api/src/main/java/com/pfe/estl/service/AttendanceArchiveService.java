@@ -0,0 +1,113 @@
+package com.pfe.estl.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pfe.estl.dto.AttendanceArchiveDTO;
+import com.pfe.estl.repository.AttendanceArchiveRepository;
+
+/**
+ * Moves the attendance of closed academic years out of attendance_records into per-year archive
+ * tables, so the live table and its indexes only hold the open years.
+ *
+ * Reports keep seeing archived years through the date-range queries of the attendance
+ * repository. All-time totals such as absence alerts only count the open years.
+ */
+@Service
+public class AttendanceArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceArchiveService.class);
+
+    private final AttendanceArchiveRepository archiveRepository;
+    private final AbsenceAlertService absenceAlertService;
+    private final AttendanceChangeLogService attendanceChangeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final int openAcademicYears;
+
+    public AttendanceArchiveService(AttendanceArchiveRepository archiveRepository,
+                                    AbsenceAlertService absenceAlertService,
+                                    AttendanceChangeLogService attendanceChangeLog,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${attendance.archive.open-academic-years:1}") int openAcademicYears) {
+        this.archiveRepository = archiveRepository;
+        this.absenceAlertService = absenceAlertService;
+        this.attendanceChangeLog = attendanceChangeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.openAcademicYears = Math.max(1, openAcademicYears);
+    }
+
+    /**
+     * Every academic year with attendance, live or archived, oldest first
+     */
+    public List<AttendanceArchiveDTO> getAcademicYears() {
+        TreeSet<Integer> years = new TreeSet<>(archiveRepository.findLiveYears());
+        years.addAll(archiveRepository.getArchivedYears());
+        List<AttendanceArchiveDTO> result = new ArrayList<>(years.size());
+        for (int year : years) {
+            result.add(toDTO(year));
+        }
+        return result;
+    }
+
+    /**
+     * Archive a closed academic year. Records of that year imported after an earlier archiving
+     * are moved as well, so this can safely be run again
+     * @param academicYear The calendar year the academic year starts in
+     * @return The academic year after the move
+     */
+    public AttendanceArchiveDTO archiveAcademicYear(int academicYear) {
+        if (!isClosed(academicYear)) {
+            throw new IllegalArgumentException("Academic year " + label(academicYear) + " is still open");
+        }
+        long start = System.nanoTime();
+        // DDL outside the transaction: MySQL would commit it halfway
+        archiveRepository.createArchiveTable(academicYear);
+        Integer moved = transactionTemplate.execute(status -> {
+            int count = archiveRepository.moveToArchive(academicYear);
+            if (count > 0) {
+                // Archived records leave attendance_records: consumers of the change log must reload
+                attendanceChangeLog.recordBulkChange();
+            }
+            return count;
+        });
+        logger.info("Archived {} attendance records of academic year {} in {} ms",
+                moved, label(academicYear), (System.nanoTime() - start) / 1_000_000);
+
+        if (moved != null && moved > 0) {
+            // Alerts are computed from attendance_records: resolve those that relied on archived absences
+            absenceAlertService.reevaluateAllStudents();
+        }
+        return toDTO(academicYear);
+    }
+
+    private boolean isClosed(int academicYear) {
+        return academicYear <= archiveRepository.academicYearOf(LocalDate.now()) - openAcademicYears;
+    }
+
+    private AttendanceArchiveDTO toDTO(int academicYear) {
+        AttendanceArchiveDTO dto = new AttendanceArchiveDTO();
+        dto.setAcademicYear(academicYear);
+        dto.setLabel(label(academicYear));
+        dto.setStartDate(archiveRepository.startOf(academicYear));
+        dto.setEndDate(archiveRepository.endOf(academicYear));
+        dto.setOpen(!isClosed(academicYear));
+        dto.setLiveRecords(archiveRepository.countLiveRows(academicYear));
+        dto.setArchivedRecords(archiveRepository.getArchivedYears().contains(academicYear)
+                ? archiveRepository.countArchivedRows(academicYear) : 0);
+        return dto;
+    }
+
+    // "2023-2024"
+    private static String label(int academicYear) {
+        return academicYear + "-" + (academicYear + 1);
+    }
+}
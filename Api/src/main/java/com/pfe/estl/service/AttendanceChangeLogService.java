@@ -0,0 +1,216 @@
+package com.pfe.estl.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pfe.estl.dto.AttendanceChangeDTO;
+import com.pfe.estl.dto.AttendanceChangePageDTO;
+import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.model.AttendanceChange;
+import com.pfe.estl.model.AttendanceChange.Operation;
+import com.pfe.estl.model.AttendanceChangeSequence;
+import com.pfe.estl.repository.AttendanceChangeRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Append-only log of attendance record changes, for consumers that maintain derived data
+ * incrementally ("what changed since sequence N").
+ *
+ * Writers record their changes inside the transaction that makes them. The entries are
+ * numbered and inserted just before that transaction commits, under the row lock of the
+ * sequence counter, so entries become visible in sequence order and a cursor never skips one.
+ * Bulk paths (attendance file import, archiving) write a single RESYNC entry per transaction
+ * instead of one entry per record.
+ */
+@Service
+public class AttendanceChangeLogService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final AttendanceChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendanceChangeLogService(AttendanceChangeRepository changeRepository, JdbcTemplate jdbcTemplate) {
+        this.changeRepository = changeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The counter row continues from the log, so sequence numbers survive a lost counter
+    @PostConstruct
+    public void initSequence() {
+        jdbcTemplate.update("INSERT INTO attendance_change_sequence (id, last_sequence) "
+                + "SELECT ?, COALESCE(MAX(sequence), 0) FROM attendance_change_log "
+                + "WHERE NOT EXISTS (SELECT 1 FROM attendance_change_sequence WHERE id = ?)",
+                AttendanceChangeSequence.ID, AttendanceChangeSequence.ID);
+    }
+
+    public void recordCreated(AttendanceRecordDTO record) {
+        AttendanceChange change = new AttendanceChange();
+        change.setOperation(Operation.CREATE);
+        change.setRecordId(record.getId());
+        setCurrent(change, record);
+        pending().add(change);
+    }
+
+    /**
+     * @param previous The record as it was before the update, or null if it did not exist
+     */
+    public void recordUpdated(AttendanceRecordDTO previous, AttendanceRecordDTO record) {
+        if (previous == null) {
+            recordCreated(record);
+            return;
+        }
+        AttendanceChange change = new AttendanceChange();
+        change.setOperation(Operation.UPDATE);
+        change.setRecordId(record.getId());
+        setCurrent(change, record);
+        setPrevious(change, previous);
+        pending().add(change);
+    }
+
+    public void recordDeleted(AttendanceRecordDTO previous) {
+        AttendanceChange change = new AttendanceChange();
+        change.setOperation(Operation.DELETE);
+        change.setRecordId(previous.getId());
+        setPrevious(change, previous);
+        pending().add(change);
+    }
+
+    /**
+     * Record a bulk change that has no per-record entries. Consumers reaching it must rebuild
+     * their derived data from the attendance records; one is written per transaction at most
+     */
+    public void recordBulkChange() {
+        List<AttendanceChange> changes = pending();
+        if (changes.stream().noneMatch(change -> change.getOperation() == Operation.RESYNC)) {
+            AttendanceChange change = new AttendanceChange();
+            change.setOperation(Operation.RESYNC);
+            changes.add(change);
+        }
+    }
+
+    /**
+     * Read the entries after a cursor, oldest first
+     * @param cursor Last sequence number already processed; 0 to read from the start
+     * @param limit Maximum number of entries, capped at {@link #MAX_PAGE_SIZE}
+     * @return The entries and the cursor to continue from
+     */
+    @Transactional(readOnly = true)
+    public AttendanceChangePageDTO getChanges(long cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<AttendanceChange> changes = changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(cursor, Limit.of(size + 1));
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+        long nextCursor = changes.isEmpty() ? cursor : changes.get(changes.size() - 1).getSequence();
+        List<AttendanceChangeDTO> dtos = changes.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+        return new AttendanceChangePageDTO(dtos, nextCursor, hasMore);
+    }
+
+    /**
+     * Sequence number of the latest committed entry, 0 when the log is empty
+     */
+    @Transactional(readOnly = true)
+    public long getLatestSequence() {
+        return changeRepository.findLatestSequence();
+    }
+
+    // Changes of the current transaction, appended to the log just before it commits
+    @SuppressWarnings("unchecked")
+    private List<AttendanceChange> pending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Attendance changes must be logged inside the transaction that makes them");
+        }
+        List<AttendanceChange> changes = (List<AttendanceChange>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            List<AttendanceChange> bound = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    append(bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AttendanceChangeLogService.this);
+                }
+            });
+            changes = bound;
+        }
+        return changes;
+    }
+
+    private void append(List<AttendanceChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Locks the counter row until commit: a later transaction gets later numbers and commits after us
+        int updated = jdbcTemplate.update("UPDATE attendance_change_sequence SET last_sequence = last_sequence + ? WHERE id = ?",
+                changes.size(), AttendanceChangeSequence.ID);
+        if (updated == 0) {
+            throw new IllegalStateException("Attendance change sequence is not initialised");
+        }
+        long sequence = jdbcTemplate.queryForObject("SELECT last_sequence FROM attendance_change_sequence WHERE id = ?",
+                Long.class, AttendanceChangeSequence.ID) - changes.size();
+        LocalDateTime now = LocalDateTime.now();
+        for (AttendanceChange change : changes) {
+            change.setSequence(++sequence);
+            change.setChangedAt(now);
+            entityManager.persist(change);
+        }
+    }
+
+    private static void setCurrent(AttendanceChange change, AttendanceRecordDTO record) {
+        change.setStudentId(record.getStudentId());
+        change.setSubjectId(record.getSubjectId());
+        change.setDate(record.getDate());
+        change.setDuration(record.getDuration());
+        change.setPresent(record.isPresent());
+    }
+
+    private static void setPrevious(AttendanceChange change, AttendanceRecordDTO record) {
+        change.setPreviousStudentId(record.getStudentId());
+        change.setPreviousSubjectId(record.getSubjectId());
+        change.setPreviousDate(record.getDate());
+        change.setPreviousDuration(record.getDuration());
+        change.setPreviousPresent(record.isPresent());
+    }
+
+    private AttendanceChangeDTO toDTO(AttendanceChange change) {
+        AttendanceChangeDTO dto = new AttendanceChangeDTO();
+        dto.setSequence(change.getSequence());
+        dto.setOperation(change.getOperation().name());
+        dto.setRecordId(change.getRecordId());
+        dto.setChangedAt(change.getChangedAt());
+        dto.setStudentId(change.getStudentId());
+        dto.setSubjectId(change.getSubjectId());
+        dto.setDate(change.getDate());
+        dto.setDuration(change.getDuration());
+        dto.setPresent(change.getPresent());
+        dto.setPreviousStudentId(change.getPreviousStudentId());
+        dto.setPreviousSubjectId(change.getPreviousSubjectId());
+        dto.setPreviousDate(change.getPreviousDate());
+        dto.setPreviousDuration(change.getPreviousDuration());
+        dto.setPreviousPresent(change.getPreviousPresent());
+        return dto;
+    }
+}
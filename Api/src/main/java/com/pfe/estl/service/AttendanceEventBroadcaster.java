@@ -0,0 +1,297 @@
+package com.pfe.estl.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.event.AbsenceThresholdCrossedEvent;
+import com.pfe.estl.event.AttendanceSavedEvent;
+import com.pfe.estl.repository.AttendanceRecordRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes attendance deltas to connected dashboards over Server-Sent Events.
+ *
+ * Each saved batch produces an "attendance-saved" event (batch summary and the overall
+ * 30-day rate) and one "department-rate" event per touched department; crossings reported
+ * by the alert engine are forwarded as "threshold-crossed". Only the touched rows are
+ * re-aggregated, and all work happens on a dedicated thread so a slow client never holds
+ * up the request that saved the attendance.
+ *
+ * Every client has its own bounded queue, drained by a sender thread while it has events
+ * pending, so a stalled client only delays itself. A client whose queue overflows or whose
+ * current send takes longer than attendance.stream.send-timeout-ms is disconnected; the
+ * dashboard reconnects and reloads its figures.
+ *
+ * Sender threads are capped at attendance.stream.sender-threads (default: available
+ * processors), with at most one pending drain per client waiting for them in a queue of
+ * attendance.stream.sender-queue-capacity. A client whose drain does not fit is disconnected
+ * like one whose own queue overflows. A send blocked on a dead connection holds its thread
+ * until the container's write timeout fails it; the cap bounds how many threads that can take.
+ */
+@Service
+public class AttendanceEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceEventBroadcaster.class);
+
+    private static final int RATE_WINDOW_DAYS = 30;
+    private static final long HEARTBEAT_SECONDS = 20;
+
+    private final AttendanceRecordRepository attendanceRecordRepository;
+    private final long timeoutMs;
+    private final int queueCapacity;
+    private final long sendTimeoutNanos;
+
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    // Single thread computes the deltas and queues them in order for every client
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attendance-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Writes to the clients; a thread is only held while its client has events pending
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attendance-sse-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AttendanceEventBroadcaster(
+            AttendanceRecordRepository attendanceRecordRepository,
+            @Value("${attendance.stream.timeout-ms:1800000}") long timeoutMs,
+            @Value("${attendance.stream.queue-capacity:100}") int queueCapacity,
+            @Value("${attendance.stream.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${attendance.stream.sender-threads:0}") int senderThreads,
+            @Value("${attendance.stream.sender-queue-capacity:1000}") int senderQueueCapacity) {
+        this.attendanceRecordRepository = attendanceRecordRepository;
+        this.timeoutMs = timeoutMs;
+        this.queueCapacity = queueCapacity;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        int threads = senderThreads > 0 ? senderThreads : Runtime.getRuntime().availableProcessors();
+        this.senders = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(senderQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "attendance-sse-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.senders.allowCoreThreadTimeOut(true);
+        // Comments keep proxies from closing idle connections and flush out dead and stalled clients
+        heartbeat.scheduleAtFixedRate(() -> dispatcher.execute(this::heartbeat),
+                HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Register a new dashboard connection
+     * @return The emitter bound to the HTTP response
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> {
+            subscribers.remove(emitter);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(emitter));
+        subscribers.put(emitter, subscriber);
+        subscriber.enqueue(SseEmitter.event().comment("connected"));
+        logger.debug("Attendance stream subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Number of currently connected dashboards
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceSaved(AttendanceSavedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dispatcher.execute(() -> {
+            try {
+                publishDeltas(event);
+            } catch (RuntimeException e) {
+                logger.error("Failed to publish attendance stream update: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private void publishDeltas(AttendanceSavedEvent event) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(RATE_WINDOW_DAYS);
+        List<AttendanceRecordDTO> records = event.getRecords();
+
+        long presentCount = records.stream().filter(AttendanceRecordDTO::isPresent).count();
+        Map<String, Object> saved = new LinkedHashMap<>();
+        saved.put("recordCount", records.size());
+        saved.put("presentCount", presentCount);
+        saved.put("absentCount", records.size() - presentCount);
+        saved.put("dates", records.stream().map(AttendanceRecordDTO::getDate).distinct().collect(Collectors.toList()));
+        saved.put("subjectIds", records.stream().map(AttendanceRecordDTO::getSubjectId).distinct().collect(Collectors.toList()));
+        saved.put("averageAttendanceRate", rate(attendanceRecordRepository.countPresenceByDateBetween(startDate, endDate)));
+        broadcast(() -> SseEmitter.event().name("attendance-saved").data(saved));
+
+        for (String departmentName : event.getDepartmentNames()) {
+            Map<String, Object> department = new LinkedHashMap<>();
+            department.put("departmentName", departmentName);
+            department.put("attendanceRate", rate(attendanceRecordRepository
+                    .countPresenceByDepartmentNameAndDateBetween(departmentName, startDate, endDate)));
+            department.put("startDate", startDate);
+            department.put("endDate", endDate);
+            broadcast(() -> SseEmitter.event().name("department-rate").data(department));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onThresholdCrossed(AbsenceThresholdCrossedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<String, Object> crossed = new LinkedHashMap<>();
+        crossed.put("students", event.getAlerts());
+        dispatcher.execute(() -> broadcast(() -> SseEmitter.event().name("threshold-crossed").data(crossed)));
+    }
+
+    private static double rate(List<Object[]> counts) {
+        if (counts.isEmpty()) {
+            return 0.0;
+        }
+        Object[] row = counts.get(0);
+        long total = ((Number) row[0]).longValue();
+        long present = ((Number) row[1]).longValue();
+        return total > 0 ? (double) present / total * 100 : 0.0;
+    }
+
+    // An event builder is consumed by a single send, so each client gets a fresh one
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers.values()) {
+            subscriber.enqueue(event.get());
+        }
+    }
+
+    // A client still draining needs no comment to stay open, only the stalled-send check
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (subscriber.sendTimedOut()) {
+                drop(subscriber, "send timed out");
+            } else if (!subscriber.draining.get()) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscribers.remove(subscriber.emitter, subscriber)) {
+            subscriber.queue.clear();
+            logger.warn("Disconnecting attendance stream subscriber: {}", reason);
+            // Completing waits for a send in progress, so it never runs on the dispatcher
+            try {
+                senders.execute(subscriber.emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // Senders saturated: the emitter timeout completes it instead
+                logger.debug("Attendance stream subscriber left to time out");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean sending;
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private boolean sendTimedOut() {
+            return sending && System.nanoTime() - sendStartedAt > sendTimeoutNanos;
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (sendTimedOut()) {
+                drop(this, "send timed out");
+            } else if (!queue.offer(event)) {
+                drop(this, "more than " + queueCapacity + " events pending");
+            } else {
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    drop(this, "no sender available");
+                }
+            }
+        }
+
+        // At most one drain per client at a time keeps its events in order
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    sendStartedAt = System.nanoTime();
+                    sending = true;
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away; the container will complete the emitter
+                        subscribers.remove(emitter, this);
+                        queue.clear();
+                        return;
+                    } finally {
+                        sending = false;
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // An event queued after the last poll but before the flag was cleared
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,630 @@
+package com.pfe.estl.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.pfe.estl.dto.AttendanceImportProgressDTO;
+import com.pfe.estl.dto.ImportIssueDTO;
+import com.pfe.estl.repository.StudentRepository;
+import com.pfe.estl.repository.SubjectRepository;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bulk import of historical attendance from CSV or XLSX files.
+ *
+ * Rows are read as a stream (XLSX through POI's SAX reader, never as a whole workbook) and
+ * resolved against student id and subject code maps loaded once. Inserts go through plain JDBC
+ * batches, one transaction per batch, on a writer thread, so the next batch is parsed while the
+ * previous one is written. Absence alerts of the affected students are re-evaluated once at the
+ * end instead of per record. A row is skipped when the student already has a record for that
+ * subject on that date, so uploading a file again after a failed import only adds what is missing.
+ *
+ * Expected columns (header row, any order): studentId, subjectCode, date (yyyy-MM-dd or an Excel
+ * date), duration (minutes) and present (true/false, 1/0, yes/no, P/A).
+ */
+@Service
+public class AttendanceImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceImportService.class);
+
+    // INSERT ... SELECT FROM DUAL ... WHERE NOT EXISTS runs unchanged on MySQL and H2
+    private static final String INSERT_SQL = "INSERT INTO attendance_records "
+            + "(student_reference_id, subject_id, date, duration, is_present) SELECT ?, ?, ?, ?, ? FROM DUAL "
+            + "WHERE NOT EXISTS (SELECT 1 FROM attendance_records "
+            + "WHERE student_reference_id = ? AND subject_id = ? AND date = ?)";
+    private static final String SHEET_NAME = "Attendance";
+    // Beyond this only the number of rejected rows is reported
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    // Above this many students one full re-evaluation is cheaper than a huge IN list
+    private static final int FULL_REEVALUATION_THRESHOLD = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudentRepository studentRepository;
+    private final SubjectRepository subjectRepository;
+    private final AbsenceAlertService absenceAlertService;
+    private final ReferenceDataVersionService referenceDataVersionService;
+    private final AttendanceChangeLogService attendanceChangeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "attendance-import-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AttendanceImportService(JdbcTemplate jdbcTemplate,
+                                   StudentRepository studentRepository,
+                                   SubjectRepository subjectRepository,
+                                   AbsenceAlertService absenceAlertService,
+                                   ReferenceDataVersionService referenceDataVersionService,
+                                   AttendanceChangeLogService attendanceChangeLog,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${attendance.import.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.studentRepository = studentRepository;
+        this.subjectRepository = subjectRepository;
+        this.absenceAlertService = absenceAlertService;
+        this.referenceDataVersionService = referenceDataVersionService;
+        this.attendanceChangeLog = attendanceChangeLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import one attendance file. Batches written before a failure stay committed; the summary
+     * reports how many rows made it in, and importing the same file again skips them
+     * @param file The uploaded file on disk
+     * @param filename Original file name; .csv or .xlsx selects the parser
+     * @param events Receives an ImportIssueDTO per rejected row and an AttendanceImportProgressDTO per batch
+     * @return The final summary
+     * @throws IOException If the file cannot be read
+     */
+    public AttendanceImportProgressDTO importFile(Path file, String filename, Consumer<Object> events) throws IOException {
+        Run run = new Run(events);
+        String lowercaseName = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        try {
+            if (lowercaseName.endsWith(".xlsx")) {
+                run.loadReferenceData();
+                readXlsx(file, run);
+            } else if (lowercaseName.endsWith(".csv")) {
+                run.loadReferenceData();
+                readCsv(file, run);
+            } else {
+                throw new ImportStoppedException("Attendance file must be a .csv or .xlsx file");
+            }
+            run.finish();
+        } catch (ImportStoppedException e) {
+            logger.warn("Attendance import of {} stopped: {}", filename, e.getMessage());
+            events.accept(new ImportIssueDTO(ImportIssueDTO.ERROR, SHEET_NAME, null, e.getMessage()));
+            run.completed = false;
+        }
+        run.reevaluateAlerts();
+
+        AttendanceImportProgressDTO summary = run.progress(AttendanceImportProgressDTO.SUMMARY);
+        summary.setCompleted(run.completed);
+        logger.info("Attendance import of {}: {} rows read, {} imported, {} rejected in {} ms ({} rows/s)", filename,
+                summary.getRowsRead(), summary.getRowsImported(), summary.getRowsRejected(),
+                summary.getElapsedMs(), summary.getRowsPerSecond());
+        return summary;
+    }
+
+    private void readCsv(Path file, Run run) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> cells = new ArrayList<>();
+            char delimiter = ',';
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    if (line.startsWith("﻿")) {
+                        line = line.substring(1);
+                    }
+                    delimiter = detectDelimiter(line);
+                }
+                splitCsvLine(line, delimiter, cells);
+                run.row(lineNumber, cells.toArray(new String[0]));
+            }
+        }
+    }
+
+    /**
+     * Delimiter of a CSV file, from its header line. Excel saves CSV with semicolons in French locales
+     */
+    static char detectDelimiter(String header) {
+        return header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields (quoted line breaks are not supported)
+     */
+    static void splitCsvLine(String line, char delimiter, List<String> cells) {
+        cells.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                cells.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        cells.add(field.toString());
+    }
+
+    private void readXlsx(Path file, Run run) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings,
+                    new RowCollector(run), new IsoDateFormatter(), false));
+            try (InputStream sheet = openSheet(reader)) {
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new ImportStoppedException("Could not read the XLSX file: " + e.getMessage());
+        }
+    }
+
+    // The "Attendance" sheet if there is one, otherwise the first sheet
+    private InputStream openSheet(XSSFReader reader) throws IOException, OpenXML4JException {
+        int index = 0;
+        int chosen = 0;
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        while (sheets.hasNext()) {
+            try (InputStream ignored = sheets.next()) {
+                if (SHEET_NAME.equalsIgnoreCase(sheets.getSheetName())) {
+                    chosen = index;
+                    break;
+                }
+            }
+            index++;
+        }
+        sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+        for (int i = 0; i < chosen; i++) {
+            sheets.next().close();
+        }
+        if (!sheets.hasNext()) {
+            throw new ImportStoppedException("The XLSX file has no sheets");
+        }
+        return sheets.next();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdownNow();
+    }
+
+    /**
+     * State of one import: lookups, the batch being filled, the batch being written and counters
+     */
+    private final class Run {
+        private final Consumer<Object> events;
+        private final long start = System.nanoTime();
+        private final Map<String, Long> studentIds = new HashMap<>();
+        private final Map<String, Long> subjectIds = new HashMap<>();
+        private final Map<String, Date> dates = new HashMap<>();
+        private final Set<Long> affectedStudents = new HashSet<>();
+        private int studentIdIdx = -1;
+        private int subjectCodeIdx = -1;
+        private int dateIdx = -1;
+        private int durationIdx = -1;
+        private int presentIdx = -1;
+        private boolean headerRead;
+        private Batch batch = new Batch(batchSize);
+        private Batch writing;
+        private Future<Integer> inFlight;
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        private long rowsSkipped;
+        private boolean completed = true;
+
+        private Run(Consumer<Object> events) {
+            this.events = events;
+        }
+
+        void loadReferenceData() {
+            for (Object[] row : studentRepository.findIdRows()) {
+                studentIds.put(key((String) row[0]), (Long) row[1]);
+            }
+            for (Object[] row : subjectRepository.findIdRows()) {
+                subjectIds.put(key((String) row[0]), (Long) row[1]);
+            }
+        }
+
+        void row(int rowNumber, String[] cells) {
+            if (!headerRead) {
+                readHeader(cells);
+                return;
+            }
+            if (isBlank(cells)) {
+                return;
+            }
+            rowsRead++;
+
+            String studentId = cell(cells, studentIdIdx);
+            Long studentRef = studentIds.get(key(studentId));
+            if (studentRef == null) {
+                reject(rowNumber, "Student '" + studentId + "' not found");
+                return;
+            }
+            String subjectCode = cell(cells, subjectCodeIdx);
+            Long subjectRef = subjectIds.get(key(subjectCode));
+            if (subjectRef == null) {
+                reject(rowNumber, "Subject with code '" + subjectCode + "' not found");
+                return;
+            }
+            Date date = parseDate(cell(cells, dateIdx));
+            if (date == null) {
+                reject(rowNumber, "Invalid date '" + cell(cells, dateIdx) + "', expected yyyy-MM-dd");
+                return;
+            }
+            int duration = parseDuration(cell(cells, durationIdx));
+            if (duration <= 0) {
+                reject(rowNumber, "Invalid duration '" + cell(cells, durationIdx) + "', expected minutes");
+                return;
+            }
+            Boolean present = parsePresent(cell(cells, presentIdx));
+            if (present == null) {
+                reject(rowNumber, "Invalid present value '" + cell(cells, presentIdx) + "'");
+                return;
+            }
+
+            batch.add(studentRef, subjectRef, date, duration, present);
+            affectedStudents.add(studentRef);
+            if (batch.size == batchSize) {
+                submit();
+            }
+        }
+
+        private void readHeader(String[] cells) {
+            for (int i = 0; i < cells.length; i++) {
+                String name = cells[i] == null ? "" : cells[i].trim();
+                if (name.equalsIgnoreCase("studentId")) {
+                    studentIdIdx = i;
+                } else if (name.equalsIgnoreCase("subjectCode")) {
+                    subjectCodeIdx = i;
+                } else if (name.equalsIgnoreCase("date")) {
+                    dateIdx = i;
+                } else if (name.equalsIgnoreCase("duration")) {
+                    durationIdx = i;
+                } else if (name.equalsIgnoreCase("present")) {
+                    presentIdx = i;
+                }
+            }
+            if (studentIdIdx == -1 || subjectCodeIdx == -1 || dateIdx == -1 || durationIdx == -1 || presentIdx == -1) {
+                throw new ImportStoppedException(
+                        "Attendance file must have 'studentId', 'subjectCode', 'date', 'duration' and 'present' columns");
+            }
+            headerRead = true;
+        }
+
+        private void reject(int rowNumber, String message) {
+            rowsRejected++;
+            if (rowsRejected <= MAX_REPORTED_ERRORS) {
+                events.accept(new ImportIssueDTO(ImportIssueDTO.ERROR, SHEET_NAME, rowNumber, message));
+            }
+        }
+
+        // Hand the full batch to the writer once the previous one is committed
+        private void submit() {
+            awaitWrite();
+            Batch toWrite = batch;
+            batch = new Batch(batchSize);
+            writing = toWrite;
+            inFlight = writer.submit(() -> write(toWrite));
+        }
+
+        private void awaitWrite() {
+            if (inFlight == null) {
+                return;
+            }
+            int inserted;
+            try {
+                inserted = inFlight.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImportStoppedException("Interrupted while writing attendance records");
+            } catch (ExecutionException e) {
+                logger.error("Failed to write attendance batch", e.getCause());
+                throw new ImportStoppedException("Failed to write attendance records: " + e.getCause().getMessage());
+            } finally {
+                inFlight = null;
+            }
+            rowsImported += inserted;
+            rowsSkipped += writing.size - inserted;
+            events.accept(progress(AttendanceImportProgressDTO.PROGRESS));
+        }
+
+        void finish() {
+            if (!headerRead) {
+                throw new ImportStoppedException("Attendance file is empty");
+            }
+            if (batch.size > 0) {
+                submit();
+            }
+            awaitWrite();
+        }
+
+        void reevaluateAlerts() {
+            if (rowsImported == 0) {
+                return;
+            }
+            if (affectedStudents.size() > FULL_REEVALUATION_THRESHOLD) {
+                absenceAlertService.reevaluateAllStudents();
+            } else {
+                absenceAlertService.evaluateStudents(affectedStudents);
+            }
+        }
+
+        AttendanceImportProgressDTO progress(String type) {
+            long elapsedNanos = System.nanoTime() - start;
+            AttendanceImportProgressDTO progress = new AttendanceImportProgressDTO();
+            progress.setType(type);
+            progress.setRowsRead(rowsRead);
+            progress.setRowsImported(rowsImported);
+            progress.setRowsRejected(rowsRejected);
+            progress.setRowsSkipped(rowsSkipped);
+            progress.setElapsedMs(elapsedNanos / 1_000_000);
+            progress.setRowsPerSecond(elapsedNanos > 0 ? rowsImported * 1_000_000_000L / elapsedNanos : 0);
+            return progress;
+        }
+
+        private Date parseDate(String value) {
+            Date date = dates.get(value);
+            if (date == null && !dates.containsKey(value)) {
+                try {
+                    date = Date.valueOf(LocalDate.parse(value.trim()));
+                } catch (DateTimeParseException e) {
+                    date = null;
+                }
+                // A semester has a few hundred distinct dates; the cap only guards against odd files
+                if (dates.size() > 10_000) {
+                    dates.clear();
+                }
+                dates.put(value, date);
+            }
+            return date;
+        }
+    }
+
+    /**
+     * Insert one batch in its own transaction
+     * @return Number of rows inserted; the others were already there
+     */
+    private int write(Batch batch) {
+        int inserted = transactionTemplate.execute(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setLong(1, batch.studentIds[i]);
+                    ps.setLong(2, batch.subjectIds[i]);
+                    ps.setDate(3, batch.dates[i]);
+                    ps.setInt(4, batch.durations[i]);
+                    ps.setBoolean(5, batch.present[i]);
+                    ps.setLong(6, batch.studentIds[i]);
+                    ps.setLong(7, batch.subjectIds[i]);
+                    ps.setDate(8, batch.dates[i]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size;
+                }
+            });
+            int rows = 0;
+            for (int count : counts) {
+                // A driver that cannot tell reports SUCCESS_NO_INFO: counted as inserted
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+            if (rows > 0) {
+                attendanceChangeLog.recordBulkChange();
+            }
+            return rows;
+        });
+        if (inserted > 0) {
+            referenceDataVersionService.markChanged(Table.ATTENDANCE);
+        }
+        return inserted;
+    }
+
+    private static int parseDuration(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Boolean parsePresent(String value) {
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes", "y", "p", "present":
+                return Boolean.TRUE;
+            case "false", "0", "no", "n", "a", "absent":
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private static String cell(String[] cells, int index) {
+        return index < cells.length && cells[index] != null ? cells[index] : "";
+    }
+
+    private static boolean isBlank(String[] cells) {
+        for (String cell : cells) {
+            if (cell != null && !cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MySQL's default collation compares ids case-insensitively
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rows ready for one JDBC batch, in primitive arrays to keep large imports light
+     */
+    private static final class Batch {
+        private final long[] studentIds;
+        private final long[] subjectIds;
+        private final Date[] dates;
+        private final int[] durations;
+        private final boolean[] present;
+        private int size;
+
+        private Batch(int capacity) {
+            studentIds = new long[capacity];
+            subjectIds = new long[capacity];
+            dates = new Date[capacity];
+            durations = new int[capacity];
+            present = new boolean[capacity];
+        }
+
+        private void add(long studentId, long subjectId, Date date, int duration, boolean isPresent) {
+            studentIds[size] = studentId;
+            subjectIds[size] = subjectId;
+            dates[size] = date;
+            durations[size] = duration;
+            present[size] = isPresent;
+            size++;
+        }
+    }
+
+    /**
+     * Feeds the rows of POI's streaming sheet reader to an import run
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Run run;
+        private final List<String> cells = new ArrayList<>();
+
+        private RowCollector(Run run) {
+            this.run = run;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // Row numbers as shown in Excel
+            run.row(rowNum + 1, cells.toArray(new String[0]));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null ? columnIndex(cellReference) : cells.size();
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+        }
+
+        // "C12" -> 2
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+
+    /**
+     * Formats date cells as yyyy-MM-dd whatever their display format, other cells as Excel shows them
+     */
+    private static final class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+
+    /**
+     * Ends an import early; its message is reported to the client
+     */
+    private static final class ImportStoppedException extends RuntimeException {
+        private ImportStoppedException(String message) {
+            super(message);
+        }
+    }
+}
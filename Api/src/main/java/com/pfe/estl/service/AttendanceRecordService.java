@@ -3,19 +3,26 @@ package com.pfe.estl.service;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
+import com.pfe.estl.dto.AbsenceReportRowDTO;
 import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.dto.AttendanceTimelineDTO;
+import com.pfe.estl.dto.StudentAbsenceReportDTO;
 
 public interface AttendanceRecordService {
     AttendanceRecordDTO saveAttendanceRecord(AttendanceRecordDTO attendanceRecordDTO);
     AttendanceRecordDTO getAttendanceRecordById(Long id);
     List<AttendanceRecordDTO> getAllAttendanceRecords();
+    void forEachAttendanceRecord(Consumer<AttendanceRecordDTO> action);
     List<AttendanceRecordDTO> getAttendanceRecordsByStudent(String studentId);
     List<AttendanceRecordDTO> getAttendanceRecordsByDepartment(String departmentName);
     List<AttendanceRecordDTO> getAttendanceRecordsByDate(LocalDate date);
     List<AttendanceRecordDTO> getAttendanceRecordsByStudentAndDateRange(
         String studentId, LocalDate startDate, LocalDate endDate);
     List<AttendanceRecordDTO> getAttendanceRecordsByDateRange(LocalDate startDate, LocalDate endDate);
+    List<StudentAbsenceReportDTO> getStudentAbsenceReports(Long departmentId, Long semesterId);
+    AttendanceTimelineDTO getAttendanceTimeline(String studentId, LocalDate startDate, LocalDate endDate);
     AttendanceRecordDTO updateAttendanceRecord(AttendanceRecordDTO attendanceRecordDTO);
     void deleteAttendanceRecord(Long id);
     Map<String, Object> getDepartmentStatistics(String departmentName, LocalDate startDate, LocalDate endDate);
@@ -24,10 +31,11 @@ public interface AttendanceRecordService {
     Map<String, List<AttendanceRecordDTO>> getDailyAttendanceReport(LocalDate date);
     List<AttendanceRecordDTO> saveBulkAttendanceRecords(List<AttendanceRecordDTO> records);
     
+    List<Map<String, Object>> getStudentsExceedingAbsenceThreshold();
     List<Map<String, Object>> getStudentsExceedingAbsenceThreshold(int thresholdHours);
     Map<String, Object> getStudentAbsenceHours(String studentId);
-    List<Map<String, Object>> getAbsenceReport(LocalDate startDate, LocalDate endDate);
-    List<Map<String, Object>> getAbsenceReport(LocalDate startDate, LocalDate endDate, 
+    List<AbsenceReportRowDTO> getAbsenceReport(LocalDate startDate, LocalDate endDate);
+    List<AbsenceReportRowDTO> getAbsenceReport(LocalDate startDate, LocalDate endDate, 
         String departmentId, String semesterId, String subjectId, boolean showExceededOnly);
 
     double getAverageAttendance(LocalDate startDate, LocalDate endDate);
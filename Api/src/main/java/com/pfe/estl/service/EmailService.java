@@ -2,6 +2,8 @@ package com.pfe.estl.service;
 
 import java.util.List;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +20,7 @@ public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -32,8 +35,18 @@ public class EmailService {
     private String activeProfile;
 
     @Autowired
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // One count per recipient, tagged by email type and outcome
+    private void recordSend(String type, boolean success) {
+        Counter.builder("estl.email.sends")
+                .tag("type", type)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .increment();
     }
 
     // Helper to check for dummy/placeholder email config
@@ -61,8 +74,10 @@ public class EmailService {
             helper.setText(text);
 
             mailSender.send(message);
+            recordSend("simple", true);
             logger.info("Successfully sent simple email to: {}", to);
         } catch (Exception e) {
+            recordSend("simple", false);
             logger.error("Failed to send simple email to: {}. Error: {}", to, e.getMessage(), e);
             throw new RuntimeException("Failed to send simple email: " + e.getMessage(), e);
         }
@@ -87,8 +102,10 @@ public class EmailService {
             helper.setText(htmlContent, true); // true indicates HTML
 
             mailSender.send(message);
+            recordSend("html", true);
             logger.info("Successfully sent HTML email to: {}", to);
         } catch (Exception e) {
+            recordSend("html", false);
             logger.error("Failed to send HTML email to: {}. Error: {}", to, e.getMessage(), e);
             throw new RuntimeException("Failed to send HTML email: " + e.getMessage(), e);
         }
@@ -133,9 +150,11 @@ public class EmailService {
                     helper.setText(htmlContent, true);
 
                     mailSender.send(message);
+                    recordSend("bulk", true);
                     logger.info("Successfully sent bulk email to: {}", recipient);
                     successfulSends++;
                 } catch (Exception e) {
+                    recordSend("bulk", false);
                     // Log specific error for this recipient but continue with others
                     logger.error("Failed to send bulk email to: {}. Error: {}", recipient, e.getMessage(), e);
                 }
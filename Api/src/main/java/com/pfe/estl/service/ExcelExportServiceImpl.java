@@ -1,11 +1,11 @@
 package com.pfe.estl.service;
 
+import com.pfe.estl.dto.AbsenceReportRowDTO;
 import com.pfe.estl.dto.AttendanceRecordDTO;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -56,7 +56,7 @@ public class ExcelExportServiceImpl implements ExcelExportService {
   }
 
   @Override
-  public byte[] exportAbsenceReportToExcel(List<Map<String, Object>> absenceReport)
+  public byte[] exportAbsenceReportToExcel(List<AbsenceReportRowDTO> absenceReport)
       throws IOException {
     try (Workbook workbook = new XSSFWorkbook();
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
@@ -72,12 +72,12 @@ public class ExcelExportServiceImpl implements ExcelExportService {
 
       // Fill data rows
       int rowNum = 1;
-      for (Map<String, Object> record : absenceReport) {
+      for (AbsenceReportRowDTO record : absenceReport) {
         Row row = sheet.createRow(rowNum++);
-        row.createCell(0).setCellValue((String) record.get("studentName"));
-        row.createCell(1).setCellValue((String) record.get("studentId"));
-        row.createCell(2).setCellValue((String) record.get("departmentName"));
-        row.createCell(3).setCellValue(Integer.parseInt(record.get("totalAbsenceHours").toString()));
+        row.createCell(0).setCellValue(record.getStudentName());
+        row.createCell(1).setCellValue(record.getStudentId());
+        row.createCell(2).setCellValue(record.getDepartmentName());
+        row.createCell(3).setCellValue(record.getTotalAbsenceHours());
       }
 
       workbook.write(outputStream);
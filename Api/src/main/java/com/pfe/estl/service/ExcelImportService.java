@@ -1,6 +1,8 @@
 package com.pfe.estl.service;
 
+import com.pfe.estl.dto.ImportIssueDTO;
 import com.pfe.estl.dto.ImportResult;
+import com.pfe.estl.dto.ImportValidationSummaryDTO;
 import com.pfe.estl.model.Department;
 import com.pfe.estl.model.Role;
 import com.pfe.estl.model.Semester;
@@ -14,6 +16,10 @@ import com.pfe.estl.repository.StudentRepository;
 import com.pfe.estl.repository.SubjectRepository;
 import com.pfe.estl.repository.UserRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -22,16 +28,44 @@ import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 /**
  * Service for importing data from Excel files
@@ -41,6 +75,15 @@ public class ExcelImportService {
     
     private static final Logger logger = LoggerFactory.getLogger(ExcelImportService.class);
     
+    // Tables a dry run checks against; a write to any of them invalidates remembered dry runs
+    private static final ReferenceDataVersionService.Table[] PREVALIDATION_TABLES = {
+            ReferenceDataVersionService.Table.DEPARTMENTS, ReferenceDataVersionService.Table.SEMESTERS,
+            ReferenceDataVersionService.Table.SUBJECTS, ReferenceDataVersionService.Table.STUDENTS,
+            ReferenceDataVersionService.Table.ROLES, ReferenceDataVersionService.Table.USERS};
+    
+    // Same format BCryptPasswordEncoder checks in matches()
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -62,13 +105,94 @@ public class ExcelImportService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private ReferenceDataVersionService referenceDataVersionService;
+    
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${import.sheets.parallelism:3}")
+    private int sheetParallelism;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private ExecutorService sheetExecutor;
+    
+    @Value("${import.password-hashing.parallelism:0}")
+    private int passwordHashingParallelism;
+    
+    // Shared by all imports, so concurrent uploads cannot take more than these threads for BCrypt
+    private ForkJoinPool passwordHashingPool;
+    
+    @Value("${import.validation.ttl-minutes:30}")
+    private long prevalidationTtlMinutes;
+    
+    // Files whose dry run reported nothing, by SHA-256; bounded so forgotten dry runs do not pile up
+    private final Map<String, Prevalidation> prevalidatedFiles = Collections.synchronizedMap(
+            new LinkedHashMap<String, Prevalidation>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Prevalidation> eldest) {
+                    return size() > 100;
+                }
+            });
+    
     /**
-     * Process an Excel file and import its data
+     * Sheets of an import workbook, in an order where every sheet comes after its prerequisites
+     */
+    private enum ImportSheet {
+        DEPARTMENTS("Departments", ReferenceDataVersionService.Table.DEPARTMENTS),
+        SEMESTERS("Semesters", ReferenceDataVersionService.Table.SEMESTERS),
+        USERS("Users", ReferenceDataVersionService.Table.USERS),
+        SUBJECTS("Subjects", ReferenceDataVersionService.Table.SUBJECTS, DEPARTMENTS, SEMESTERS),
+        STUDENTS("Students", ReferenceDataVersionService.Table.STUDENTS, DEPARTMENTS, SEMESTERS);
+        
+        private final String sheetName;
+        private final ReferenceDataVersionService.Table table;
+        private final ImportSheet[] prerequisites;
+        
+        ImportSheet(String sheetName, ReferenceDataVersionService.Table table, ImportSheet... prerequisites) {
+            this.sheetName = sheetName;
+            this.table = table;
+            this.prerequisites = prerequisites;
+        }
+    }
+    
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Three sheets have no prerequisites, so more threads than that would sit idle
+        sheetExecutor = Executors.newFixedThreadPool(Math.max(sheetParallelism, 1), runnable -> {
+            Thread thread = new Thread(runnable, "excel-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        passwordHashingPool = new ForkJoinPool(passwordHashingParallelism > 0
+                ? passwordHashingParallelism : Runtime.getRuntime().availableProcessors());
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        sheetExecutor.shutdownNow();
+        passwordHashingPool.shutdownNow();
+    }
+    
+    /**
+     * Process an Excel file and import its data.
+     *
+     * Cell values are read up front, then each sheet is imported in its own transaction on the
+     * import pool. Sheets run as soon as the sheets they depend on have committed, so Users,
+     * Departments and Semesters run side by side, then Subjects and Students.
      * @param file The Excel file to import
      * @return ImportResult containing success/failure information
      * @throws IOException If file reading fails
      */
-    @Transactional
     public ImportResult processExcelFile(MultipartFile file) throws IOException {
         ImportResult result = new ImportResult();
         
@@ -82,49 +206,266 @@ public class ExcelImportService {
             return result;
         }
         
-        try (Workbook workbook = WorkbookFactory.create(file.getInputStream())) {
-            // Process each sheet based on entity type
-            
-            // 1. First import departments (they're needed for other entities)
-            Sheet deptsSheet = workbook.getSheet("Departments");
-            if (deptsSheet != null) {
-                processDepartmentsSheet(deptsSheet, result);
+        Timer.Sample importTimer = Timer.start(meterRegistry);
+        byte[] content = file.getBytes();
+        // A clean dry run of these exact bytes against the current data makes the existence queries redundant
+        boolean prevalidated = consumePrevalidation(hash(content));
+        result.setPrevalidated(prevalidated);
+        if (prevalidated) {
+            logger.info("Import of {} matches a clean dry run, skipping per-row existence checks", file.getOriginalFilename());
+        }
+        Map<ImportSheet, List<SheetRow>> sheets;
+        try {
+            sheets = readWorkbook(content);
+        } catch (Exception e) {
+            logger.error("Error processing Excel file", e);
+            result.addError("Error processing Excel file: " + e.getMessage());
+            recordImportMetrics(result, importTimer);
+            return result;
+        }
+        
+        if (sheets.isEmpty()) {
+            result.addError("No valid sheets found in the Excel file. Expected sheets: 'Departments', 'Semesters', 'Users', 'Subjects', 'Students'");
+        } else {
+            importSheets(sheets, result, prevalidated);
+        }
+        
+        recordImportMetrics(result, importTimer);
+        return result;
+    }
+    
+    /**
+     * Run the sheet imports following their dependencies and merge the per-sheet results
+     * @param sheets Rows of each sheet present in the workbook
+     * @param result The import result to merge into, in sheet declaration order
+     * @param prevalidated Whether a dry run already checked these rows against the database
+     */
+    private void importSheets(Map<ImportSheet, List<SheetRow>> sheets, ImportResult result, boolean prevalidated) {
+        Map<ImportSheet, CompletableFuture<ImportResult>> futures = new EnumMap<>(ImportSheet.class);
+        // Declaration order lists prerequisites first, so their futures already exist
+        for (ImportSheet importSheet : ImportSheet.values()) {
+            List<SheetRow> rows = sheets.get(importSheet);
+            if (rows == null) {
+                futures.put(importSheet, CompletableFuture.completedFuture(null));
+                continue;
             }
-            
-            // 2. Then import semesters (needed for students and subjects)
-            Sheet semestersSheet = workbook.getSheet("Semesters");
-            if (semestersSheet != null) {
-                processSemestersSheet(semestersSheet, result);
+            CompletableFuture<?>[] prerequisites = Arrays.stream(importSheet.prerequisites)
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(importSheet, CompletableFuture.allOf(prerequisites)
+                    .thenApplyAsync(ignored -> importSheet(importSheet, rows, prevalidated), sheetExecutor));
+        }
+        
+        for (ImportSheet importSheet : ImportSheet.values()) {
+            try {
+                ImportResult sheetResult = futures.get(importSheet).join();
+                if (sheetResult != null) {
+                    result.merge(sheetResult);
+                }
+            } catch (CompletionException e) {
+                logger.error("Error importing {} sheet", importSheet.sheetName, e.getCause());
+                result.addError("Error importing " + importSheet.sheetName + " sheet: " + e.getCause().getMessage());
             }
-            
-            // 3. Import users
-            Sheet usersSheet = workbook.getSheet("Users");
-            if (usersSheet != null) {
-                processUsersSheet(usersSheet, result);
+        }
+    }
+    
+    /**
+     * Import one sheet in its own transaction
+     * @param importSheet Which sheet the rows come from
+     * @param rows The sheet's rows, header first
+     * @param prevalidated Whether a dry run already checked these rows against the database
+     * @return The sheet's own result; counts are reset if its transaction rolled back
+     */
+    private ImportResult importSheet(ImportSheet importSheet, List<SheetRow> rows, boolean prevalidated) {
+        ImportResult sheetResult = new ImportResult();
+        Timer.Sample sheetTimer = Timer.start(meterRegistry);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                switch (importSheet) {
+                    case DEPARTMENTS -> processDepartmentsSheet(rows, sheetResult, prevalidated);
+                    case SEMESTERS -> processSemestersSheet(rows, sheetResult, prevalidated);
+                    case USERS -> processUsersSheet(rows, sheetResult, prevalidated);
+                    case SUBJECTS -> processSubjectsSheet(rows, sheetResult, prevalidated);
+                    case STUDENTS -> processStudentsSheet(rows, sheetResult, prevalidated);
+                }
+                // Invalidate reference-data ETags once this sheet's transaction commits
+                if (importSheet.table != null && sheetResult.getSuccessCount() > 0) {
+                    referenceDataVersionService.markChanged(importSheet.table);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Error importing {} sheet, rolled back", importSheet.sheetName, e);
+            // Nothing from this sheet was saved: report its rows as failed
+            ImportResult rolledBack = new ImportResult();
+            rolledBack.getErrors().addAll(sheetResult.getErrors());
+            rolledBack.getWarnings().addAll(sheetResult.getWarnings());
+            rolledBack.addError("Error importing " + importSheet.sheetName + " sheet, no rows were saved: " + e.getMessage());
+            rolledBack.setFailureCount(sheetResult.getSuccessCount() + sheetResult.getFailureCount());
+            return rolledBack;
+        } finally {
+            sheetTimer.stop(Timer.builder("estl.import.sheet.duration")
+                    .description("Time spent importing one sheet, including its commit")
+                    .tag("sheet", importSheet.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        return sheetResult;
+    }
+    
+    /**
+     * Validate a workbook without writing anything (dry run). Rows are checked against the names
+     * and identifiers already in the database, loaded once up front, plus the ones the workbook
+     * itself adds, with the same rules as the import.
+     *
+     * When nothing is reported, the file's hash is remembered: importing the same bytes afterwards
+     * skips the per-row existence queries, as long as the reference data has not changed since.
+     * @param content The uploaded file
+     * @param filename Original file name, used for the format check
+     * @param issues Receives each error and warning as soon as it is found
+     * @return Totals for the whole workbook
+     */
+    public ImportValidationSummaryDTO validateExcelFile(byte[] content, String filename, Consumer<ImportIssueDTO> issues) {
+        long start = System.nanoTime();
+        String fileHash = hash(content);
+        WorkbookValidator validator = new WorkbookValidator(issues);
+        
+        if (content.length == 0) {
+            validator.error(null, null, "Uploaded file is empty");
+        } else if (!isExcelFile(filename)) {
+            validator.error(null, null, "Uploaded file is not a valid Excel file (.xlsx or .xls)");
+        } else {
+            Map<ImportSheet, List<SheetRow>> sheets = null;
+            try {
+                sheets = readWorkbook(content);
+            } catch (Exception e) {
+                validator.error(null, null, "Error processing Excel file: " + e.getMessage());
             }
-            
-            // 4. Import subjects
-            Sheet subjectsSheet = workbook.getSheet("Subjects");
-            if (subjectsSheet != null) {
-                processSubjectsSheet(subjectsSheet, result);
+            if (sheets != null && sheets.isEmpty()) {
+                validator.error(null, null, "No valid sheets found in the Excel file. Expected sheets: 'Departments', 'Semesters', 'Users', 'Subjects', 'Students'");
+            } else if (sheets != null) {
+                // Read before the reference sets, so a change made while loading them is not missed
+                String referenceVersion = referenceDataVersionService.eTag(PREVALIDATION_TABLES);
+                validator.loadReferenceData();
+                for (ImportSheet importSheet : ImportSheet.values()) {
+                    List<SheetRow> rows = sheets.get(importSheet);
+                    if (rows != null) {
+                        validator.validate(importSheet, rows);
+                    }
+                }
+                if (validator.errorCount == 0 && validator.warningCount == 0) {
+                    prevalidatedFiles.put(fileHash, new Prevalidation(referenceVersion,
+                            System.currentTimeMillis() + prevalidationTtlMinutes * 60_000L));
+                }
             }
-            
-            // 5. Import students
-            Sheet studentsSheet = workbook.getSheet("Students");
-            if (studentsSheet != null) {
-                processStudentsSheet(studentsSheet, result);
+        }
+        
+        ImportValidationSummaryDTO summary = new ImportValidationSummaryDTO();
+        summary.setFileHash(fileHash);
+        summary.setRowsChecked(validator.rowsChecked);
+        summary.setErrorCount(validator.errorCount);
+        summary.setWarningCount(validator.warningCount);
+        summary.setValid(validator.errorCount == 0);
+        summary.setImportPrevalidated(prevalidatedFiles.containsKey(fileHash));
+        summary.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        logger.info("Dry-run import of {}: {} rows, {} errors, {} warnings in {} ms", filename,
+                validator.rowsChecked, validator.errorCount, validator.warningCount, summary.getDurationMs());
+        return summary;
+    }
+    
+    /**
+     * Take the clean dry run recorded for a file, if it is still valid
+     * @param fileHash SHA-256 of the uploaded bytes
+     * @return true if the import can skip its existence checks
+     */
+    private boolean consumePrevalidation(String fileHash) {
+        Prevalidation prevalidation = prevalidatedFiles.remove(fileHash);
+        return prevalidation != null
+                && prevalidation.expiresAt > System.currentTimeMillis()
+                && prevalidation.referenceVersion.equals(referenceDataVersionService.eTag(PREVALIDATION_TABLES));
+    }
+    
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * Copy the cell values of every known sheet. POI workbooks are not thread-safe, so this is
+     * done before sheets are handed to other threads
+     * @param content The workbook bytes
+     * @return Rows of each sheet present in the workbook
+     * @throws IOException If the file cannot be read as a workbook
+     */
+    private Map<ImportSheet, List<SheetRow>> readWorkbook(byte[] content) throws IOException {
+        Map<ImportSheet, List<SheetRow>> sheets = new EnumMap<>(ImportSheet.class);
+        try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(content))) {
+            for (ImportSheet importSheet : ImportSheet.values()) {
+                Sheet sheet = workbook.getSheet(importSheet.sheetName);
+                if (sheet != null) {
+                    sheets.put(importSheet, readRows(sheet));
+                }
             }
-            
-            if (deptsSheet == null && semestersSheet == null && usersSheet == null && 
-                subjectsSheet == null && studentsSheet == null) {
-                result.addError("No valid sheets found in the Excel file. Expected sheets: 'Departments', 'Semesters', 'Users', 'Subjects', 'Students'");
+        }
+        return sheets;
+    }
+    
+    /**
+     * Copy the cell values of a sheet, keeping row numbers for error messages
+     * @param sheet The sheet to read
+     * @return One entry per physical row, header first
+     */
+    private List<SheetRow> readRows(Sheet sheet) {
+        List<SheetRow> rows = new ArrayList<>(sheet.getPhysicalNumberOfRows());
+        for (Row row : sheet) {
+            String[] cells = new String[Math.max(row.getLastCellNum(), 0)];
+            for (int i = 0; i < cells.length; i++) {
+                Cell cell = row.getCell(i);
+                cells[i] = cell != null ? getCellValueAsString(cell) : null;
             }
-        } catch (Exception e) {
-            logger.error("Error processing Excel file", e);
-            result.addError("Error processing Excel file: " + e.getMessage());
+            rows.add(new SheetRow(row.getRowNum(), cells));
         }
+        return rows;
+    }
+    
+    /**
+     * Record imported/failed row counts, total duration and rows per second of one import
+     * @param result The finished import result
+     * @param importTimer Sample started before the workbook was opened
+     */
+    private void recordImportMetrics(ImportResult result, Timer.Sample importTimer) {
+        long durationNanos = importTimer.stop(Timer.builder("estl.import.duration")
+                .description("Time spent importing one Excel workbook")
+                .register(meterRegistry));
         
-        return result;
+        countImportedRows("departments", result.getDepartmentsImported());
+        countImportedRows("semesters", result.getSemestersImported());
+        countImportedRows("users", result.getUsersImported());
+        countImportedRows("subjects", result.getSubjectsImported());
+        countImportedRows("students", result.getStudentsImported());
+        Counter.builder("estl.import.rows")
+                .tag("sheet", "all")
+                .tag("outcome", "failed")
+                .register(meterRegistry)
+                .increment(result.getFailureCount());
+        
+        int rows = result.getSuccessCount() + result.getFailureCount();
+        if (rows > 0 && durationNanos > 0) {
+            DistributionSummary.builder("estl.import.throughput")
+                    .description("Rows processed per second by one Excel import")
+                    .baseUnit("rows/s")
+                    .register(meterRegistry)
+                    .record(rows / (durationNanos / 1_000_000_000.0));
+        }
+    }
+    
+    private void countImportedRows(String sheet, int count) {
+        Counter.builder("estl.import.rows")
+                .tag("sheet", sheet)
+                .tag("outcome", "imported")
+                .register(meterRegistry)
+                .increment(count);
     }
     
     /**
@@ -133,7 +474,10 @@ public class ExcelImportService {
      * @return true if the file is a valid Excel file
      */
     private boolean isExcelFile(MultipartFile file) {
-        String filename = file.getOriginalFilename();
+        return isExcelFile(file.getOriginalFilename());
+    }
+    
+    private boolean isExcelFile(String filename) {
         if (filename == null || filename.isBlank()) {
             return false;
         }
@@ -146,9 +490,10 @@ public class ExcelImportService {
      * Process the Departments sheet
      * @param sheet The Excel sheet containing department data
      * @param result The import result object to update
+     * @param prevalidated Whether a dry run already checked these rows against the database
      */
-    private void processDepartmentsSheet(Sheet sheet, ImportResult result) {
-        Iterator<Row> rowIterator = sheet.iterator();
+    private void processDepartmentsSheet(List<SheetRow> sheet, ImportResult result, boolean prevalidated) {
+        Iterator<SheetRow> rowIterator = sheet.iterator();
         
         // Skip the header row
         if (rowIterator.hasNext()) {
@@ -159,16 +504,15 @@ public class ExcelImportService {
         }
         
         while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
-            Cell nameCell = row.getCell(0); // First column should be name
-            
-            if (nameCell == null) {
+            SheetRow row = rowIterator.next();
+            // First column should be name
+            if (!row.hasCell(0)) {
                 result.addError("Department name is missing on row " + row.getRowNum());
                 result.incrementFailure();
                 continue;
             }
             
-            String name = getCellValueAsString(nameCell);
+            String name = row.getString(0);
             if (name.isBlank()) {
                 result.addError("Department name is blank on row " + row.getRowNum());
                 result.incrementFailure();
@@ -177,8 +521,7 @@ public class ExcelImportService {
             
             try {
                 // Check if department already exists
-                Optional<Department> existingDept = departmentRepository.findByName(name);
-                if (existingDept.isPresent()) {
+                if (!prevalidated && departmentRepository.findByName(name).isPresent()) {
                     result.addWarning("Department with name '" + name + "' already exists, skipping");
                     continue;
                 }
@@ -203,9 +546,10 @@ public class ExcelImportService {
      * Process the Semesters sheet
      * @param sheet The Excel sheet containing semester data
      * @param result The import result object to update
+     * @param prevalidated Whether a dry run already checked these rows against the database
      */
-    private void processSemestersSheet(Sheet sheet, ImportResult result) {
-        Iterator<Row> rowIterator = sheet.iterator();
+    private void processSemestersSheet(List<SheetRow> sheet, ImportResult result, boolean prevalidated) {
+        Iterator<SheetRow> rowIterator = sheet.iterator();
         
         // Skip the header row
         if (rowIterator.hasNext()) {
@@ -216,16 +560,15 @@ public class ExcelImportService {
         }
         
         while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
-            Cell nameCell = row.getCell(0); // First column should be name
-            
-            if (nameCell == null) {
+            SheetRow row = rowIterator.next();
+            // First column should be name
+            if (!row.hasCell(0)) {
                 result.addError("Semester name is missing on row " + row.getRowNum());
                 result.incrementFailure();
                 continue;
             }
             
-            String name = getCellValueAsString(nameCell);
+            String name = row.getString(0);
             if (name.isBlank()) {
                 result.addError("Semester name is blank on row " + row.getRowNum());
                 result.incrementFailure();
@@ -234,8 +577,7 @@ public class ExcelImportService {
             
             try {
                 // Check if semester already exists
-                Optional<Semester> existingSemester = findSemesterByName(name);
-                if (existingSemester.isPresent()) {
+                if (!prevalidated && findSemesterByName(name).isPresent()) {
                     result.addWarning("Semester with name '" + name + "' already exists, skipping");
                     continue;
                 }
@@ -260,12 +602,13 @@ public class ExcelImportService {
      * Process the Users sheet
      * @param sheet The Excel sheet containing user data
      * @param result The import result object to update
+     * @param prevalidated Whether a dry run already checked these rows against the database
      */
-    private void processUsersSheet(Sheet sheet, ImportResult result) {
-        Iterator<Row> rowIterator = sheet.iterator();
+    private void processUsersSheet(List<SheetRow> sheet, ImportResult result, boolean prevalidated) {
+        Iterator<SheetRow> rowIterator = sheet.iterator();
         
         // Get header row to determine column indices
-        Row headerRow = rowIterator.hasNext() ? rowIterator.next() : null;
+        SheetRow headerRow = rowIterator.hasNext() ? rowIterator.next() : null;
         if (headerRow == null) {
             result.addError("Users sheet is empty");
             return;
@@ -274,45 +617,66 @@ public class ExcelImportService {
         int usernameIdx = findColumnIndex(headerRow, "username");
         int emailIdx = findColumnIndex(headerRow, "email");
         int passwordIdx = findColumnIndex(headerRow, "password");
+        // Optional: BCrypt hashes exported from another system, stored as they are
+        int passwordHashIdx = findColumnIndex(headerRow, "passwordHash");
         int rolesIdx = findColumnIndex(headerRow, "roles");
         
-        if (usernameIdx == -1 || emailIdx == -1 || passwordIdx == -1) {
-            result.addError("Users sheet must have 'username', 'email', and 'password' columns");
+        if (usernameIdx == -1 || emailIdx == -1 || (passwordIdx == -1 && passwordHashIdx == -1)) {
+            result.addError("Users sheet must have 'username', 'email', and 'password' (or 'passwordHash') columns");
             return;
         }
         
+        // First validate every row, then hash all plain passwords at once, then insert
+        List<User> users = new ArrayList<>();
+        List<User> usersToHash = new ArrayList<>();
+        List<String> plainPasswords = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        
         while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
+            SheetRow row = rowIterator.next();
             
-            String username = getCellValueAsString(row.getCell(usernameIdx));
-            String email = getCellValueAsString(row.getCell(emailIdx));
-            String password = getCellValueAsString(row.getCell(passwordIdx));
-            String roleNames = rolesIdx != -1 ? getCellValueAsString(row.getCell(rolesIdx)) : "";
+            String username = row.getString(usernameIdx);
+            String email = row.getString(emailIdx);
+            String password = row.getString(passwordIdx);
+            String passwordHash = row.getString(passwordHashIdx);
+            String roleNames = rolesIdx != -1 ? row.getString(rolesIdx) : "";
             
-            if (username.isBlank() || email.isBlank() || password.isBlank()) {
+            if (username.isBlank() || email.isBlank() || (password.isBlank() && passwordHash.isBlank())) {
                 result.addError("User on row " + row.getRowNum() + " is missing required fields");
                 result.incrementFailure();
                 continue;
             }
             
+            if (!passwordHash.isBlank() && !BCRYPT_HASH.matcher(passwordHash).matches()) {
+                result.addError("User on row " + row.getRowNum() + " has a passwordHash that is not a BCrypt hash");
+                result.incrementFailure();
+                continue;
+            }
+            
             try {
-                // Check if user already exists
-                if (userRepository.existsByUsername(username)) {
+                // Check if user already exists, in the database or earlier in this sheet
+                if (usernames.contains(username) || (!prevalidated && userRepository.existsByUsername(username))) {
                     result.addWarning("User with username '" + username + "' already exists, skipping");
                     continue;
                 }
                 
-                if (userRepository.existsByEmail(email)) {
+                if (emails.contains(email) || (!prevalidated && userRepository.existsByEmail(email))) {
                     result.addWarning("User with email '" + email + "' already exists, skipping");
                     continue;
                 }
                 
-                // Create and save new user
+                // Create the new user; saved with the others once passwords are hashed
                 User user = new User();
                 user.setUsername(username);
                 user.setEmail(email);
-                user.setPassword(passwordEncoder.encode(password));
                 user.setEnabled(true);
+                if (passwordHash.isBlank()) {
+                    usersToHash.add(user);
+                    plainPasswords.add(password);
+                } else {
+                    user.setPassword(passwordHash);
+                }
                 
                 // Process roles if provided
                 if (!roleNames.isBlank()) {
@@ -322,29 +686,69 @@ public class ExcelImportService {
                     }
                 }
                 
-                userRepository.save(user);
-                
-                result.incrementSuccess();
-                result.incrementUserCount();
-                result.addSuccessMessage("Imported user: " + username);
+                usernames.add(username);
+                emails.add(email);
+                users.add(user);
             } catch (Exception e) {
                 logger.error("Error importing user", e);
                 result.addError("Error importing user '" + username + "': " + e.getMessage());
                 result.incrementFailure();
             }
         }
+        
+        if (users.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<String> hashes = hashPasswords(plainPasswords);
+            for (int i = 0; i < usersToHash.size(); i++) {
+                usersToHash.get(i).setPassword(hashes.get(i));
+            }
+            userRepository.saveAll(users);
+        } catch (Exception e) {
+            logger.error("Error importing users", e);
+            result.addError("Error importing " + users.size() + " users: " + e.getMessage());
+            result.setFailureCount(result.getFailureCount() + users.size());
+            return;
+        }
+        
+        for (User user : users) {
+            result.incrementSuccess();
+            result.incrementUserCount();
+            result.addSuccessMessage("Imported user: " + user.getUsername());
+        }
+    }
+    
+    /**
+     * BCrypt the given passwords on the hashing pool. Each hash costs around 100 ms of CPU by
+     * design, so a large staff sheet is hashed across all cores instead of one row at a time
+     * @param passwords Plain passwords
+     * @return Hashes in the same order
+     */
+    private List<String> hashPasswords(List<String> passwords) throws InterruptedException, ExecutionException {
+        List<Callable<String>> tasks = new ArrayList<>(passwords.size());
+        for (String password : passwords) {
+            tasks.add(() -> passwordEncoder.encode(password));
+        }
+        List<String> hashes = new ArrayList<>(passwords.size());
+        for (Future<String> hash : passwordHashingPool.invokeAll(tasks)) {
+            hashes.add(hash.get());
+        }
+        return hashes;
     }
     
     /**
      * Process the Subjects sheet
      * @param sheet The Excel sheet containing subject data
      * @param result The import result object to update
+     * @param prevalidated Whether a dry run already checked these rows against the database
      */
-    private void processSubjectsSheet(Sheet sheet, ImportResult result) {
-        Iterator<Row> rowIterator = sheet.iterator();
+    private void processSubjectsSheet(List<SheetRow> sheet, ImportResult result, boolean prevalidated) {
+        Iterator<SheetRow> rowIterator = sheet.iterator();
         
         // Get header row to determine column indices
-        Row headerRow = rowIterator.hasNext() ? rowIterator.next() : null;
+        SheetRow headerRow = rowIterator.hasNext() ? rowIterator.next() : null;
         if (headerRow == null) {
             result.addError("Subjects sheet is empty");
             return;
@@ -361,12 +765,12 @@ public class ExcelImportService {
         }
         
         while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
+            SheetRow row = rowIterator.next();
             
-            String code = getCellValueAsString(row.getCell(codeIdx));
-            String name = getCellValueAsString(row.getCell(nameIdx));
-            String departmentName = getCellValueAsString(row.getCell(departmentIdx));
-            String semesterName = getCellValueAsString(row.getCell(semesterIdx));
+            String code = row.getString(codeIdx);
+            String name = row.getString(nameIdx);
+            String departmentName = row.getString(departmentIdx);
+            String semesterName = row.getString(semesterIdx);
             
             if (code.isBlank() || name.isBlank() || departmentName.isBlank() || semesterName.isBlank()) {
                 result.addError("Subject on row " + row.getRowNum() + " is missing required fields");
@@ -392,7 +796,7 @@ public class ExcelImportService {
                 }
                 
                 // Check if subject already exists
-                if (subjectRepository.existsByCode(code)) {
+                if (!prevalidated && subjectRepository.existsByCode(code)) {
                     result.addWarning("Subject with code '" + code + "' already exists, skipping");
                     continue;
                 }
@@ -421,12 +825,13 @@ public class ExcelImportService {
      * Process the Students sheet
      * @param sheet The Excel sheet containing student data
      * @param result The import result object to update
+     * @param prevalidated Whether a dry run already checked these rows against the database
      */
-    private void processStudentsSheet(Sheet sheet, ImportResult result) {
-        Iterator<Row> rowIterator = sheet.iterator();
+    private void processStudentsSheet(List<SheetRow> sheet, ImportResult result, boolean prevalidated) {
+        Iterator<SheetRow> rowIterator = sheet.iterator();
         
         // Get header row to determine column indices
-        Row headerRow = rowIterator.hasNext() ? rowIterator.next() : null;
+        SheetRow headerRow = rowIterator.hasNext() ? rowIterator.next() : null;
         if (headerRow == null) {
             result.addError("Students sheet is empty");
             return;
@@ -445,13 +850,13 @@ public class ExcelImportService {
         }
         
         while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
+            SheetRow row = rowIterator.next();
             
-            String studentId = getCellValueAsString(row.getCell(studentIdIdx));
-            String fullName = getCellValueAsString(row.getCell(fullNameIdx));
-            String email = getCellValueAsString(row.getCell(emailIdx));
-            String departmentName = getCellValueAsString(row.getCell(departmentIdx));
-            String semesterName = getCellValueAsString(row.getCell(semesterIdx));
+            String studentId = row.getString(studentIdIdx);
+            String fullName = row.getString(fullNameIdx);
+            String email = row.getString(emailIdx);
+            String departmentName = row.getString(departmentIdx);
+            String semesterName = row.getString(semesterIdx);
             
             if (studentId.isBlank() || fullName.isBlank() || email.isBlank() || 
                 departmentName.isBlank() || semesterName.isBlank()) {
@@ -478,12 +883,12 @@ public class ExcelImportService {
                 }
                 
                 // Check if student already exists
-                if (studentRepository.existsByStudentId(studentId)) {
+                if (!prevalidated && studentRepository.existsByStudentId(studentId)) {
                     result.addWarning("Student with ID '" + studentId + "' already exists, skipping");
                     continue;
                 }
                 
-                if (studentRepository.existsByEmail(email)) {
+                if (!prevalidated && studentRepository.existsByEmail(email)) {
                     result.addWarning("Student with email '" + email + "' already exists, skipping");
                     continue;
                 }
@@ -497,6 +902,7 @@ public class ExcelImportService {
                 student.setSemester(semester.get());
                 
                 studentRepository.save(student);
+                studentSearchIndex.index(student);
                 
                 result.incrementSuccess();
                 result.incrementStudentCount();
@@ -541,10 +947,9 @@ public class ExcelImportService {
      * @param columnName The name of the column to find
      * @return The index of the column, or -1 if not found
      */
-    private int findColumnIndex(Row headerRow, String columnName) {
-        for (int i = 0; i < headerRow.getLastCellNum(); i++) {
-            Cell cell = headerRow.getCell(i);
-            if (cell != null && columnName.equalsIgnoreCase(getCellValueAsString(cell))) {
+    private int findColumnIndex(SheetRow headerRow, String columnName) {
+        for (int i = 0; i < headerRow.getCellCount(); i++) {
+            if (headerRow.hasCell(i) && columnName.equalsIgnoreCase(headerRow.getString(i))) {
                 return i;
             }
         }
@@ -592,4 +997,260 @@ public class ExcelImportService {
         Semester semester = semesterRepository.findByName(name);
         return Optional.ofNullable(semester);
     }
+    
+    /**
+     * Cell values of one spreadsheet row; missing cells are null
+     */
+    private static final class SheetRow {
+        private final int rowNum;
+        private final String[] cells;
+        
+        private SheetRow(int rowNum, String[] cells) {
+            this.rowNum = rowNum;
+            this.cells = cells;
+        }
+        
+        int getRowNum() {
+            return rowNum;
+        }
+        
+        int getCellCount() {
+            return cells.length;
+        }
+        
+        boolean hasCell(int index) {
+            return index >= 0 && index < cells.length && cells[index] != null;
+        }
+        
+        /**
+         * @return The cell value, or an empty string for a missing cell
+         */
+        String getString(int index) {
+            return hasCell(index) ? cells[index] : "";
+        }
+    }
+    
+    /**
+     * A clean dry run: the reference data version it was checked against and when it expires
+     */
+    private static final class Prevalidation {
+        private final String referenceVersion;
+        private final long expiresAt;
+        
+        private Prevalidation(String referenceVersion, long expiresAt) {
+            this.referenceVersion = referenceVersion;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    /**
+     * Dry-run checks for one workbook, mirroring the import rules without any per-row query.
+     * Keys are lower-cased because MySQL's default collation compares them case-insensitively,
+     * so a row the import would skip is never reported as new
+     */
+    private final class WorkbookValidator {
+        private final Consumer<ImportIssueDTO> issues;
+        private Set<String> departments;
+        private Set<String> semesters;
+        private Set<String> roles;
+        private Set<String> usernames;
+        private Set<String> userEmails;
+        private Set<String> subjectCodes;
+        private Set<String> studentIds;
+        private Set<String> studentEmails;
+        private int rowsChecked;
+        private int errorCount;
+        private int warningCount;
+        
+        private WorkbookValidator(Consumer<ImportIssueDTO> issues) {
+            this.issues = issues;
+        }
+        
+        void loadReferenceData() {
+            departments = keys(departmentRepository.findAllNames());
+            semesters = keys(semesterRepository.findAllNames());
+            roles = keys(roleRepository.findAllNames());
+            usernames = keys(userRepository.findAllUsernames());
+            userEmails = keys(userRepository.findAllEmails());
+            subjectCodes = keys(subjectRepository.findAllCodes());
+            studentIds = keys(studentRepository.findAllStudentIds());
+            studentEmails = keys(studentRepository.findAllEmails());
+        }
+        
+        /**
+         * Check one sheet; names it adds count as existing for the sheets that depend on it
+         */
+        void validate(ImportSheet importSheet, List<SheetRow> rows) {
+            if (rows.isEmpty()) {
+                error(importSheet.sheetName, null, importSheet.sheetName + " sheet is empty");
+                return;
+            }
+            SheetRow headerRow = rows.get(0);
+            List<SheetRow> dataRows = rows.subList(1, rows.size());
+            rowsChecked += dataRows.size();
+            switch (importSheet) {
+                case DEPARTMENTS -> validateNames(importSheet.sheetName, "Department", dataRows, departments);
+                case SEMESTERS -> validateNames(importSheet.sheetName, "Semester", dataRows, semesters);
+                case USERS -> validateUsers(headerRow, dataRows);
+                case SUBJECTS -> validateSubjects(headerRow, dataRows);
+                case STUDENTS -> validateStudents(headerRow, dataRows);
+            }
+        }
+        
+        private void validateNames(String sheet, String label, List<SheetRow> rows, Set<String> existing) {
+            for (SheetRow row : rows) {
+                if (!row.hasCell(0)) {
+                    error(sheet, row, label + " name is missing on row " + row.getRowNum());
+                    continue;
+                }
+                String name = row.getString(0);
+                if (name.isBlank()) {
+                    error(sheet, row, label + " name is blank on row " + row.getRowNum());
+                } else if (!existing.add(key(name))) {
+                    warning(sheet, row, label + " with name '" + name + "' already exists, skipping");
+                }
+            }
+        }
+        
+        private void validateUsers(SheetRow headerRow, List<SheetRow> rows) {
+            String sheet = ImportSheet.USERS.sheetName;
+            int usernameIdx = findColumnIndex(headerRow, "username");
+            int emailIdx = findColumnIndex(headerRow, "email");
+            int passwordIdx = findColumnIndex(headerRow, "password");
+            int passwordHashIdx = findColumnIndex(headerRow, "passwordHash");
+            int rolesIdx = findColumnIndex(headerRow, "roles");
+            
+            if (usernameIdx == -1 || emailIdx == -1 || (passwordIdx == -1 && passwordHashIdx == -1)) {
+                error(sheet, null, "Users sheet must have 'username', 'email', and 'password' (or 'passwordHash') columns");
+                return;
+            }
+            
+            for (SheetRow row : rows) {
+                String username = row.getString(usernameIdx);
+                String email = row.getString(emailIdx);
+                String password = row.getString(passwordIdx);
+                String passwordHash = row.getString(passwordHashIdx);
+                String roleNames = rolesIdx != -1 ? row.getString(rolesIdx) : "";
+                
+                if (username.isBlank() || email.isBlank() || (password.isBlank() && passwordHash.isBlank())) {
+                    error(sheet, row, "User on row " + row.getRowNum() + " is missing required fields");
+                    continue;
+                }
+                if (!passwordHash.isBlank() && !BCRYPT_HASH.matcher(passwordHash).matches()) {
+                    error(sheet, row, "User on row " + row.getRowNum() + " has a passwordHash that is not a BCrypt hash");
+                    continue;
+                }
+                if (usernames.contains(key(username))) {
+                    warning(sheet, row, "User with username '" + username + "' already exists, skipping");
+                    continue;
+                }
+                if (userEmails.contains(key(email))) {
+                    warning(sheet, row, "User with email '" + email + "' already exists, skipping");
+                    continue;
+                }
+                usernames.add(key(username));
+                userEmails.add(key(email));
+                
+                for (String roleName : roleNames.split(",")) {
+                    String trimmedName = roleName.trim();
+                    if (!trimmedName.isBlank() && !roles.contains(key(trimmedName))) {
+                        warning(sheet, row, "Role '" + trimmedName + "' not found for user '" + username + "', it will be ignored");
+                    }
+                }
+            }
+        }
+        
+        private void validateSubjects(SheetRow headerRow, List<SheetRow> rows) {
+            String sheet = ImportSheet.SUBJECTS.sheetName;
+            int codeIdx = findColumnIndex(headerRow, "code");
+            int nameIdx = findColumnIndex(headerRow, "name");
+            int departmentIdx = findColumnIndex(headerRow, "department");
+            int semesterIdx = findColumnIndex(headerRow, "semester");
+            
+            if (codeIdx == -1 || nameIdx == -1 || departmentIdx == -1 || semesterIdx == -1) {
+                error(sheet, null, "Subjects sheet must have 'code', 'name', 'department', and 'semester' columns");
+                return;
+            }
+            
+            for (SheetRow row : rows) {
+                String code = row.getString(codeIdx);
+                String name = row.getString(nameIdx);
+                String departmentName = row.getString(departmentIdx);
+                String semesterName = row.getString(semesterIdx);
+                
+                if (code.isBlank() || name.isBlank() || departmentName.isBlank() || semesterName.isBlank()) {
+                    error(sheet, row, "Subject on row " + row.getRowNum() + " is missing required fields");
+                } else if (!departments.contains(key(departmentName))) {
+                    error(sheet, row, "Department '" + departmentName + "' not found for subject: " + name);
+                } else if (!semesters.contains(key(semesterName))) {
+                    error(sheet, row, "Semester '" + semesterName + "' not found for subject: " + name);
+                } else if (!subjectCodes.add(key(code))) {
+                    warning(sheet, row, "Subject with code '" + code + "' already exists, skipping");
+                }
+            }
+        }
+        
+        private void validateStudents(SheetRow headerRow, List<SheetRow> rows) {
+            String sheet = ImportSheet.STUDENTS.sheetName;
+            int studentIdIdx = findColumnIndex(headerRow, "studentId");
+            int fullNameIdx = findColumnIndex(headerRow, "fullName");
+            int emailIdx = findColumnIndex(headerRow, "email");
+            int departmentIdx = findColumnIndex(headerRow, "department");
+            int semesterIdx = findColumnIndex(headerRow, "semester");
+            
+            if (studentIdIdx == -1 || fullNameIdx == -1 || emailIdx == -1 || 
+                departmentIdx == -1 || semesterIdx == -1) {
+                error(sheet, null, "Students sheet must have 'studentId', 'fullName', 'email', 'department', and 'semester' columns");
+                return;
+            }
+            
+            for (SheetRow row : rows) {
+                String studentId = row.getString(studentIdIdx);
+                String fullName = row.getString(fullNameIdx);
+                String email = row.getString(emailIdx);
+                String departmentName = row.getString(departmentIdx);
+                String semesterName = row.getString(semesterIdx);
+                
+                if (studentId.isBlank() || fullName.isBlank() || email.isBlank() || 
+                    departmentName.isBlank() || semesterName.isBlank()) {
+                    error(sheet, row, "Student on row " + row.getRowNum() + " is missing required fields");
+                } else if (!departments.contains(key(departmentName))) {
+                    error(sheet, row, "Department '" + departmentName + "' not found for student: " + fullName);
+                } else if (!semesters.contains(key(semesterName))) {
+                    error(sheet, row, "Semester '" + semesterName + "' not found for student: " + fullName);
+                } else if (studentIds.contains(key(studentId))) {
+                    warning(sheet, row, "Student with ID '" + studentId + "' already exists, skipping");
+                } else if (studentEmails.contains(key(email))) {
+                    warning(sheet, row, "Student with email '" + email + "' already exists, skipping");
+                } else {
+                    studentIds.add(key(studentId));
+                    studentEmails.add(key(email));
+                }
+            }
+        }
+        
+        void error(String sheet, SheetRow row, String message) {
+            errorCount++;
+            issues.accept(new ImportIssueDTO(ImportIssueDTO.ERROR, sheet, row != null ? row.getRowNum() : null, message));
+        }
+        
+        void warning(String sheet, SheetRow row, String message) {
+            warningCount++;
+            issues.accept(new ImportIssueDTO(ImportIssueDTO.WARNING, sheet, row != null ? row.getRowNum() : null, message));
+        }
+        
+        private String key(String value) {
+            return value.toLowerCase(Locale.ROOT);
+        }
+        
+        private Set<String> keys(List<String> values) {
+            Set<String> keys = new HashSet<>(values.size() * 2);
+            for (String value : values) {
+                if (value != null) {
+                    keys.add(key(value));
+                }
+            }
+            return keys;
+        }
+    }
 }
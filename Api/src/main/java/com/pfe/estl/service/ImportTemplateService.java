@@ -0,0 +1,236 @@
+package com.pfe.estl.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.pfe.estl.model.Department;
+import com.pfe.estl.model.Role;
+import com.pfe.estl.model.Semester;
+import com.pfe.estl.repository.DepartmentRepository;
+import com.pfe.estl.repository.RoleRepository;
+import com.pfe.estl.repository.SemesterRepository;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+/**
+ * Builds the Excel import template and keeps it as ready-to-send bytes.
+ *
+ * The template lists the existing departments, semesters and roles on a Reference sheet,
+ * so it is only rebuilt when one of those tables changes (tracked by
+ * {@link ReferenceDataVersionService}). Every other download reuses the cached bytes.
+ */
+@Service
+public class ImportTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportTemplateService.class);
+
+    private static final Table[] DEPENDENT_TABLES = {Table.DEPARTMENTS, Table.SEMESTERS, Table.ROLES};
+
+    private final DepartmentRepository departmentRepository;
+    private final SemesterRepository semesterRepository;
+    private final RoleRepository roleRepository;
+    private final ReferenceDataVersionService referenceDataVersionService;
+
+    private volatile Template cached;
+
+    public ImportTemplateService(DepartmentRepository departmentRepository,
+                                 SemesterRepository semesterRepository,
+                                 RoleRepository roleRepository,
+                                 ReferenceDataVersionService referenceDataVersionService) {
+        this.departmentRepository = departmentRepository;
+        this.semesterRepository = semesterRepository;
+        this.roleRepository = roleRepository;
+        this.referenceDataVersionService = referenceDataVersionService;
+    }
+
+    /**
+     * ETag of the template as it would be served now; cheap enough for conditional requests
+     */
+    public String eTag() {
+        return referenceDataVersionService.eTag(DEPENDENT_TABLES);
+    }
+
+    /**
+     * Last-Modified time of the template as it would be served now
+     */
+    public long lastModified() {
+        return referenceDataVersionService.lastModified(DEPENDENT_TABLES);
+    }
+
+    /**
+     * Get the current template, building it if the reference data changed since the last build
+     * @return The template bytes and the ETag they were built for
+     */
+    public Template getTemplate() {
+        Template template = cached;
+        String eTag = eTag();
+        if (template != null && template.eTag.equals(eTag)) {
+            return template;
+        }
+        synchronized (this) {
+            // Concurrent downloads after a change wait for one build instead of each building their own
+            template = cached;
+            eTag = eTag();
+            if (template == null || !template.eTag.equals(eTag)) {
+                template = new Template(buildTemplate(), eTag, lastModified());
+                cached = template;
+            }
+            return template;
+        }
+    }
+
+    private byte[] buildTemplate() {
+        long start = System.nanoTime();
+        try (Workbook workbook = new XSSFWorkbook()) {
+            // Create Users sheet
+            Sheet usersSheet = workbook.createSheet("Users");
+            createHeaderRow(usersSheet, new String[]{"username", "email", "password", "roles"});
+            addExampleRow(usersSheet, new String[]{"john.doe", "john.doe@example.com", "password123", "ADMIN,USER"});
+
+            // Create Departments sheet
+            Sheet deptsSheet = workbook.createSheet("Departments");
+            createHeaderRow(deptsSheet, new String[]{"name"});
+            addExampleRow(deptsSheet, new String[]{"Computer Science"});
+            addExampleRow(deptsSheet, new String[]{"Electrical Engineering"});
+
+            // Create Semesters sheet
+            Sheet semestersSheet = workbook.createSheet("Semesters");
+            createHeaderRow(semestersSheet, new String[]{"name"});
+            addExampleRow(semestersSheet, new String[]{"Fall 2025"});
+            addExampleRow(semestersSheet, new String[]{"Spring 2026"});
+
+            // Create Subjects sheet
+            Sheet subjectsSheet = workbook.createSheet("Subjects");
+            createHeaderRow(subjectsSheet, new String[]{"code", "name", "department", "semester"});
+            addExampleRow(subjectsSheet, new String[]{"CS101", "Introduction to Programming", "Computer Science", "Fall 2025"});
+            addExampleRow(subjectsSheet, new String[]{"EE201", "Circuit Analysis", "Electrical Engineering", "Spring 2026"});
+
+            // Create Students sheet
+            Sheet studentsSheet = workbook.createSheet("Students");
+            createHeaderRow(studentsSheet, new String[]{"studentId", "fullName", "email", "department", "semester"});
+            addExampleRow(studentsSheet, new String[]{"STU001", "Jane Smith", "jane.smith@example.com", "Computer Science", "Fall 2025"});
+            addExampleRow(studentsSheet, new String[]{"STU002", "Alex Johnson", "alex.johnson@example.com", "Electrical Engineering", "Spring 2026"});
+
+            // Existing values the other sheets can refer to; not imported
+            Sheet referenceSheet = workbook.createSheet("Reference");
+            createHeaderRow(referenceSheet, new String[]{"existing departments", "existing semesters", "existing roles"});
+            fillColumn(referenceSheet, 0, departmentRepository.findAll(Sort.by("name")).stream().map(Department::getName).toList());
+            fillColumn(referenceSheet, 1, semesterRepository.findAll(Sort.by("name")).stream().map(Semester::getName).toList());
+            fillColumn(referenceSheet, 2, roleRepository.findAll(Sort.by("name")).stream().map(Role::getName).toList());
+
+            // Auto-size all columns for better readability
+            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+                Sheet sheet = workbook.getSheetAt(i);
+                int numColumns = sheet.getRow(0).getPhysicalNumberOfCells();
+                for (int j = 0; j < numColumns; j++) {
+                    sheet.autoSizeColumn(j);
+                }
+            }
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            workbook.write(outputStream);
+            logger.info("Import template built in {} ms", (System.nanoTime() - start) / 1_000_000);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build import template", e);
+        }
+    }
+
+    /**
+     * Creates a header row in the specified sheet with the given column names
+     * @param sheet The sheet to add the header to
+     * @param headers Array of header column names
+     */
+    private void createHeaderRow(Sheet sheet, String[] headers) {
+        Row headerRow = sheet.createRow(0);
+        CellStyle headerStyle = sheet.getWorkbook().createCellStyle();
+        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        Font headerFont = sheet.getWorkbook().createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    /**
+     * Adds an example row with sample data
+     * @param sheet The sheet to add the example to
+     * @param values The values to add to the row
+     */
+    private void addExampleRow(Sheet sheet, String[] values) {
+        int rowIndex = sheet.getLastRowNum() + 1;
+        Row row = sheet.createRow(rowIndex);
+
+        for (int i = 0; i < values.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(values[i]);
+        }
+    }
+
+    /**
+     * Writes values down one column, below the header row
+     * @param sheet The sheet to fill
+     * @param column The column index
+     * @param values The values, one per row
+     */
+    private void fillColumn(Sheet sheet, int column, List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            Row row = sheet.getRow(i + 1);
+            if (row == null) {
+                row = sheet.createRow(i + 1);
+            }
+            row.createCell(column).setCellValue(values.get(i));
+        }
+    }
+
+    /**
+     * A built template: immutable bytes plus the ETag and Last-Modified time they match
+     */
+    public static final class Template {
+        private final byte[] content;
+        private final String eTag;
+        private final long lastModified;
+
+        private Template(byte[] content, String eTag, long lastModified) {
+            this.content = content;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * The shared workbook bytes; callers must not modify them
+         */
+        public byte[] getContent() {
+            return content;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
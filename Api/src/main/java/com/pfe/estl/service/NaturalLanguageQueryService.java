@@ -1,6 +1,8 @@
 package com.pfe.estl.service;
 
 import com.pfe.estl.model.Student;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import jakarta.persistence.EntityManager;
@@ -29,6 +32,7 @@ public class NaturalLanguageQueryService {
     private static final Logger logger = LoggerFactory.getLogger(NaturalLanguageQueryService.class);
     
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -40,8 +44,9 @@ public class NaturalLanguageQueryService {
     private String openaiApiUrl;
     
     @Autowired
-    public NaturalLanguageQueryService() {
+    public NaturalLanguageQueryService(MeterRegistry meterRegistry) {
         this.restTemplate = new RestTemplate();
+        this.meterRegistry = meterRegistry;
     }
     
     /**
@@ -50,6 +55,7 @@ public class NaturalLanguageQueryService {
      * @param query The natural language query string
      * @return List of students matching the query criteria and the generated JPQL query
      */
+    @Transactional(readOnly = true) // Generated queries are reads; they can run on the replica
     public Map<String, Object> processNaturalLanguageQuery(String query) {
         try {
             logger.info("Processing natural language query: {}", query);
@@ -232,6 +238,8 @@ public class NaturalLanguageQueryService {
      * Call the OpenAI API
      */
     private String callOpenAI(String prompt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -265,16 +273,23 @@ public class NaturalLanguageQueryService {
                         @SuppressWarnings("unchecked")
                         Map<String, String> responseMessage = (Map<String, String>) choice.get("message");
                         if (responseMessage != null && responseMessage.containsKey("content")) {
+                            outcome = "success";
                             return responseMessage.get("content");
                         }
                     }
                 }
             }
+            outcome = "unexpected-response";
             logger.warn("Received unexpected response format from OpenAI API");
             return null;
         } catch (Exception e) {
             logger.error("Error calling OpenAI API: {}", e.getMessage(), e);
             return null;
+        } finally {
+            sample.stop(Timer.builder("estl.llm.request")
+                    .description("Latency of the OpenAI chat completion call")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
     
@@ -1,28 +1,51 @@
 package com.pfe.estl.service;
 
 import java.io.IOException; // Make sure iText dependency is in pom.xml
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 
 import com.itextpdf.text.DocumentException;
+import com.pfe.estl.dto.AbsenceReportRowDTO;
+import com.pfe.estl.dto.StudentAbsenceReportDTO;
 
 public interface PdfExportService {
 
     /**
      * Exports the general absence report data to a PDF byte array.
      *
-     * @param reportData List of maps, where each map represents a student's absence summary.
+     * @param reportData One row per student with their absence summary.
      * @param startDate The start date of the report period.
      * @param endDate The end date of the report period.
      * @return A byte array containing the generated PDF.
      * @throws DocumentException If there's an error during PDF document generation.
      * @throws IOException If there's an I/O error.
      */
-    byte[] exportAbsenceReportToPdf(List<Map<String, Object>> reportData, LocalDate startDate, LocalDate endDate)
+    byte[] exportAbsenceReportToPdf(List<AbsenceReportRowDTO> reportData, LocalDate startDate, LocalDate endDate)
             throws DocumentException, IOException;
 
-    // You might keep the student-specific export method here too if needed
-    // byte[] exportStudentAbsenceReportToPdf(Map<String, Object> studentAbsence, List<AttendanceRecord> absenceRecords)
-    //         throws DocumentException, IOException;
+    /**
+     * Writes the general absence report straight to a stream, page by page, without holding
+     * the whole document or table in memory.
+     *
+     * @param reportData One row per student with their absence summary.
+     * @param startDate The start date of the report period.
+     * @param endDate The end date of the report period.
+     * @param out Destination, typically the HTTP response body; left open.
+     * @throws DocumentException If there's an error during PDF document generation.
+     * @throws IOException If there's an I/O error.
+     */
+    void writeAbsenceReportPdf(Iterable<AbsenceReportRowDTO> reportData, LocalDate startDate, LocalDate endDate,
+            OutputStream out) throws DocumentException, IOException;
+
+    /**
+     * Writes one student's absence report: details, total against threshold and every absence.
+     *
+     * @param report The student's report data.
+     * @param out Destination; left open.
+     * @throws DocumentException If there's an error during PDF document generation.
+     * @throws IOException If there's an I/O error.
+     */
+    void writeStudentAbsenceReportPdf(StudentAbsenceReportDTO report, OutputStream out)
+            throws DocumentException, IOException;
 }
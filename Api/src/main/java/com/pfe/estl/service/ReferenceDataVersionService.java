@@ -0,0 +1,99 @@
+package com.pfe.estl.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps an in-memory version stamp for each reference table (departments, semesters,
+ * subjects, roles, students) so list endpoints can answer conditional requests
+ * without touching the database. Users are versioned for the import dry run, attendance
+ * records and absence thresholds for the report cache.
+ *
+ * Services call {@link #markChanged(Table...)} whenever they write one of these tables.
+ * When a transaction is active the bump is deferred until after commit, so a client can
+ * never receive a new ETag together with data that has not been committed yet.
+ */
+@Service
+public class ReferenceDataVersionService {
+
+    public enum Table {
+        DEPARTMENTS, SEMESTERS, SUBJECTS, ROLES, STUDENTS, USERS, ATTENDANCE, ABSENCE_THRESHOLDS
+    }
+
+    // Versions restart on every boot; the epoch keeps ETags from a previous run from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Table, AtomicLong> versions = new EnumMap<>(Table.class);
+    private final Map<Table, AtomicLong> lastModified = new EnumMap<>(Table.class);
+
+    public ReferenceDataVersionService() {
+        long now = currentSecond();
+        for (Table table : Table.values()) {
+            versions.put(table, new AtomicLong());
+            lastModified.put(table, new AtomicLong(now));
+        }
+    }
+
+    /**
+     * Record that the given tables were written
+     * @param tables The tables whose content changed
+     */
+    public void markChanged(Table... tables) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(tables);
+                }
+            });
+        } else {
+            bump(tables);
+        }
+    }
+
+    /**
+     * Build a weak ETag covering the given tables. It versions the data, not the bytes, which
+     * lets Tomcat gzip the response (compression is skipped for strong ETags).
+     * @param tables The tables the response is derived from
+     * @return A quoted ETag value with the W/ prefix
+     */
+    public String eTag(Table... tables) {
+        StringBuilder tag = new StringBuilder("W/\"").append(epoch);
+        for (Table table : tables) {
+            tag.append('-').append(versions.get(table).get());
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Latest modification time of the given tables, truncated to whole seconds
+     * as required by the Last-Modified header
+     * @param tables The tables the response is derived from
+     * @return Epoch milliseconds
+     */
+    public long lastModified(Table... tables) {
+        long latest = 0;
+        for (Table table : tables) {
+            latest = Math.max(latest, lastModified.get(table).get());
+        }
+        return latest;
+    }
+
+    private void bump(Table... tables) {
+        long now = currentSecond();
+        for (Table table : tables) {
+            versions.get(table).incrementAndGet();
+            // Always move forward so If-Modified-Since cannot match a change made in the same second
+            lastModified.get(table).accumulateAndGet(now, (previous, current) -> Math.max(previous + 1000, current));
+        }
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000 * 1000;
+    }
+}
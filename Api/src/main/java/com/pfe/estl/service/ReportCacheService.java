@@ -0,0 +1,217 @@
+package com.pfe.estl.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pfe.estl.config.ReplicaRoutingDataSource;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Caches report results by report name and normalized parameters, and coalesces concurrent
+ * identical requests so they share one computation (single flight).
+ *
+ * An entry is valid while the attendance, student, subject, department, semester and
+ * threshold versions it was computed for are current (see {@link ReferenceDataVersionService}),
+ * and for at most reports.cache.ttl-seconds to pick up writes made outside the application.
+ * Those versions are bumped on commit to the primary, so reports are computed on the primary:
+ * a lagging replica would produce a result older than the version it is cached under.
+ * Cached values are shared between callers and must not be modified.
+ *
+ * Metrics: estl.report.cache.requests (tags report, result=hit|miss|coalesced),
+ * estl.report.cache.coalesced.wait and estl.report.cache.size.
+ */
+@Service
+public class ReportCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCacheService.class);
+
+    private static final Table[] SOURCE_TABLES = {
+            Table.ATTENDANCE, Table.STUDENTS, Table.SUBJECTS, Table.DEPARTMENTS, Table.SEMESTERS, Table.ABSENCE_THRESHOLDS
+    };
+
+    private final ReferenceDataVersionService referenceDataVersionService;
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public ReportCacheService(ReferenceDataVersionService referenceDataVersionService,
+                              MeterRegistry meterRegistry,
+                              @Value("${reports.cache.max-entries:200}") int maxEntries,
+                              @Value("${reports.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.referenceDataVersionService = referenceDataVersionService;
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        Gauge.builder("estl.report.cache.size", entries, Map::size)
+                .description("Cached report results, including computations in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a report from the cache, computing it at most once for concurrent identical requests
+     * @param report Report name, used as metric tag
+     * @param parameters The report parameters, already normalized (see {@link #key(Object...)})
+     * @param compute Computes the report; failures are passed to every waiting caller and not cached
+     * @return The cached or freshly computed report
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String report, String parameters, Supplier<T> compute) {
+        String key = report + '|' + parameters;
+        // Read before computing: a write during the computation leaves the entry stale, not wrong
+        String version = referenceDataVersionService.eTag(SOURCE_TABLES);
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.isValid(version, now)) {
+            Entry created = new Entry(version, now);
+            entry = entries.compute(key, (k, existing) -> existing != null && existing.isValid(version, now) ? existing : created);
+            if (entry == created) {
+                record(report, "miss", misses);
+                evictIfFull(version, now);
+                return (T) load(key, created, compute);
+            }
+        }
+
+        if (entry.result.isDone()) {
+            record(report, "hit", hits);
+            return (T) join(entry);
+        }
+        record(report, "coalesced", coalesced);
+        Timer.Sample wait = Timer.start(meterRegistry);
+        try {
+            return (T) join(entry);
+        } finally {
+            wait.stop(Timer.builder("estl.report.cache.coalesced.wait")
+                    .description("Time spent waiting for an identical report computed by another request")
+                    .tag("report", report)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Join normalized parameter values into a cache key
+     */
+    public static String key(Object... parts) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : parts) {
+            if (key.length() > 0) {
+                key.append('|');
+            }
+            key.append(part);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Hit, miss and coalesced counts since startup, for the cache statistics endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long coalescedCount = coalesced.sum();
+        statistics.put("entries", entries.size());
+        statistics.put("hits", hitCount);
+        statistics.put("misses", missCount);
+        statistics.put("coalesced", coalescedCount);
+        long lookups = hitCount + missCount + coalescedCount;
+        // Coalesced requests did not compute anything either
+        statistics.put("hitRatio", lookups > 0 ? (double) (hitCount + coalescedCount) / lookups : 0.0);
+        return statistics;
+    }
+
+    private Object load(String key, Entry entry, Supplier<?> compute) {
+        try {
+            Object value = ReplicaRoutingDataSource.onPrimary(compute);
+            entry.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            // Removed first so the next request retries instead of getting the same failure
+            entries.remove(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object join(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // Stale entries go first, then the oldest finished ones
+    private void evictIfFull(String version, long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.entrySet().removeIf(e -> e.getValue().result.isDone() && !e.getValue().isValid(version, now));
+        while (entries.size() > maxEntries) {
+            String oldest = null;
+            long oldestCreated = 0;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (e.getValue().result.isDone() && (oldest == null || e.getValue().createdAt - oldestCreated < 0)) {
+                    oldest = e.getKey();
+                    oldestCreated = e.getValue().createdAt;
+                }
+            }
+            if (oldest == null) {
+                break;
+            }
+            entries.remove(oldest);
+        }
+        logger.debug("Report cache evicted down to {} entries", entries.size());
+    }
+
+    private void record(String report, String result, LongAdder total) {
+        total.increment();
+        Counter.builder("estl.report.cache.requests")
+                .tag("report", report)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private final class Entry {
+        private final String version;
+        private final long createdAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(String version, long createdAt) {
+            this.version = version;
+            this.createdAt = createdAt;
+        }
+
+        private boolean isValid(String currentVersion, long now) {
+            return version.equals(currentVersion) && now - createdAt < ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.pfe.estl.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pfe.estl.dto.StudentAbsenceReportDTO;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Renders per-student absence report PDFs in parallel and streams them into a ZIP archive.
+ *
+ * Rendering runs on a dedicated fork-join pool sized by reports.bulk.parallelism (default:
+ * available processors), so a department-wide export cannot take over the common pool.
+ * Each PDF is added to the archive as soon as it is done, in completion order. At most twice
+ * the pool size are rendered ahead of the writer, which keeps memory flat for large departments.
+ */
+@Service
+public class StudentReportArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentReportArchiveService.class);
+
+    private final PdfExportService pdfExportService;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    public StudentReportArchiveService(PdfExportService pdfExportService,
+                                       @Value("${reports.bulk.parallelism:0}") int parallelism) {
+        this.pdfExportService = pdfExportService;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("student-report-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.maxInFlight = threads * 2;
+    }
+
+    /**
+     * Write one PDF per student into a ZIP archive
+     * @param reports The students' report data
+     * @param out Destination, typically the HTTP response body; left open
+     * @return Number of PDFs written
+     * @throws IOException If writing to the destination fails
+     */
+    public int writeZip(List<StudentAbsenceReportDTO> reports, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        CompletionService<Rendered> completion = new ExecutorCompletionService<>(pool);
+        // Only the renders not yet taken: a written PDF must not stay reachable from here
+        Set<Future<Rendered>> inFlight = new HashSet<>();
+        Iterator<StudentAbsenceReportDTO> pending = reports.iterator();
+        Set<String> entryNames = new HashSet<>();
+        List<String> failures = new ArrayList<>();
+        int written = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDF content streams are already deflated; a light level keeps the writer from being the bottleneck
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            while (pending.hasNext() && inFlight.size() < maxInFlight) {
+                inFlight.add(completion.submit(renderTask(pending.next())));
+            }
+            while (!inFlight.isEmpty()) {
+                Future<Rendered> next = completion.take();
+                inFlight.remove(next);
+                if (pending.hasNext()) {
+                    inFlight.add(completion.submit(renderTask(pending.next())));
+                }
+                Rendered rendered = next.get();
+                if (rendered.pdf == null) {
+                    failures.add(rendered.report.getStudentId() + ": " + rendered.error);
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry(entryName(rendered.report, entryNames)));
+                zip.write(rendered.pdf);
+                zip.closeEntry();
+                written++;
+            }
+            if (!failures.isEmpty()) {
+                zip.putNextEntry(new ZipEntry("errors.txt"));
+                zip.write(String.join(System.lineSeparator(), failures).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating student reports", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to generate student reports", e.getCause());
+        } finally {
+            // The client may have gone away: do not keep rendering for nobody
+            inFlight.forEach(future -> future.cancel(false));
+        }
+
+        logger.info("Wrote {} student absence reports ({} failed) to ZIP in {} ms",
+                written, failures.size(), (System.nanoTime() - start) / 1_000_000);
+        return written;
+    }
+
+    private Callable<Rendered> renderTask(StudentAbsenceReportDTO report) {
+        return () -> {
+            ByteArrayOutputStream pdf = new ByteArrayOutputStream(8192);
+            try {
+                pdfExportService.writeStudentAbsenceReportPdf(report, pdf);
+                return new Rendered(report, pdf.toByteArray(), null);
+            } catch (Exception e) {
+                logger.error("Error generating absence report for student {}: {}", report.getStudentId(), e.getMessage(), e);
+                return new Rendered(report, null, e.getMessage());
+            }
+        };
+    }
+
+    // "ESTL001_helene_durand.pdf"; student ids are unique but a suffix guards against duplicates
+    private static String entryName(StudentAbsenceReportDTO report, Set<String> used) {
+        String base = String.join("_", StudentSearchIndex.tokenize(report.getStudentId() + " " + report.getStudentName()));
+        if (base.isEmpty()) {
+            base = "student";
+        }
+        String name = base + ".pdf";
+        for (int i = 2; !used.add(name); i++) {
+            name = base + "_" + i + ".pdf";
+        }
+        return name;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static final class Rendered {
+        private final StudentAbsenceReportDTO report;
+        private final byte[] pdf;
+        private final String error;
+
+        private Rendered(StudentAbsenceReportDTO report, byte[] pdf, String error) {
+            this.report = report;
+            this.pdf = pdf;
+            this.error = error;
+        }
+    }
+}
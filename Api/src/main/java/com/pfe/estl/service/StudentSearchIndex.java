@@ -0,0 +1,409 @@
+package com.pfe.estl.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pfe.estl.dto.StudentSuggestionDTO;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.repository.StudentRepository;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+/**
+ * In-memory typeahead index over students (name, student id and email).
+ *
+ * Every value is accent-folded ("Hélène Œuvray" becomes "helene oeuvray") and split into
+ * tokens kept in a sorted map, so a prefix lookup is a range scan instead of a
+ * LIKE '%x%' table scan. Each query term must prefix one of the student's tokens; terms
+ * containing digits also match anywhere inside the student id.
+ *
+ * The index is loaded on startup and kept in sync by the student service and the Excel import.
+ * Changes made inside a transaction are applied after commit. Department and semester renames
+ * or cascading deletes trigger a background rebuild on the next search; changes applied while
+ * a rebuild reads the database are replayed onto the new index before it replaces the old one.
+ */
+@Service
+public class StudentSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentSearchIndex.class);
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+
+    private static final Table[] DEPENDENT_TABLES = {Table.DEPARTMENTS, Table.SEMESTERS};
+
+    private final StudentRepository studentRepository;
+    private final ReferenceDataVersionService referenceDataVersionService;
+
+    private volatile Index index = new Index();
+    private volatile String builtForVersion;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Serializes rebuilds; incremental changes only take the service lock
+    private final Object rebuildLock = new Object();
+    // Changes applied since the running rebuild started reading, null when none is running
+    private List<Consumer<Index>> changesDuringRebuild;
+
+    public StudentSearchIndex(StudentRepository studentRepository,
+                              ReferenceDataVersionService referenceDataVersionService) {
+        this.studentRepository = studentRepository;
+        this.referenceDataVersionService = referenceDataVersionService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Reload the whole index from the database
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            String version = referenceDataVersionService.eTag(DEPENDENT_TABLES);
+            List<Consumer<Index>> changes = new ArrayList<>();
+            synchronized (this) {
+                changesDuringRebuild = changes;
+            }
+            Index fresh = new Index();
+            try {
+                for (Object[] row : studentRepository.findSearchRows()) {
+                    fresh.put(new Entry((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                            (String) row[4], (String) row[5]));
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changesDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                // The read may or may not have seen these commits; puts and removes are idempotent
+                changes.forEach(change -> change.accept(fresh));
+                changesDuringRebuild = null;
+                index = fresh;
+                builtForVersion = version;
+            }
+            logger.info("Student search index built with {} students in {} ms",
+                    fresh.entries.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Add or refresh a student, after commit when called inside a transaction
+     * @param student The saved student; department and semester must be loadable
+     */
+    public void index(Student student) {
+        Entry entry = new Entry(student.getId(), student.getStudentId(), student.getFullName(), student.getEmail(),
+                student.getDepartment() != null ? student.getDepartment().getName() : null,
+                student.getSemester() != null ? student.getSemester().getName() : null);
+        afterCommit(() -> apply(current -> current.put(entry)));
+    }
+
+    /**
+     * Drop a student, after commit when called inside a transaction
+     * @param id The student's database id
+     */
+    public void remove(Long id) {
+        afterCommit(() -> apply(current -> current.remove(id)));
+    }
+
+    /**
+     * Top matches for a typeahead query
+     * @param query Free text: part of a name, student id or email
+     * @param limit Maximum number of suggestions (capped at {@link #MAX_LIMIT})
+     * @return Best matches first
+     */
+    public List<StudentSuggestionDTO> search(String query, int limit) {
+        refreshIfStale();
+        String[] terms = tokenize(query);
+        if (terms.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int size = Math.min(limit, MAX_LIMIT);
+        Index current = index;
+
+        // Start from the most selective (longest) term and check the others per candidate
+        String[] byLength = terms.clone();
+        Arrays.sort(byLength, Comparator.comparingInt(String::length).reversed());
+        Set<Entry> candidates = current.entriesWithPrefix(byLength[0]);
+        if (terms.length == 1 && containsDigit(terms[0])) {
+            current.addStudentIdMatches(terms[0], candidates);
+        }
+
+        String compactQuery = String.join("", terms);
+        PriorityQueue<Scored> best = new PriorityQueue<>(size + 1, Scored.WORST_FIRST);
+        for (Entry entry : candidates) {
+            int score = entry.score(terms, compactQuery);
+            if (score < 0 || (best.size() == size && score < best.peek().score)) {
+                continue;
+            }
+            best.add(new Scored(entry, score));
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(Scored.WORST_FIRST.reversed());
+        List<StudentSuggestionDTO> suggestions = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            suggestions.add(scored.entry.toDTO());
+        }
+        return suggestions;
+    }
+
+    /**
+     * Number of indexed students
+     */
+    public int size() {
+        return index.entries.size();
+    }
+
+    private void refreshIfStale() {
+        if (referenceDataVersionService.eTag(DEPENDENT_TABLES).equals(builtForVersion)
+                || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        // Serve the current index while the new one is built
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                logger.error("Failed to rebuild student search index: {}", e.getMessage(), e);
+            } finally {
+                rebuilding.set(false);
+            }
+        }, "student-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private synchronized void apply(Consumer<Index> change) {
+        change.accept(index);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Lower-case, strip accents and expand ligatures so "Élodie", "elodie" and "ÉLODIE" match
+     */
+    static String fold(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace("œ", "oe").replace("Œ", "OE")
+                .replace("æ", "ae").replace("Æ", "AE")
+                .replace("ß", "ss")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    static String[] tokenize(String value) {
+        String folded = fold(value).trim();
+        if (folded.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(NON_ALPHANUMERIC.split(folded))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static boolean containsDigit(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isDigit(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Token map and entries; replaced wholesale on rebuild, updated in place under the
+     * service lock otherwise
+     */
+    private static final class Index {
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        // Token sets hold the entries themselves so a lookup needs no second map access
+        private final NavigableMap<String, Set<Entry>> tokens = new ConcurrentSkipListMap<>();
+
+        private void put(Entry entry) {
+            remove(entry.id);
+            entries.put(entry.id, entry);
+            for (String token : entry.tokens) {
+                tokens.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(entry);
+            }
+        }
+
+        private void remove(Long id) {
+            Entry previous = entries.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String token : previous.tokens) {
+                Set<Entry> matching = tokens.get(token);
+                if (matching != null) {
+                    matching.remove(previous);
+                    if (matching.isEmpty()) {
+                        tokens.remove(token, matching);
+                    }
+                }
+            }
+        }
+
+        private Set<Entry> entriesWithPrefix(String prefix) {
+            Set<Entry> matches = new HashSet<>();
+            for (Set<Entry> matching : tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                matches.addAll(matching);
+            }
+            return matches;
+        }
+
+        // Student ids are often searched by their trailing digits ("0042" in "ESTL-2023-0042")
+        private void addStudentIdMatches(String term, Set<Entry> matches) {
+            for (Entry entry : entries.values()) {
+                if (entry.compactStudentId.contains(term)) {
+                    matches.add(entry);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final Long id;
+        private final String studentId;
+        private final String fullName;
+        private final String email;
+        private final String departmentName;
+        private final String semesterName;
+        private final String sortName;
+        private final String compactStudentId;
+        private final String[] nameTokens;
+        private final String[] tokens;
+
+        private Entry(Long id, String studentId, String fullName, String email,
+                      String departmentName, String semesterName) {
+            this.id = id;
+            this.studentId = studentId;
+            this.fullName = fullName;
+            this.email = email;
+            this.departmentName = departmentName;
+            this.semesterName = semesterName;
+            this.sortName = fold(fullName);
+            this.compactStudentId = String.join("", tokenize(studentId));
+            this.nameTokens = tokenize(fullName);
+
+            Set<String> all = new LinkedHashSet<>(Arrays.asList(nameTokens));
+            all.addAll(Arrays.asList(tokenize(studentId)));
+            if (!compactStudentId.isEmpty()) {
+                all.add(compactStudentId);
+            }
+            String localPart = email != null && email.contains("@") ? email.substring(0, email.indexOf('@')) : email;
+            all.addAll(Arrays.asList(tokenize(localPart)));
+            this.tokens = all.toArray(String[]::new);
+        }
+
+        /**
+         * Relevance of this student for the query terms, or -1 when a term matches nothing
+         */
+        private int score(String[] terms, String compactQuery) {
+            if (compactStudentId.equals(compactQuery)) {
+                return 1000;
+            }
+            int score = 0;
+            for (String term : terms) {
+                int best = -1;
+                for (int i = 0; i < tokens.length; i++) {
+                    String token = tokens[i];
+                    int points;
+                    if (token.equals(term)) {
+                        points = 30;
+                    } else if (token.startsWith(term)) {
+                        points = 20;
+                    } else {
+                        continue;
+                    }
+                    // Matches on the first name token rank above surname or email matches
+                    if (nameTokens.length > 0 && token.equals(nameTokens[0])) {
+                        points += 5;
+                    }
+                    best = Math.max(best, points);
+                }
+                if (best < 0) {
+                    if (terms.length == 1 && compactStudentId.contains(term)) {
+                        best = 10;
+                    } else {
+                        return -1;
+                    }
+                }
+                score += best;
+            }
+            return score;
+        }
+
+        private StudentSuggestionDTO toDTO() {
+            return new StudentSuggestionDTO(id, studentId, fullName, email, departmentName, semesterName);
+        }
+    }
+
+    private static final class Scored {
+        // Lowest score first; among equal scores the longer, then alphabetically later name is worse
+        private static final Comparator<Scored> WORST_FIRST = (a, b) -> {
+            if (a.score != b.score) {
+                return Integer.compare(a.score, b.score);
+            }
+            if (a.entry.sortName.length() != b.entry.sortName.length()) {
+                return Integer.compare(b.entry.sortName.length(), a.entry.sortName.length());
+            }
+            return b.entry.sortName.compareTo(a.entry.sortName);
+        };
+
+        private final Entry entry;
+        private final int score;
+
+        private Scored(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.pfe.estl.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pfe.estl.ResourceNotFoundException;
+import com.pfe.estl.dto.AbsenceAlertDTO;
+import com.pfe.estl.dto.AbsenceThresholdDTO;
+import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.event.AbsenceThresholdCrossedEvent;
+import com.pfe.estl.event.AttendanceDeletedEvent;
+import com.pfe.estl.event.AttendanceSavedEvent;
+import com.pfe.estl.model.AbsenceAlert;
+import com.pfe.estl.model.AbsenceThreshold;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.repository.AbsenceAlertRepository;
+import com.pfe.estl.repository.AbsenceThresholdRepository;
+import com.pfe.estl.repository.AttendanceRecordRepository;
+import com.pfe.estl.repository.DepartmentRepository;
+import com.pfe.estl.repository.SemesterRepository;
+import com.pfe.estl.repository.StudentRepository;
+import com.pfe.estl.service.AbsenceAlertService;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+/**
+ * Keeps one active alert per student who is at or above their absence threshold.
+ *
+ * Students are re-evaluated when their attendance is written, so reading the list of
+ * over-threshold students is an indexed lookup on active alerts instead of a scan of
+ * every student's records. Thresholds can be overridden per department, per semester
+ * or per department/semester pair; the most specific override wins.
+ *
+ * Writes are evaluated after they commit, in a transaction of their own, so a failed
+ * evaluation never rolls back attendance. When two writes for the same student race to open
+ * an alert, the unique active alert index rejects the second insert and that evaluation is
+ * run again against the committed alert.
+ */
+@Service
+public class AbsenceAlertServiceImpl implements AbsenceAlertService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbsenceAlertServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final AbsenceAlertRepository absenceAlertRepository;
+    private final AbsenceThresholdRepository absenceThresholdRepository;
+    private final AttendanceRecordRepository attendanceRecordRepository;
+    private final StudentRepository studentRepository;
+    private final DepartmentRepository departmentRepository;
+    private final SemesterRepository semesterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataVersionService referenceDataVersionService;
+    private final TransactionTemplate evaluationTransaction;
+    private final int defaultThresholdHours;
+
+    public AbsenceAlertServiceImpl(
+            AbsenceAlertRepository absenceAlertRepository,
+            AbsenceThresholdRepository absenceThresholdRepository,
+            AttendanceRecordRepository attendanceRecordRepository,
+            StudentRepository studentRepository,
+            DepartmentRepository departmentRepository,
+            SemesterRepository semesterRepository,
+            ApplicationEventPublisher eventPublisher,
+            ReferenceDataVersionService referenceDataVersionService,
+            PlatformTransactionManager transactionManager,
+            @Value("${attendance.absence.default-threshold-hours:9}") int defaultThresholdHours) {
+        this.absenceAlertRepository = absenceAlertRepository;
+        this.absenceThresholdRepository = absenceThresholdRepository;
+        this.attendanceRecordRepository = attendanceRecordRepository;
+        this.studentRepository = studentRepository;
+        this.departmentRepository = departmentRepository;
+        this.semesterRepository = semesterRepository;
+        this.eventPublisher = eventPublisher;
+        this.referenceDataVersionService = referenceDataVersionService;
+        this.evaluationTransaction = new TransactionTemplate(transactionManager);
+        this.evaluationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultThresholdHours = defaultThresholdHours;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceSaved(AttendanceSavedEvent event) {
+        evaluateAfterWrite(event.getRecords().stream()
+                .map(AttendanceRecordDTO::getStudentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendanceDeleted(AttendanceDeletedEvent event) {
+        evaluateAfterWrite(Set.of(event.getStudentId()));
+    }
+
+    private void evaluateAfterWrite(Set<Long> studentIds) {
+        try {
+            evaluationTransaction.executeWithoutResult(status -> evaluateStudents(studentIds));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent write opened the same alert first; its commit is visible to a new transaction
+            logger.debug("Concurrent absence alert for students {}, evaluating again", studentIds);
+            evaluationTransaction.executeWithoutResult(status -> evaluateStudents(studentIds));
+        }
+    }
+
+    // Brings alerts in line with attendance written while the engine was not running
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onApplicationReady() {
+        reevaluateAllStudents();
+    }
+
+    @Override
+    @Transactional
+    public void evaluateStudents(Collection<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> absenceMinutes = toMinutesByStudent(
+                attendanceRecordRepository.sumAbsenceMinutesByStudentIds(studentIds));
+        Map<Long, AbsenceAlert> activeAlerts = toAlertsByStudent(
+                absenceAlertRepository.findByStudentIdInAndActiveTrue(studentIds));
+        applyEvaluation(studentRepository.findAllById(studentIds), absenceMinutes, activeAlerts);
+    }
+
+    @Override
+    @Transactional
+    public void reevaluateAllStudents() {
+        Map<Long, Long> absenceMinutes = toMinutesByStudent(
+                attendanceRecordRepository.sumAbsenceMinutesGroupedByStudent());
+        Map<Long, AbsenceAlert> activeAlerts = toAlertsByStudent(absenceAlertRepository.findByActiveTrue());
+
+        // Only students with absences or an open alert can change state
+        Set<Long> studentIds = new HashSet<>(absenceMinutes.keySet());
+        studentIds.addAll(activeAlerts.keySet());
+        if (!studentIds.isEmpty()) {
+            applyEvaluation(studentRepository.findAllById(studentIds), absenceMinutes, activeAlerts);
+        }
+        logger.info("Re-evaluated absence alerts for {} students", studentIds.size());
+    }
+
+    private void applyEvaluation(List<Student> students, Map<Long, Long> absenceMinutes,
+            Map<Long, AbsenceAlert> activeAlerts) {
+        ToIntFunction<Student> thresholdResolver = getThresholdResolver();
+        LocalDateTime now = LocalDateTime.now();
+        List<AbsenceAlert> changed = new ArrayList<>();
+        List<AbsenceAlert> crossed = new ArrayList<>();
+
+        for (Student student : students) {
+            long minutes = absenceMinutes.getOrDefault(student.getId(), 0L);
+            int thresholdHours = thresholdResolver.applyAsInt(student);
+            boolean exceeds = minutes >= thresholdHours * 60L;
+            AbsenceAlert alert = activeAlerts.get(student.getId());
+
+            if (exceeds && alert == null) {
+                alert = new AbsenceAlert();
+                alert.setStudent(student);
+                alert.setThresholdHours(thresholdHours);
+                alert.setAbsenceMinutes(minutes);
+                changed.add(alert);
+                crossed.add(alert);
+            } else if (exceeds) {
+                alert.setThresholdHours(thresholdHours);
+                alert.setAbsenceMinutes(minutes);
+                changed.add(alert);
+            } else if (alert != null) {
+                alert.setActive(false);
+                alert.setAbsenceMinutes(minutes);
+                alert.setResolvedAt(now);
+                changed.add(alert);
+            }
+        }
+
+        absenceAlertRepository.saveAll(changed);
+        if (!crossed.isEmpty()) {
+            logger.info("{} students crossed their absence threshold", crossed.size());
+            eventPublisher.publishEvent(new AbsenceThresholdCrossedEvent(
+                    crossed.stream().map(this::toDTO).collect(Collectors.toList())));
+        }
+    }
+
+    @Override
+    public int getDefaultThresholdHours() {
+        return defaultThresholdHours;
+    }
+
+    @Override
+    public int getThresholdHours(Student student) {
+        return getThresholdResolver().applyAsInt(student);
+    }
+
+    @Override
+    public ToIntFunction<Student> getThresholdResolver() {
+        Map<String, Integer> overrides = new HashMap<>();
+        for (AbsenceThreshold threshold : absenceThresholdRepository.findAll()) {
+            overrides.put(scopeKey(
+                    threshold.getDepartment() != null ? threshold.getDepartment().getId() : null,
+                    threshold.getSemester() != null ? threshold.getSemester().getId() : null),
+                    threshold.getThresholdHours());
+        }
+        int fallback = overrides.getOrDefault(scopeKey(null, null), defaultThresholdHours);
+        if (overrides.isEmpty()) {
+            return student -> fallback;
+        }
+        return student -> {
+            Long departmentId = student.getDepartment() != null ? student.getDepartment().getId() : null;
+            Long semesterId = student.getSemester() != null ? student.getSemester().getId() : null;
+            Integer hours = overrides.get(scopeKey(departmentId, semesterId));
+            if (hours == null) {
+                hours = overrides.get(scopeKey(departmentId, null));
+            }
+            if (hours == null) {
+                hours = overrides.get(scopeKey(null, semesterId));
+            }
+            return hours != null ? hours : fallback;
+        };
+    }
+
+    @Override
+    public long countActiveAlerts() {
+        return absenceAlertRepository.countByActiveTrue();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AbsenceAlertDTO> getActiveAlerts() {
+        return absenceAlertRepository.findActiveWithStudent().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAlerts(Boolean active, Long departmentId, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<AbsenceAlert> alerts = absenceAlertRepository.search(active, departmentId, pageRequest);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("content", alerts.getContent().stream().map(this::toDTO).collect(Collectors.toList()));
+        result.put("page", alerts.getNumber());
+        result.put("size", alerts.getSize());
+        result.put("totalElements", alerts.getTotalElements());
+        result.put("totalPages", alerts.getTotalPages());
+        return result;
+    }
+
+    @Override
+    public List<AbsenceThresholdDTO> getThresholds() {
+        return absenceThresholdRepository.findAll().stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public AbsenceThresholdDTO saveThreshold(AbsenceThresholdDTO thresholdDTO) {
+        if (thresholdDTO.getThresholdHours() == null || thresholdDTO.getThresholdHours() <= 0) {
+            throw new IllegalArgumentException("Threshold hours must be a positive number");
+        }
+        AbsenceThreshold threshold = thresholdDTO.getId() != null
+                ? absenceThresholdRepository.findById(thresholdDTO.getId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Absence threshold not found with id: " + thresholdDTO.getId()))
+                : absenceThresholdRepository.findByScope(thresholdDTO.getDepartmentId(), thresholdDTO.getSemesterId())
+                        .orElseGet(AbsenceThreshold::new);
+
+        threshold.setDepartment(thresholdDTO.getDepartmentId() == null ? null
+                : departmentRepository.findById(thresholdDTO.getDepartmentId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Department not found with id: " + thresholdDTO.getDepartmentId())));
+        threshold.setSemester(thresholdDTO.getSemesterId() == null ? null
+                : semesterRepository.findById(thresholdDTO.getSemesterId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Semester not found with id: " + thresholdDTO.getSemesterId())));
+        threshold.setThresholdHours(thresholdDTO.getThresholdHours());
+        threshold = absenceThresholdRepository.save(threshold);
+        referenceDataVersionService.markChanged(Table.ABSENCE_THRESHOLDS);
+
+        // A new threshold can move students on either side of it
+        reevaluateAllStudents();
+        return toDTO(threshold);
+    }
+
+    @Override
+    @Transactional
+    public void deleteThreshold(Long id) {
+        if (!absenceThresholdRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Absence threshold not found with id: " + id);
+        }
+        absenceThresholdRepository.deleteById(id);
+        referenceDataVersionService.markChanged(Table.ABSENCE_THRESHOLDS);
+        reevaluateAllStudents();
+    }
+
+    private static String scopeKey(Long departmentId, Long semesterId) {
+        return (departmentId != null ? departmentId : "*") + ":" + (semesterId != null ? semesterId : "*");
+    }
+
+    private static Map<Long, Long> toMinutesByStudent(List<Object[]> rows) {
+        Map<Long, Long> minutes = new HashMap<>();
+        for (Object[] row : rows) {
+            minutes.put(((Number) row[0]).longValue(), row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+        return minutes;
+    }
+
+    // The unique index rules out two active alerts per student; should a table created before it hold
+    // some, the oldest alert is kept and the others are resolved instead of failing every evaluation
+    private Map<Long, AbsenceAlert> toAlertsByStudent(List<AbsenceAlert> alerts) {
+        List<AbsenceAlert> duplicates = new ArrayList<>();
+        Map<Long, AbsenceAlert> byStudent = alerts.stream().collect(Collectors.toMap(
+                alert -> alert.getStudent().getId(),
+                alert -> alert,
+                (first, second) -> {
+                    AbsenceAlert kept = first.getId() < second.getId() ? first : second;
+                    AbsenceAlert duplicate = kept == first ? second : first;
+                    duplicate.setActive(false);
+                    duplicate.setResolvedAt(LocalDateTime.now());
+                    duplicates.add(duplicate);
+                    return kept;
+                }));
+        if (!duplicates.isEmpty()) {
+            logger.warn("Resolved {} duplicate active absence alerts", duplicates.size());
+            absenceAlertRepository.saveAll(duplicates);
+        }
+        return byStudent;
+    }
+
+    private AbsenceAlertDTO toDTO(AbsenceAlert alert) {
+        Student student = alert.getStudent();
+        AbsenceAlertDTO dto = new AbsenceAlertDTO();
+        dto.setId(alert.getId());
+        dto.setStudentId(student.getStudentId());
+        dto.setStudentName(student.getFullName());
+        dto.setDepartmentName(student.getDepartment() != null ? student.getDepartment().getName() : null);
+        dto.setSemesterName(student.getSemester() != null ? student.getSemester().getName() : null);
+        dto.setThresholdHours(alert.getThresholdHours());
+        dto.setTotalAbsenceHours(alert.getAbsenceMinutes() / 60.0);
+        dto.setActive(alert.isActive());
+        dto.setCreatedAt(alert.getCreatedAt());
+        dto.setResolvedAt(alert.getResolvedAt());
+        return dto;
+    }
+
+    private AbsenceThresholdDTO toDTO(AbsenceThreshold threshold) {
+        AbsenceThresholdDTO dto = new AbsenceThresholdDTO();
+        dto.setId(threshold.getId());
+        if (threshold.getDepartment() != null) {
+            dto.setDepartmentId(threshold.getDepartment().getId());
+            dto.setDepartmentName(threshold.getDepartment().getName());
+        }
+        if (threshold.getSemester() != null) {
+            dto.setSemesterId(threshold.getSemester().getId());
+            dto.setSemesterName(threshold.getSemester().getName());
+        }
+        dto.setThresholdHours(threshold.getThresholdHours());
+        return dto;
+    }
+}
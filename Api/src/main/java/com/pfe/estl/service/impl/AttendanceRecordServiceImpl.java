@@ -1,6 +1,14 @@
 package com.pfe.estl.service.impl;
 
+import com.pfe.estl.ResourceNotFoundException;
+import com.pfe.estl.config.LogMarkers;
+import com.pfe.estl.dto.AbsenceReportRowDTO;
 import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.dto.AttendanceTimelineDTO;
+import com.pfe.estl.dto.AttendanceTimelineDTO.TimelineSubject;
+import com.pfe.estl.dto.StudentAbsenceReportDTO;
+import com.pfe.estl.event.AttendanceDeletedEvent;
+import com.pfe.estl.event.AttendanceSavedEvent;
 import com.pfe.estl.model.AttendanceRecord;
 import com.pfe.estl.model.Department;
 import com.pfe.estl.model.Student;
@@ -10,27 +18,47 @@ import com.pfe.estl.repository.AttendanceRecordRepository;
 import com.pfe.estl.repository.DepartmentRepository;
 import com.pfe.estl.repository.StudentRepository;
 import com.pfe.estl.repository.SubjectRepository;
+import com.pfe.estl.service.AbsenceAlertService;
+import com.pfe.estl.service.AttendanceChangeLogService;
 import com.pfe.estl.service.AttendanceRecordService;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class AttendanceRecordServiceImpl implements AttendanceRecordService {
 
+    // Latency per report, tagged with the report name (Prometheus: estl_attendance_report_seconds)
+    private static final String REPORT_TIMER = "estl.attendance.report";
+    private static final String SAVE_TIMER = "estl.attendance.save";
+
     private static final Logger logger = LoggerFactory.getLogger(AttendanceRecordServiceImpl.class);
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "dashboard-stats"})
+    @Transactional(readOnly = true)
     public Map<String, Object> getDashboardStats(LocalDate startDate, LocalDate endDate) {
         Map<String, Object> stats = new HashMap<>();
         
@@ -40,9 +68,8 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
         // Calculate overall average attendance rate using the existing service method
         double averageAttendanceRate = getAverageAttendance(startDate, endDate);
          
-        // Get students exceeding absence threshold (9 hours is commonly used threshold)
-        List<Map<String, Object>> absencesExceedingThreshold = getStudentsExceedingAbsenceThreshold(9);
-        int absenceAlerts = absencesExceedingThreshold.size();
+        // Students over their threshold are tracked by the alert engine, so this is a count of active alerts
+        long absenceAlerts = absenceAlertService.countActiveAlerts();
          
         // Set the stats with expected field names
         stats.put("totalStudents", totalStudents);
@@ -57,17 +84,29 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     private final StudentRepository studentRepository;
     private final DepartmentRepository departmentRepository;
     private final SubjectRepository subjectRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AbsenceAlertService absenceAlertService;
+    private final AttendanceChangeLogService attendanceChangeLog;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
     @Autowired
     public AttendanceRecordServiceImpl(
             AttendanceRecordRepository attendanceRecordRepository,
             StudentRepository studentRepository,
             DepartmentRepository departmentRepository,
-            SubjectRepository subjectRepository) {
+            SubjectRepository subjectRepository,
+            ApplicationEventPublisher eventPublisher,
+            AbsenceAlertService absenceAlertService,
+            AttendanceChangeLogService attendanceChangeLog,
+            ReferenceDataVersionService referenceDataVersionService) {
         this.attendanceRecordRepository = attendanceRecordRepository;
         this.studentRepository = studentRepository;
         this.departmentRepository = departmentRepository;
         this.subjectRepository = subjectRepository;
+        this.eventPublisher = eventPublisher;
+        this.absenceAlertService = absenceAlertService;
+        this.attendanceChangeLog = attendanceChangeLog;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     private AttendanceRecord toEntity(AttendanceRecordDTO dto) {
@@ -88,6 +127,27 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
         return record;
     }
 
+    private AttendanceRecord toEntity(AttendanceRecordDTO dto, Map<Long, Student> students, Map<Long, Subject> subjects) {
+        AttendanceRecord record = new AttendanceRecord();
+        record.setId(dto.getId());
+        record.setDate(dto.getDate());
+        record.setDuration(dto.getDuration());
+        record.setPresent(dto.isPresent());
+
+        Student student = students.get(dto.getStudentId());
+        if (student == null) {
+            throw new RuntimeException("Student not found with ID: " + dto.getStudentId());
+        }
+        Subject subject = subjects.get(dto.getSubjectId());
+        if (subject == null) {
+            throw new RuntimeException("Subject not found with ID: " + dto.getSubjectId());
+        }
+
+        record.setStudent(student);
+        record.setSubject(subject);
+        return record;
+    }
+
     private AttendanceRecordDTO toDTO(AttendanceRecord record) {
         AttendanceRecordDTO dto = new AttendanceRecordDTO();
         dto.setId(record.getId());
@@ -99,18 +159,57 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
         return dto;
     }
 
+    // Lets live dashboards and other listeners react to a write without re-reading everything
+    private void publishSaved(List<AttendanceRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Set<String> departmentNames = records.stream()
+                .map(record -> record.getStudent().getDepartment())
+                .filter(Objects::nonNull)
+                .map(Department::getName)
+                .collect(Collectors.toSet());
+        List<AttendanceRecordDTO> dtos = records.stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+        eventPublisher.publishEvent(new AttendanceSavedEvent(dtos, departmentNames));
+    }
+
     @Override
+    @Timed(value = SAVE_TIMER, extraTags = {"operation", "single"})
+    @Transactional // The change log entry commits with the record
     public AttendanceRecordDTO saveAttendanceRecord(AttendanceRecordDTO attendanceRecordDTO) {
         AttendanceRecord record = toEntity(attendanceRecordDTO);
         record = attendanceRecordRepository.save(record);
-        return toDTO(record);
+        publishSaved(List.of(record));
+        AttendanceRecordDTO saved = toDTO(record);
+        attendanceChangeLog.recordCreated(saved);
+        referenceDataVersionService.markChanged(Table.ATTENDANCE);
+        return saved;
     }
 
     @Override
+    @Timed(value = SAVE_TIMER, extraTags = {"operation", "bulk"})
+    @Transactional // One connection and one commit for the whole roll call
     public List<AttendanceRecordDTO> saveBulkAttendanceRecords(List<AttendanceRecordDTO> records) {
-        return records.stream()
-                .map(this::saveAttendanceRecord)
+        // Students and subjects of the whole roll call in two queries instead of a lookup per record
+        Map<Long, Student> students = studentRepository.findAllById(records.stream()
+                        .map(AttendanceRecordDTO::getStudentId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<Long, Subject> subjects = subjectRepository.findAllById(records.stream()
+                        .map(AttendanceRecordDTO::getSubjectId).filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Subject::getId, Function.identity()));
+        List<AttendanceRecord> savedRecords = attendanceRecordRepository.saveAll(records.stream()
+                .map(dto -> toEntity(dto, students, subjects))
+                .collect(Collectors.toList()));
+        // One event for the whole roll call
+        publishSaved(savedRecords);
+        List<AttendanceRecordDTO> saved = savedRecords.stream()
+                .map(this::toDTO)
                 .collect(Collectors.toList());
+        saved.forEach(attendanceChangeLog::recordCreated);
+        referenceDataVersionService.markChanged(Table.ATTENDANCE);
+        return saved;
     }
 
     @Override
@@ -127,6 +226,23 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachAttendanceRecord(Consumer<AttendanceRecordDTO> action) {
+        try (Stream<Object[]> rows = attendanceRecordRepository.streamAllRows()) {
+            rows.forEach(row -> {
+                AttendanceRecordDTO dto = new AttendanceRecordDTO();
+                dto.setId((Long) row[0]);
+                dto.setStudentId((Long) row[1]);
+                dto.setSubjectId((Long) row[2]);
+                dto.setDate((LocalDate) row[3]);
+                dto.setDuration((Integer) row[4]);
+                dto.setPresent((Boolean) row[5]);
+                action.accept(dto);
+            });
+        }
+    }
+
     @Override
     public List<AttendanceRecordDTO> getAttendanceRecordsByStudent(String studentId) {
         Student student = studentRepository.findByStudentId(studentId);
@@ -160,21 +276,132 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "student-absence-reports"})
+    @Transactional(readOnly = true)
+    public List<StudentAbsenceReportDTO> getStudentAbsenceReports(Long departmentId, Long semesterId) {
+        List<Student> students = studentRepository.findForReports(departmentId, semesterId);
+
+        // All absences in one query instead of one per student
+        Map<Long, List<StudentAbsenceReportDTO.Absence>> absencesByStudent = new HashMap<>();
+        for (Object[] row : attendanceRecordRepository.findAbsenceRowsForReports(departmentId, semesterId)) {
+            absencesByStudent.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new StudentAbsenceReportDTO.Absence((LocalDate) row[1], (Long) row[2], (Integer) row[3]));
+        }
+
+        ToIntFunction<Student> thresholdResolver = absenceAlertService.getThresholdResolver();
+        List<StudentAbsenceReportDTO> reports = new ArrayList<>(students.size());
+        for (Student student : students) {
+            List<StudentAbsenceReportDTO.Absence> absences = absencesByStudent.getOrDefault(student.getId(), List.of());
+            int totalMinutes = absences.stream()
+                    .mapToInt(absence -> absence.getDuration() != null ? absence.getDuration() : 0)
+                    .sum();
+            int thresholdHours = thresholdResolver.applyAsInt(student);
+
+            StudentAbsenceReportDTO report = new StudentAbsenceReportDTO();
+            report.setStudentName(student.getFullName());
+            report.setStudentId(student.getStudentId());
+            report.setDepartmentName(student.getDepartment() != null ? student.getDepartment().getName() : null);
+            report.setSemesterName(student.getSemester() != null ? student.getSemester().getName() : null);
+            report.setTotalAbsenceHours(totalMinutes / 60);
+            report.setThresholdHours(thresholdHours);
+            report.setExceedsThreshold(totalMinutes / 60 >= thresholdHours);
+            report.setAbsences(absences);
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "student-timeline"})
+    @Transactional(readOnly = true)
+    public AttendanceTimelineDTO getAttendanceTimeline(String studentId, LocalDate startDate, LocalDate endDate) {
+        if ((startDate == null) != (endDate == null)) {
+            throw new IllegalArgumentException("startDate and endDate must be given together");
+        }
+        Student student = studentRepository.findByStudentId(studentId);
+        if (student == null) {
+            throw new ResourceNotFoundException("Student", "studentId", studentId);
+        }
+        List<Object[]> rows = startDate == null
+                ? attendanceRecordRepository.findTimelineRowsByStudentId(student.getId())
+                : attendanceRecordRepository.findTimelineRowsByStudentIdAndDateBetween(student.getId(), startDate, endDate);
+
+        int count = rows.size();
+        AttendanceTimelineDTO timeline = new AttendanceTimelineDTO();
+        timeline.setStudentId(student.getId());
+        timeline.setStudentCode(student.getStudentId());
+        timeline.setCount(count);
+        LocalDate firstDate = count > 0 ? (LocalDate) rows.get(0)[0] : startDate;
+        timeline.setStartDate(firstDate);
+
+        long[] idDeltas = new long[count];
+        int[] dayOffsets = new int[count];
+        int[] subjectIndexes = new int[count];
+        int[] durations = new int[count];
+        BitSet presence = new BitSet(count);
+        Map<Long, Integer> subjectIndexById = new HashMap<>();
+        long previousId = 0;
+        for (int i = 0; i < count; i++) {
+            Object[] row = rows.get(i);
+            long id = (Long) row[6];
+            idDeltas[i] = id - previousId;
+            previousId = id;
+            dayOffsets[i] = (int) ChronoUnit.DAYS.between(firstDate, (LocalDate) row[0]);
+            Long subjectId = (Long) row[1];
+            Integer index = subjectIndexById.get(subjectId);
+            if (index == null) {
+                index = timeline.getSubjects().size();
+                subjectIndexById.put(subjectId, index);
+                timeline.getSubjects().add(new TimelineSubject(subjectId, (String) row[2], (String) row[3]));
+            }
+            subjectIndexes[i] = index;
+            durations[i] = row[4] != null ? ((Number) row[4]).intValue() : 0;
+            if (Boolean.TRUE.equals(row[5])) {
+                presence.set(i);
+            }
+        }
+        timeline.setIdDeltas(idDeltas);
+        timeline.setDayOffsets(dayOffsets);
+        timeline.setSubjectIndexes(subjectIndexes);
+        timeline.setDurations(durations);
+        timeline.setPresence(presence.toByteArray());
+        return timeline;
+    }
+
+    @Override
+    @Transactional
     public AttendanceRecordDTO updateAttendanceRecord(AttendanceRecordDTO attendanceRecordDTO) {
         if (attendanceRecordDTO.getId() == null) {
             throw new RuntimeException("Attendance record ID cannot be null for update");
         }
+        // Copied before the save, which merges into the same managed entity
+        AttendanceRecordDTO previous = attendanceRecordRepository.findById(attendanceRecordDTO.getId())
+                .map(this::toDTO)
+                .orElse(null);
         AttendanceRecord record = toEntity(attendanceRecordDTO);
         record = attendanceRecordRepository.save(record);
-        return toDTO(record);
+        publishSaved(List.of(record));
+        AttendanceRecordDTO updated = toDTO(record);
+        attendanceChangeLog.recordUpdated(previous, updated);
+        referenceDataVersionService.markChanged(Table.ATTENDANCE);
+        return updated;
     }
 
     @Override
+    @Transactional
     public void deleteAttendanceRecord(Long id) {
+        Optional<AttendanceRecord> record = attendanceRecordRepository.findById(id);
         attendanceRecordRepository.deleteById(id);
+        record.ifPresent(deleted -> {
+            attendanceChangeLog.recordDeleted(toDTO(deleted));
+            referenceDataVersionService.markChanged(Table.ATTENDANCE);
+            eventPublisher.publishEvent(new AttendanceDeletedEvent(deleted.getStudent().getId()));
+        });
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "department-statistics"})
+    @Transactional(readOnly = true)
     public Map<String, Object> getDepartmentStatistics(String departmentName, LocalDate startDate, LocalDate endDate) {
         List<AttendanceRecord> records = attendanceRecordRepository
                 .findByStudentDepartmentNameAndDateBetween(departmentName, startDate, endDate);
@@ -195,6 +422,8 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "student-statistics"})
+    @Transactional(readOnly = true)
     public Map<String, Object> getStudentStatistics(String studentId, LocalDate startDate, LocalDate endDate) {
         Student student = studentRepository.findByStudentId(studentId);
         List<AttendanceRecord> records = attendanceRecordRepository.findByStudentAndDateBetween(
@@ -220,6 +449,8 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "daily-attendance"})
+    @Transactional(readOnly = true)
     public Map<String, List<AttendanceRecordDTO>> getDailyAttendanceReport(LocalDate date) {
         List<AttendanceRecord> records = attendanceRecordRepository.findByDate(date);
 
@@ -229,6 +460,25 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "students-over-threshold"})
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStudentsExceedingAbsenceThreshold() {
+        return absenceAlertService.getActiveAlerts().stream()
+                .map(alert -> {
+                    Map<String, Object> report = new HashMap<>();
+                    report.put("studentName", alert.getStudentName());
+                    report.put("studentId", alert.getStudentId());
+                    report.put("departmentName", alert.getDepartmentName());
+                    report.put("totalAbsenceHours", (int) alert.getTotalAbsenceHours());
+                    report.put("thresholdHours", alert.getThresholdHours());
+                    return report;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "students-over-threshold-scan"})
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getStudentsExceedingAbsenceThreshold(int thresholdHours) {
         List<Student> allStudents = studentRepository.findAll();
         return allStudents.stream()
@@ -249,6 +499,7 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "student-absence-hours"})
     public Map<String, Object> getStudentAbsenceHours(String studentId) {
         try {
             Student student = studentRepository.findByStudentId(studentId);
@@ -260,13 +511,15 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
                 return errorReport;
             }
             int totalAbsenceHours = calculateTotalAbsenceHours(student);
+            int thresholdHours = absenceAlertService.getThresholdHours(student);
             Map<String, Object> report = new HashMap<>();
             report.put("studentName", student.getFullName());
             report.put("studentId", studentId);
             report.put("departmentName", student.getDepartment().getName());
             report.put("semesterName", student.getSemester().getName());
             report.put("totalAbsenceHours", totalAbsenceHours);
-            report.put("exceedsThreshold", totalAbsenceHours >= 9);
+            report.put("thresholdHours", thresholdHours);
+            report.put("exceedsThreshold", totalAbsenceHours >= thresholdHours);
             return report;
         } catch (Exception e) {
             // Log the error
@@ -287,27 +540,29 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
                 .filter(record -> !record.isPresent())
                 .collect(Collectors.toList());
 
-        // Debug log to verify absences are being found
-        logger.info("Found " + absences.size() + " absence records for student " + student.getId());
-        
-        // Log individual absence records to verify durations
-        absences.forEach(absence -> 
-            logger.info("Absence record: date=" + absence.getDate() + 
-                       ", duration=" + absence.getDuration() + 
-                       ", subject=" + absence.getSubject().getName())
-        );
+        logger.debug("Found {} absence records for student {}", absences.size(), student.getId());
+
+        // Per-record traces are sampled and skipped entirely (no subject loading) unless enabled
+        if (logger.isDebugEnabled(LogMarkers.RECORD_TRACE)) {
+            for (AttendanceRecord absence : absences) {
+                logger.debug(LogMarkers.RECORD_TRACE, "Absence record: date={}, duration={}, subject={}",
+                        absence.getDate(), absence.getDuration(), absence.getSubject().getName());
+            }
+        }
 
         int totalMinutes = absences.stream()
                 .mapToInt(AttendanceRecord::getDuration)
                 .sum();
-                
-        logger.info("Total absence minutes: " + totalMinutes + ", hours: " + (totalMinutes / 60));
+
+        logger.debug("Total absence minutes: {}, hours: {}", totalMinutes, totalMinutes / 60);
         
         return totalMinutes / 60; // Convert minutes to hours
     }
 
     @Override
-    public List<Map<String, Object>> getAbsenceReport(LocalDate startDate, LocalDate endDate) {
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "absence-report"})
+    @Transactional(readOnly = true)
+    public List<AbsenceReportRowDTO> getAbsenceReport(LocalDate startDate, LocalDate endDate) {
         // Get all students
         List<Student> allStudents = studentRepository.findAll();
         
@@ -324,12 +579,9 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
                             .mapToInt(AttendanceRecord::getDuration)
                             .sum();
 
-                    Map<String, Object> report = new HashMap<>();
-                    report.put("studentName", student.getFullName());
-                    report.put("studentId", student.getStudentId());
-                    report.put("departmentName", student.getDepartment().getName());
-                    report.put("totalAbsenceHours", totalMinutes / 60);
-                    report.put("absenceDates", absences.stream()
+                    AbsenceReportRowDTO report = new AbsenceReportRowDTO(student.getFullName(),
+                            student.getStudentId(), student.getDepartment().getName(), totalMinutes / 60);
+                    report.setAbsenceDates(absences.stream()
                             .map(AttendanceRecord::getDate)
                             .collect(Collectors.toList()));
                     return report;
@@ -338,7 +590,9 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     }
 
     @Override
-    public List<Map<String, Object>> getAbsenceReport(LocalDate startDate, LocalDate endDate,
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "absence-report-filtered"})
+    @Transactional(readOnly = true)
+    public List<AbsenceReportRowDTO> getAbsenceReport(LocalDate startDate, LocalDate endDate,
             String departmentId, String semesterId, String subjectId, boolean showExceededOnly) {
 
         logger.info("Generating absence report from {} to {} for Dept: {}, Sem: {}, Sub: {}, ExceededOnly: {}",
@@ -364,11 +618,17 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
         }
 
 
-        Stream<Map<String, Object>> reportStream = students.stream()
+        ToIntFunction<Student> thresholdResolver = absenceAlertService.getThresholdResolver();
+        // One query for every absence in the range instead of one per student
+        Map<Long, List<AttendanceRecord>> absencesByStudent = attendanceRecordRepository
+                .findByStatusAndDateBetween(startDate, endDate).stream()
+                .collect(Collectors.groupingBy(record -> record.getStudent().getId()));
+
+        Stream<AbsenceReportRowDTO> reportStream = students.stream()
                 .map(student -> {
                     try {
-                        List<AttendanceRecord> absences = attendanceRecordRepository
-                                .findByStudentAndDateBetween(student, startDate, endDate)
+                        List<AttendanceRecord> absences = absencesByStudent
+                                .getOrDefault(student.getId(), List.of())
                                 .stream()
                                 .filter(record -> {
                                     // --- Robust Filtering ---
@@ -398,12 +658,10 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
                                 .sum();
                         int totalHours = totalMinutes / 60;
 
-                        Map<String, Object> report = new HashMap<>();
-                        report.put("studentName", student.getFullName());
-                        report.put("studentId", student.getStudentId());
                         // Safely get department name
-                        report.put("departmentName", student.getDepartment() != null ? student.getDepartment().getName() : "N/A");
-                        report.put("totalAbsenceHours", totalHours);
+                        AbsenceReportRowDTO report = new AbsenceReportRowDTO(student.getFullName(), student.getStudentId(),
+                                student.getDepartment() != null ? student.getDepartment().getName() : "N/A", totalHours);
+                        report.setExceedsThreshold(totalHours >= thresholdResolver.applyAsInt(student));
                         return report;
                     } catch (Exception e) {
                          logger.error("Error processing student {} for report: {}", student.getId(), e.getMessage(), e);
@@ -413,43 +671,43 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
                 .filter(Objects::nonNull); // Filter out any null maps caused by errors
 
         if (showExceededOnly) {
-            logger.info("Applying 'showExceededOnly' filter (threshold >= 9 hours).");
+            logger.info("Applying 'showExceededOnly' filter (per-student absence thresholds).");
             reportStream = reportStream.filter(report -> {
-                Object hoursObj = report.get("totalAbsenceHours");
-                boolean shouldKeep = false;
-                if (hoursObj instanceof Number) {
-                    int hours = ((Number) hoursObj).intValue();
-                    shouldKeep = hours >= 9;
-                    logger.debug("Filtering student '{}': Hours = {}, Keep = {}", report.get("studentId"), hours, shouldKeep);
-                } else {
-                    logger.warn("Filtering student '{}': Unexpected type for totalAbsenceHours: {}", report.get("studentId"), (hoursObj != null ? hoursObj.getClass().getName() : "null"));
-                }
+                boolean shouldKeep = Boolean.TRUE.equals(report.getExceedsThreshold());
+                logger.debug("Filtering student '{}': Hours = {}, Keep = {}", report.getStudentId(), report.getTotalAbsenceHours(), shouldKeep);
                 return shouldKeep;
             });
         } else {
              logger.info("Skipping 'showExceededOnly' filter.");
         }
 
-        List<Map<String, Object>> finalReport = reportStream.collect(Collectors.toList());
+        List<AbsenceReportRowDTO> finalReport = reportStream.collect(Collectors.toList());
         logger.info("Generated report with {} entries after filtering.", finalReport.size());
         return finalReport;
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "average-attendance"})
+    @Transactional(readOnly = true)
     public double getAverageAttendance(LocalDate startDate, LocalDate endDate) {
-        List<AttendanceRecord> records = attendanceRecordRepository.findByDateBetween(startDate, endDate);
-        long totalRecords = records.size();
-        long presentCount = records.stream().filter(AttendanceRecord::isPresent).count();
-        return totalRecords > 0 ? (double) presentCount / totalRecords * 100 : 0;
+        return presenceRate(attendanceRecordRepository.countPresenceByDateBetween(startDate, endDate));
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "department-average-attendance"})
+    @Transactional(readOnly = true)
     public double getDepartmentAverageAttendance(String departmentName, LocalDate startDate, LocalDate endDate) {
-        List<AttendanceRecord> records = attendanceRecordRepository
-                .findByStudentDepartmentNameAndDateBetween(departmentName, startDate, endDate);
+        return presenceRate(attendanceRecordRepository
+                .countPresenceByDepartmentNameAndDateBetween(departmentName, startDate, endDate));
+    }
 
-        long totalRecords = records.size();
-        long presentCount = records.stream().filter(AttendanceRecord::isPresent).count();
+    // Percentage of present records from a [total, present] count row
+    private static double presenceRate(List<Object[]> counts) {
+        if (counts.isEmpty()) {
+            return 0;
+        }
+        long totalRecords = ((Number) counts.get(0)[0]).longValue();
+        long presentCount = ((Number) counts.get(0)[1]).longValue();
         return totalRecords > 0 ? (double) presentCount / totalRecords * 100 : 0;
     }
 
@@ -462,6 +720,8 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
     }
 
     @Override
+    @Timed(value = REPORT_TIMER, extraTags = {"report", "department-comparison"})
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getDepartmentComparison(LocalDate startDate, LocalDate endDate) {
         List<Department> departments = departmentRepository.findAll();
         return departments.stream()
@@ -492,19 +752,18 @@ public class AttendanceRecordServiceImpl implements AttendanceRecordService {
             // First, check if the student exists
             Optional<Student> studentOpt = studentRepository.findById(studentId);
             if (!studentOpt.isPresent()) {
-                logger.warn("Student with ID " + studentId + " not found");
+                logger.warn("Student with ID {} not found", studentId);
                 return 0;
             }
             
             // Use the repository method to calculate total absence hours
             Integer hours = attendanceRecordRepository.calculateTotalAbsenceHoursByStudentId(studentId);
             
-            // Debug log to verify the calculation
-            logger.info("Calculated absence hours for student " + studentId + ": " + hours);
+            logger.debug("Calculated absence hours for student {}: {}", studentId, hours);
             
             return hours != null ? hours : 0;
         } catch (Exception e) {
-            logger.error("Error calculating absence hours for student " + studentId, e);
+            logger.error("Error calculating absence hours for student {}", studentId, e);
             return 0;
         }
     }
@@ -10,20 +10,26 @@ import com.pfe.estl.mapper.DepartmentMapper;
 import com.pfe.estl.model.Department;
 import com.pfe.estl.repository.DepartmentRepository;
 import com.pfe.estl.service.DepartmentService;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 
 @Service
 public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
-    public DepartmentServiceImpl(DepartmentRepository departmentRepository) {
+    public DepartmentServiceImpl(DepartmentRepository departmentRepository,
+                                 ReferenceDataVersionService referenceDataVersionService) {
         this.departmentRepository = departmentRepository;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     @Override
     public DepartmentDTO saveDepartment(DepartmentDTO departmentDTO) {
         Department department = DepartmentMapper.toEntity(departmentDTO);
         department = departmentRepository.save(department);
+        referenceDataVersionService.markChanged(Table.DEPARTMENTS);
         return DepartmentMapper.toDTO(department);
     }
 
@@ -48,12 +54,15 @@ public class DepartmentServiceImpl implements DepartmentService {
         }
         Department department = DepartmentMapper.toEntity(departmentDTO);
         department = departmentRepository.save(department);
+        referenceDataVersionService.markChanged(Table.DEPARTMENTS);
         return DepartmentMapper.toDTO(department);
     }
 
     @Override
     public void deleteDepartment(Long id) {
         departmentRepository.deleteById(id);
+        // Students and subjects are cascaded with the department
+        referenceDataVersionService.markChanged(Table.DEPARTMENTS, Table.STUDENTS, Table.SUBJECTS);
     }
 
     public Department findByName(String departmentName) {
@@ -4,6 +4,8 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import com.pfe.estl.dto.AbsenceReportRowDTO;
+import com.pfe.estl.dto.StudentAbsenceReportDTO;
 import com.pfe.estl.service.PdfExportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,112 +13,116 @@ import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class PdfExportServiceImpl implements PdfExportService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfExportServiceImpl.class);
 
+    private static final String LOGO_PATH = "images/school_logo.png";
+
+    // Rows added to the table before it is handed to the document; completed rows are then
+    // laid out, written with their page and released
+    private static final int ROWS_PER_CHUNK = 50;
+
+    // Fonts are never modified once created, so one instance serves every report
+    private static final Font TITLE_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.DARK_GRAY);
+    private static final Font DATE_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY);
+    private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE);
+    private static final Font BODY_FONT = FontFactory.getFont(FontFactory.HELVETICA, 9);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
+    private static final String[] HEADERS = {"Student Name", "Student ID", "Department", "Absence Hours"};
+    private static final float[] COLUMN_WIDTHS = {3f, 2f, 3f, 2f};
+    private static final int[] COLUMN_ALIGNMENTS = {Element.ALIGN_LEFT, Element.ALIGN_CENTER, Element.ALIGN_LEFT, Element.ALIGN_CENTER};
+
+    // Student report styles
+    private static final Font STUDENT_TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.DARK_GRAY);
+    private static final Font SECTION_FONT = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD, BaseColor.DARK_GRAY);
+    private static final Font INFO_LABEL_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+    private static final Font INFO_VALUE_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
+    private static final Font WARNING_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.RED);
+    private static final Font RECORD_HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.WHITE);
+    private static final Font RECORD_FONT = new Font(Font.FontFamily.HELVETICA, 11);
+    private static final BaseColor RECORD_HEADER_COLOR = new BaseColor(41, 128, 185); // Blue color
+    private static final BaseColor ALT_ROW_COLOR = new BaseColor(240, 240, 240); // Light gray for alternating rows
+
+    // Raw logo bytes, read once; null when the image is missing
+    private final byte[] logoBytes = loadLogo();
+
     @Override
-    public byte[] exportAbsenceReportToPdf(List<Map<String, Object>> reportData, LocalDate startDate, LocalDate endDate)
+    public byte[] exportAbsenceReportToPdf(List<AbsenceReportRowDTO> reportData, LocalDate startDate, LocalDate endDate)
             throws DocumentException, IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeAbsenceReportPdf(reportData, startDate, endDate, baos);
+        logger.info("Successfully generated PDF absence report byte array.");
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void writeAbsenceReportPdf(Iterable<AbsenceReportRowDTO> reportData, LocalDate startDate, LocalDate endDate,
+            OutputStream out) throws DocumentException, IOException {
 
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
         try {
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
             document.open();
 
-            // --- START: Add Logo ---
-            try {
-                // Load image from classpath resources
-                ClassLoader classLoader = getClass().getClassLoader();
-                // Path relative to the resources folder
-                URL imageUrl = classLoader.getResource("images/school_logo.png"); 
-                if (imageUrl != null) {
-                    Image logo = Image.getInstance(imageUrl);
-                    // Scale the image to fit width 150 (adjust as needed)
-                    logo.scaleToFit(150f, 150f); 
-                    logo.setAlignment(Element.ALIGN_CENTER); // Center the logo
-                    logo.setSpacingAfter(15f); // Add space below the logo
-                    document.add(logo);
-                    logger.info("School logo added to PDF report.");
-                } else {
-                    logger.warn("Could not find logo image at classpath: images/school_logo.png");
-                }
-            } catch (Exception e) {
-                // Catch general Exception to be safe, log specific error
-                logger.error("Error loading or adding logo image to PDF: {}", e.getMessage(), e);
-                // Continue report generation even if logo fails
-            }
-            // --- END: Add Logo ---
+            addLogo(document);
 
             // Title
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, BaseColor.DARK_GRAY);
-            Paragraph title = new Paragraph("Absence Report", titleFont);
+            Paragraph title = new Paragraph("Absence Report", TITLE_FONT);
             title.setAlignment(Element.ALIGN_CENTER);
-            // title.setSpacingAfter(10); // Remove or adjust as spacing is handled by logo
             document.add(title);
 
             // Date Range
-            Font dateFont = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.GRAY);
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd MMM yyyy");
             Paragraph dateRange = new Paragraph(
-                    String.format("Period: %s to %s", startDate.format(dateFormatter), endDate.format(dateFormatter)),
-                    dateFont);
+                    String.format("Period: %s to %s", startDate.format(DATE_FORMATTER), endDate.format(DATE_FORMATTER)),
+                    DATE_FONT);
             dateRange.setAlignment(Element.ALIGN_CENTER);
             dateRange.setSpacingAfter(20);
             document.add(dateRange);
 
-            // Table
-            PdfPTable table = new PdfPTable(4); // 4 columns
+            // Table, added in chunks so finished pages are written out as the rows arrive
+            PdfPTable table = new PdfPTable(HEADERS.length);
             table.setWidthPercentage(100);
-            table.setWidths(new float[]{3f, 2f, 3f, 2f}); // Relative column widths
-
-            // Table Header
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.WHITE);
-            String[] headers = {"Student Name", "Student ID", "Department", "Absence Hours"};
-            for (String header : headers) {
-                PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
-                cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                cell.setBackgroundColor(BaseColor.DARK_GRAY);
-                cell.setPadding(5);
-                table.addCell(cell);
+            table.setWidths(COLUMN_WIDTHS);
+            table.setComplete(false);
+
+            PdfPCell defaultCell = table.getDefaultCell();
+            defaultCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            defaultCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+            defaultCell.setBackgroundColor(BaseColor.DARK_GRAY);
+            defaultCell.setPadding(5);
+            for (String header : HEADERS) {
+                table.addCell(new Phrase(header, HEADER_FONT));
             }
             table.setHeaderRows(1);
 
-            // Table Body
-            Font bodyFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
-            for (Map<String, Object> record : reportData) {
-                addTableCell(table, (String) record.get("studentName"), bodyFont, Element.ALIGN_LEFT);
-                addTableCell(table, (String) record.get("studentId"), bodyFont, Element.ALIGN_CENTER);
-                addTableCell(table, (String) record.get("departmentName"), bodyFont, Element.ALIGN_LEFT);
-                // Ensure totalAbsenceHours is treated as a number, default to 0 if null/invalid
-                Object hoursObj = record.get("totalAbsenceHours");
-                String hoursStr = "0";
-                if (hoursObj != null) {
-                    try {
-                         // Handle potential different numeric types (Integer, Long, Double etc.)
-                        if (hoursObj instanceof Number) {
-                            hoursStr = String.valueOf(((Number) hoursObj).intValue());
-                        } else {
-                            hoursStr = String.valueOf(Integer.parseInt(hoursObj.toString()));
-                        }
-                    } catch (NumberFormatException e) {
-                         logger.warn("Could not parse totalAbsenceHours: {}", hoursObj);
-                    }
+            // Body cells reuse the table's default cell, only the alignment changes per column
+            defaultCell.setBackgroundColor(null);
+            defaultCell.setPadding(4);
+            int rows = 0;
+            for (AbsenceReportRowDTO record : reportData) {
+                addTableCell(table, 0, record.getStudentName());
+                addTableCell(table, 1, record.getStudentId());
+                addTableCell(table, 2, record.getDepartmentName());
+                addTableCell(table, 3, String.valueOf(record.getTotalAbsenceHours()));
+                if (++rows % ROWS_PER_CHUNK == 0) {
+                    document.add(table);
                 }
-                addTableCell(table, hoursStr, bodyFont, Element.ALIGN_CENTER);
             }
 
+            table.setComplete(true);
             document.add(table);
+            logger.debug("Wrote PDF absence report with {} rows", rows);
 
         } catch (DocumentException e) {
             logger.error("Error creating PDF document structure: {}", e.getMessage(), e);
@@ -126,20 +132,144 @@ public class PdfExportServiceImpl implements PdfExportService {
                 document.close();
             }
         }
+    }
 
-        logger.info("Successfully generated PDF absence report byte array.");
-        return baos.toByteArray();
+    @Override
+    public void writeStudentAbsenceReportPdf(StudentAbsenceReportDTO report, OutputStream out)
+            throws DocumentException, IOException {
+
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+
+            document.addTitle("Student Absence Report");
+            document.addAuthor("ESTL Attendance System");
+            document.addCreationDate();
+
+            Paragraph title = new Paragraph("Student Absence Report", STUDENT_TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            title.setSpacingAfter(20);
+            document.add(title);
+
+            // Student info section
+            Paragraph studentInfo = new Paragraph("Student Information", SECTION_FONT);
+            studentInfo.setSpacingAfter(10);
+            document.add(studentInfo);
+
+            PdfPTable infoTable = new PdfPTable(2);
+            infoTable.setWidthPercentage(100);
+            infoTable.setSpacingAfter(20);
+            addInfoRow(infoTable, "Student Name:", report.getStudentName());
+            addInfoRow(infoTable, "Student ID:", report.getStudentId());
+            addInfoRow(infoTable, "Department:", report.getDepartmentName());
+            addInfoRow(infoTable, "Semester:", report.getSemesterName());
+            addInfoRow(infoTable, "Total Absence Hours:", String.valueOf(report.getTotalAbsenceHours()));
+            document.add(infoTable);
+
+            if (report.isExceedsThreshold()) {
+                Paragraph warning = new Paragraph("Warning: Student has exceeded the absence threshold!", WARNING_FONT);
+                warning.setSpacingBefore(10);
+                warning.setSpacingAfter(20);
+                document.add(warning);
+            }
+
+            // Detailed absence records section
+            Paragraph absenceSection = new Paragraph("Detailed Absence Records", SECTION_FONT);
+            absenceSection.setSpacingBefore(10);
+            absenceSection.setSpacingAfter(10);
+            document.add(absenceSection);
+
+            if (report.getAbsences().isEmpty()) {
+                Paragraph noRecords = new Paragraph("No absence records found for this student.");
+                noRecords.setSpacingAfter(20);
+                document.add(noRecords);
+            } else {
+                PdfPTable table = new PdfPTable(3);
+                table.setWidthPercentage(100);
+                table.setSpacingBefore(10);
+                table.setSpacingAfter(20);
+                table.setWidths(new int[]{3, 5, 2});
+
+                PdfPCell defaultCell = table.getDefaultCell();
+                defaultCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                defaultCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+                defaultCell.setBackgroundColor(RECORD_HEADER_COLOR);
+                defaultCell.setPadding(8);
+                table.addCell(new Phrase("Date", RECORD_HEADER_FONT));
+                table.addCell(new Phrase("Subject ID", RECORD_HEADER_FONT));
+                table.addCell(new Phrase("Hours", RECORD_HEADER_FONT));
+
+                defaultCell.setVerticalAlignment(Element.ALIGN_TOP);
+                defaultCell.setPadding(7);
+                boolean isAltRow = false;
+                for (StudentAbsenceReportDTO.Absence absence : report.getAbsences()) {
+                    defaultCell.setBackgroundColor(isAltRow ? ALT_ROW_COLOR : null);
+                    table.addCell(new Phrase(absence.getDate() != null ? absence.getDate().toString() : "N/A", RECORD_FONT));
+                    table.addCell(new Phrase(absence.getSubjectId() != null ? absence.getSubjectId().toString() : "N/A", RECORD_FONT));
+                    int hours = absence.getDuration() != null ? absence.getDuration() / 60 : 0; // Convert minutes to hours
+                    table.addCell(new Phrase(String.valueOf(hours), RECORD_FONT));
+                    isAltRow = !isAltRow; // Toggle for alternating row colors
+                }
+                document.add(table);
+            }
+
+            Paragraph footer = new Paragraph("Generated on: " + LocalDate.now());
+            footer.setAlignment(Element.ALIGN_CENTER);
+            document.add(footer);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private void addInfoRow(PdfPTable table, String label, String value) {
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, INFO_LABEL_FONT));
+        labelCell.setBorder(Rectangle.NO_BORDER);
+        labelCell.setPadding(5);
+
+        PdfPCell valueCell = new PdfPCell(new Phrase(value != null ? value : "N/A", INFO_VALUE_FONT));
+        valueCell.setBorder(Rectangle.NO_BORDER);
+        valueCell.setPadding(5);
+
+        table.addCell(labelCell);
+        table.addCell(valueCell);
+    }
+
+    private void addLogo(Document document) {
+        if (logoBytes == null) {
+            return;
+        }
+        try {
+            Image logo = Image.getInstance(logoBytes);
+            // Scale the image to fit width 150 (adjust as needed)
+            logo.scaleToFit(150f, 150f);
+            logo.setAlignment(Element.ALIGN_CENTER); // Center the logo
+            logo.setSpacingAfter(15f); // Add space below the logo
+            document.add(logo);
+        } catch (Exception e) {
+            // Continue report generation even if logo fails
+            logger.error("Error adding logo image to PDF: {}", e.getMessage(), e);
+        }
     }
 
-    private void addTableCell(PdfPTable table, String text, Font font, int alignment) {
-        PdfPCell cell = new PdfPCell(new Phrase(text != null ? text : "", font));
-        cell.setHorizontalAlignment(alignment);
-        cell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-        cell.setPadding(4);
-        table.addCell(cell);
+    private void addTableCell(PdfPTable table, int column, String text) {
+        table.getDefaultCell().setHorizontalAlignment(COLUMN_ALIGNMENTS[column]);
+        table.addCell(new Phrase(text != null ? text : "", BODY_FONT));
     }
 
-    // Implement the student-specific PDF method here if needed
-    // @Override
-    // public byte[] exportStudentAbsenceReportToPdf(...) { ... }
+    private static byte[] loadLogo() {
+        try (InputStream in = PdfExportServiceImpl.class.getClassLoader().getResourceAsStream(LOGO_PATH)) {
+            if (in == null) {
+                logger.warn("Could not find logo image at classpath: {}", LOGO_PATH);
+                return null;
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            logger.error("Error loading logo image for PDF reports: {}", e.getMessage(), e);
+            return null;
+        }
+    }
 }
@@ -4,6 +4,8 @@ import com.pfe.estl.dto.RoleDTO;
 import com.pfe.estl.model.Role;
 import com.pfe.estl.repository.RoleRepository;
 import com.pfe.estl.ResourceNotFoundException;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 import com.pfe.estl.service.RoleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,10 +19,12 @@ import java.util.stream.Collectors;
 public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
     @Autowired
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, ReferenceDataVersionService referenceDataVersionService) {
         this.roleRepository = roleRepository;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     @Override
@@ -31,6 +35,7 @@ public class RoleServiceImpl implements RoleService {
         
         Role role = mapToEntity(roleDTO);
         role = roleRepository.save(role);
+        referenceDataVersionService.markChanged(Table.ROLES);
         return mapToDTO(role);
     }
 
@@ -49,6 +54,7 @@ public class RoleServiceImpl implements RoleService {
         role.setPermissions(roleDTO.getPermissions());
         
         role = roleRepository.save(role);
+        referenceDataVersionService.markChanged(Table.ROLES);
         return mapToDTO(role);
     }
 
@@ -58,6 +64,7 @@ public class RoleServiceImpl implements RoleService {
             throw new ResourceNotFoundException("Role not found with id: " + id);
         }
         roleRepository.deleteById(id);
+        referenceDataVersionService.markChanged(Table.ROLES);
     }
 
     @Override
@@ -88,6 +95,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.addPermission(permission);
         role = roleRepository.save(role);
+        referenceDataVersionService.markChanged(Table.ROLES);
         return mapToDTO(role);
     }
 
@@ -98,6 +106,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.removePermission(permission);
         role = roleRepository.save(role);
+        referenceDataVersionService.markChanged(Table.ROLES);
         return mapToDTO(role);
     }
 
@@ -108,6 +117,7 @@ public class RoleServiceImpl implements RoleService {
         
         role.setPermissions(permissions);
         role = roleRepository.save(role);
+        referenceDataVersionService.markChanged(Table.ROLES);
         return mapToDTO(role);
     }
 
@@ -15,6 +15,9 @@ import com.pfe.estl.model.Student;
 import com.pfe.estl.repository.DepartmentRepository;
 import com.pfe.estl.repository.SemesterRepository;
 import com.pfe.estl.repository.StudentRepository;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+import com.pfe.estl.service.StudentSearchIndex;
 import com.pfe.estl.service.StudentService;
 
 @Service
@@ -25,13 +28,19 @@ public class StudentServiceImpl implements StudentService {
     private final StudentRepository studentRepository;
     private final DepartmentRepository departmentRepository;
     private final SemesterRepository semesterRepository;
+    private final ReferenceDataVersionService referenceDataVersionService;
+    private final StudentSearchIndex studentSearchIndex;
 
     public StudentServiceImpl(StudentRepository studentRepository, 
                              DepartmentRepository departmentRepository,
-                             SemesterRepository semesterRepository) {
+                             SemesterRepository semesterRepository,
+                             ReferenceDataVersionService referenceDataVersionService,
+                             StudentSearchIndex studentSearchIndex) {
         this.studentRepository = studentRepository;
         this.departmentRepository = departmentRepository;
         this.semesterRepository = semesterRepository;
+        this.referenceDataVersionService = referenceDataVersionService;
+        this.studentSearchIndex = studentSearchIndex;
     }
 
     @Override
@@ -46,6 +55,8 @@ public class StudentServiceImpl implements StudentService {
         
         Student student = StudentMapper.toEntity(studentDTO, department, semester);
         student = studentRepository.save(student);
+        referenceDataVersionService.markChanged(Table.STUDENTS);
+        studentSearchIndex.index(student);
         return StudentMapper.toDTO(student);
     }
 
@@ -113,6 +124,8 @@ public class StudentServiceImpl implements StudentService {
 
         try {
             Student updatedStudent = studentRepository.save(existingStudent);
+            referenceDataVersionService.markChanged(Table.STUDENTS);
+            studentSearchIndex.index(updatedStudent);
             logger.info("Successfully updated student with ID: {}", updatedStudent.getId());
             return StudentMapper.toDTO(updatedStudent);
         } catch (Exception e) {
@@ -124,6 +137,8 @@ public class StudentServiceImpl implements StudentService {
     @Override
     public void deleteStudent(Long id) {
         studentRepository.deleteById(id);
+        referenceDataVersionService.markChanged(Table.STUDENTS);
+        studentSearchIndex.remove(id);
     }
 
     @Override
@@ -7,6 +7,8 @@ import com.pfe.estl.model.Subject;
 import com.pfe.estl.repository.DepartmentRepository;
 import com.pfe.estl.repository.SemesterRepository;
 import com.pfe.estl.repository.SubjectRepository;
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 import com.pfe.estl.service.SubjectService;
 import org.springframework.stereotype.Service;
 
@@ -19,14 +21,17 @@ public class SubjectServiceImpl implements SubjectService {
     private final SubjectRepository subjectRepository;
     private final DepartmentRepository departmentRepository;
     private final SemesterRepository semesterRepository;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
     public SubjectServiceImpl(
             SubjectRepository subjectRepository,
             DepartmentRepository departmentRepository,
-            SemesterRepository semesterRepository) {
+            SemesterRepository semesterRepository,
+            ReferenceDataVersionService referenceDataVersionService) {
         this.subjectRepository = subjectRepository;
         this.departmentRepository = departmentRepository;
         this.semesterRepository = semesterRepository;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     @Override
@@ -93,6 +98,7 @@ public class SubjectServiceImpl implements SubjectService {
         
         // Save the new subject
         Subject savedSubject = subjectRepository.save(subject);
+        referenceDataVersionService.markChanged(Table.SUBJECTS);
         
         // Convert back to DTO and return
         SubjectDTO savedDTO = new SubjectDTO();
@@ -126,5 +132,6 @@ public class SubjectServiceImpl implements SubjectService {
         //     throw new RuntimeException("Subject not found with id: " + id); // Or a custom exception
         // }
         subjectRepository.deleteById(id);
+        referenceDataVersionService.markChanged(Table.SUBJECTS);
     }
 }
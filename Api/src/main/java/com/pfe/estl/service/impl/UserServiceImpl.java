@@ -8,6 +8,8 @@ import com.pfe.estl.repository.RoleRepository;
 import com.pfe.estl.repository.UserRepository;
 import com.pfe.estl.ResourceNotFoundException;
 
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
 import com.pfe.estl.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,14 +31,17 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ReferenceDataVersionService referenceDataVersionService;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository, 
                            RoleRepository roleRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           ReferenceDataVersionService referenceDataVersionService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.referenceDataVersionService = referenceDataVersionService;
     }
 
     @Override
@@ -60,6 +65,7 @@ public class UserServiceImpl implements UserService {
         
         // Save user first to get user ID
         user = userRepository.save(user);
+        referenceDataVersionService.markChanged(Table.USERS);
         
         // Assign roles if provided
         if (userDTO.getRoles() != null && !userDTO.getRoles().isEmpty()) {
@@ -112,6 +118,7 @@ public class UserServiceImpl implements UserService {
         }
         
         user = userRepository.save(user);
+        referenceDataVersionService.markChanged(Table.USERS);
         return mapToDTO(user);
     }
 
@@ -121,6 +128,7 @@ public class UserServiceImpl implements UserService {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        referenceDataVersionService.markChanged(Table.USERS);
     }
 
     @Override
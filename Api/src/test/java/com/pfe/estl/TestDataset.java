@@ -0,0 +1,165 @@
+package com.pfe.estl;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Small deterministic dataset for the tests: two departments sharing one semester, two subjects
+ * per department, and a session per weekday for every student. Rows are written with JDBC, so
+ * the Hibernate caches and the data versions are reset after each change.
+ */
+@Component
+public class TestDataset {
+
+    public static final int SESSION_MINUTES = 90;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReferenceDataVersionService referenceDataVersionService;
+
+    private final List<Long> departmentIds = new ArrayList<>();
+    private final List<String> departmentNames = new ArrayList<>();
+    private final List<Long> subjectIds = new ArrayList<>();
+    private final List<Long> studentIds = new ArrayList<>();
+    private Long semesterId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public TestDataset(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                       ReferenceDataVersionService referenceDataVersionService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.referenceDataVersionService = referenceDataVersionService;
+    }
+
+    /**
+     * Create the dataset, ending on the last weekday before today
+     * @param studentsPerDepartment Students in each department
+     * @param weeks Weeks of attendance
+     * @param absentEvery Every n-th session of a student is an absence; 0 for none
+     */
+    public void create(int studentsPerDepartment, int weeks, int absentEvery) {
+        clear();
+        semesterId = insert("INSERT INTO semesters (name) VALUES ('Semester 1')", "semesters");
+        for (int d = 1; d <= 2; d++) {
+            String name = "Department " + d;
+            departmentNames.add(name);
+            long departmentId = insert("INSERT INTO departments (name) VALUES ('" + name + "')", "departments");
+            departmentIds.add(departmentId);
+            for (int k = 1; k <= 2; k++) {
+                String code = String.format("D%02dM%02d", d, k);
+                jdbcTemplate.update("INSERT INTO subjects (name, code, department_id, semester_id) VALUES (?, ?, ?, ?)",
+                        "Module " + code, code, departmentId, semesterId);
+                subjectIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM subjects", Long.class));
+            }
+            for (int i = 1; i <= studentsPerDepartment; i++) {
+                String number = String.format("TS%02d%04d", d, i);
+                jdbcTemplate.update("INSERT INTO students (full_name, student_id, email, department_id, semester_id) VALUES (?, ?, ?, ?, ?)",
+                        "Student " + number, number, number.toLowerCase() + "@test.estl", departmentId, semesterId);
+                studentIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM students", Long.class));
+            }
+        }
+
+        endDate = LocalDate.now().minusDays(1);
+        while (endDate.getDayOfWeek() == DayOfWeek.SATURDAY || endDate.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            endDate = endDate.minusDays(1);
+        }
+        startDate = endDate.minusWeeks(weeks).plusDays(1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int s = 0; s < studentIds.size(); s++) {
+            int department = s / studentsPerDepartment;
+            int session = 0;
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                    continue;
+                }
+                session++;
+                boolean present = absentEvery == 0 || session % absentEvery != 0;
+                rows.add(new Object[] {studentIds.get(s), subjectIds.get(department * 2 + session % 2),
+                        Date.valueOf(date), SESSION_MINUTES, present});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO attendance_records (student_reference_id, subject_id, date, duration, is_present) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+        changed();
+    }
+
+    /**
+     * Remove everything the tests write; reference data created at startup (roles, admin user) stays
+     */
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM attendance_change_log");
+        // The counter continues from the log, as on a fresh start
+        jdbcTemplate.update("UPDATE attendance_change_sequence SET last_sequence = 0");
+        jdbcTemplate.update("DELETE FROM absence_alerts");
+        jdbcTemplate.update("DELETE FROM absence_thresholds");
+        jdbcTemplate.update("DELETE FROM attendance_records");
+        jdbcTemplate.update("DELETE FROM students");
+        jdbcTemplate.update("DELETE FROM subjects");
+        jdbcTemplate.update("DELETE FROM semesters");
+        jdbcTemplate.update("DELETE FROM departments");
+        departmentIds.clear();
+        departmentNames.clear();
+        subjectIds.clear();
+        studentIds.clear();
+        semesterId = null;
+        changed();
+    }
+
+    public List<Long> getDepartmentIds() {
+        return departmentIds;
+    }
+
+    public List<String> getDepartmentNames() {
+        return departmentNames;
+    }
+
+    public Long getSemesterId() {
+        return semesterId;
+    }
+
+    /**
+     * Subjects in department order, two per department
+     */
+    public List<Long> getSubjectIds() {
+        return subjectIds;
+    }
+
+    /**
+     * Students in department order
+     */
+    public List<Long> getStudentIds() {
+        return studentIds;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    private long insert(String sql, String table) {
+        jdbcTemplate.update(sql);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+    }
+
+    private void changed() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        referenceDataVersionService.markChanged(Table.values());
+    }
+}
@@ -0,0 +1,88 @@
+package com.pfe.estl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pfe.estl.service.ReferenceDataVersionService;
+import com.pfe.estl.service.ReportCacheService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Routing of read-only connections between the primary and the replica
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+    }
+
+    @Test
+    void readsFromTheReplicaOnlyWhileItIsUsable() throws SQLException {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+
+        when(lagMonitor.isReplicaUsable()).thenReturn(false);
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void onPrimaryOverridesAUsableReplica() throws SQLException {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        assertThat(ReplicaRoutingDataSource.onPrimary(this::connection)).isSameAs(primaryConnection);
+        // Nested calls keep the hint until the outermost one returns
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> ReplicaRoutingDataSource.onPrimary(this::connection)))
+                .isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void onPrimaryIsClearedWhenTheActionFails() throws SQLException {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+
+        assertThatThrownBy(() -> ReplicaRoutingDataSource.onPrimary(() -> {
+            throw new IllegalStateException("report failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void reportsAreComputedOnThePrimary() throws SQLException {
+        when(lagMonitor.isReplicaUsable()).thenReturn(true);
+        ReportCacheService reportCache = new ReportCacheService(new ReferenceDataVersionService(),
+                new SimpleMeterRegistry(), 10, 600);
+
+        Connection used = reportCache.get("report", "parameters", this::connection);
+        assertThat(used).isSameAs(primaryConnection);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    private Connection connection() {
+        try {
+            return routing.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
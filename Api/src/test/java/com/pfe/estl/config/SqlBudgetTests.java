@@ -0,0 +1,112 @@
+package com.pfe.estl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pfe.estl.TestDataset;
+
+/**
+ * Statement counts of the endpoints the dashboard and the load test hit most. The limits are
+ * fixed while the dataset has 40 students, so a query issued per student or per record (N+1)
+ * fails here before it reaches production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlBudgetTests {
+
+    private static final String ADMIN = "Basic " + Base64.getEncoder()
+            .encodeToString("admin:password".getBytes(StandardCharsets.UTF_8));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestDataset dataset;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void createDataset() {
+        dataset.create(20, 4, 5);
+    }
+
+    @AfterEach
+    void clearDataset() {
+        dataset.clear();
+    }
+
+    @Test
+    void dashboardStats() throws Exception {
+        assertStatements(get("/api/attendance/dashboard/stats" + range()), 10);
+    }
+
+    @Test
+    void departmentComparison() throws Exception {
+        assertStatements(get("/api/attendance/department/comparison" + range()), 10);
+    }
+
+    @Test
+    void absenceReport() throws Exception {
+        assertStatements(get("/api/attendance/report/absence" + range() + "&departmentId=" + dataset.getDepartmentIds().get(0)), 10);
+    }
+
+    @Test
+    void absenceReportExcelExport() throws Exception {
+        assertStatements(get("/api/attendance/export/absence-report" + range()), 10);
+    }
+
+    @Test
+    void bulkRollCall() throws Exception {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (Long studentId : dataset.getStudentIds().subList(0, 20)) {
+            records.add(Map.of("studentId", studentId, "subjectId", dataset.getSubjectIds().get(0),
+                    "date", LocalDate.now().toString(), "duration", TestDataset.SESSION_MINUTES, "present", true));
+        }
+        // An insert and a change log entry per record; looking up students and subjects must not add more
+        assertStatements(post("/api/attendance/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(records)), 50);
+    }
+
+    private String range() {
+        return "?startDate=" + dataset.getStartDate() + "&endDate=" + dataset.getEndDate();
+    }
+
+    private void assertStatements(MockHttpServletRequestBuilder request, int limit) throws Exception {
+        MvcResult result = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, ADMIN))
+                .andExpect(status().isOk())
+                .andReturn();
+        SqlRequestStatistics statistics = (SqlRequestStatistics) result.getRequest()
+                .getAttribute(SqlBudgetFilter.STATISTICS_ATTRIBUTE);
+        assertThat(statistics).isNotNull();
+        assertThat(result.getRequest().getAttribute(SqlBudgetFilter.BREACH_ATTRIBUTE)).isNull();
+        assertThat(statistics.getStatementCount())
+                .as("statements issued by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(limit);
+    }
+}
@@ -0,0 +1,205 @@
+package com.pfe.estl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.pfe.estl.TestDataset;
+import com.pfe.estl.dto.AttendanceChangeDTO;
+import com.pfe.estl.dto.AttendanceTimelineDTO;
+import com.pfe.estl.model.AttendanceRecord;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.service.AttendanceArchiveService;
+import com.pfe.estl.service.AttendanceChangeLogService;
+import com.pfe.estl.service.AttendanceRecordService;
+
+/**
+ * Date-range queries once a closed academic year has been moved to its archive table: ranges
+ * reaching into it read both tables, ranges of the open years only the live one. A student's
+ * whole history always reads both.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceRecordRepositoryTests {
+
+    @Autowired
+    private AttendanceRecordRepository attendanceRecordRepository;
+
+    @Autowired
+    private AttendanceArchiveRepository archiveRepository;
+
+    @Autowired
+    private AttendanceArchiveService archiveService;
+
+    @Autowired
+    private AttendanceChangeLogService changeLog;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AttendanceRecordService attendanceRecordService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestDataset dataset;
+
+    private int archivedYear;
+    private LocalDate archivedDate;
+    private LocalDate closedLiveDate;
+
+    @BeforeEach
+    void createDataset() {
+        // Two students per department, one week of live attendance without absences: 20 records
+        dataset.create(2, 1, 0);
+        archivedYear = archiveRepository.academicYearOf(LocalDate.now()) - 2;
+        archivedDate = archiveRepository.startOf(archivedYear).plusDays(14);
+        closedLiveDate = archiveRepository.startOf(archivedYear + 1).plusDays(14);
+
+        List<Long> students = dataset.getStudentIds();
+        // Archived: three records in department 1 (one absence) and one absence in department 2
+        insert(students.get(0), 0, archivedDate, true);
+        insert(students.get(0), 1, archiveRepository.endOf(archivedYear), false);
+        insert(students.get(1), 0, archivedDate, true);
+        insert(students.get(2), 2, archivedDate, false);
+        // Closed but not archived
+        insert(students.get(0), 0, closedLiveDate, false);
+
+        long start = changeLog.getLatestSequence();
+        archiveService.archiveAcademicYear(archivedYear);
+        assertThat(archiveRepository.countArchivedRows(archivedYear)).isEqualTo(4);
+        assertThat(archiveRepository.countLiveRows(archivedYear)).isZero();
+        assertThat(changeLog.getChanges(start, 10).getChanges())
+                .extracting(AttendanceChangeDTO::getOperation).containsExactly("RESYNC");
+    }
+
+    @AfterEach
+    void clearDataset() {
+        jdbcTemplate.update("DELETE FROM attendance_records_archive_" + archivedYear);
+        dataset.clear();
+    }
+
+    @Test
+    void rangeReachingIntoAnArchivedYearReadsBothTables() {
+        List<AttendanceRecord> records = attendanceRecordRepository.findByDateBetween(
+                archiveRepository.startOf(archivedYear), dataset.getEndDate());
+        assertThat(records).hasSize(25);
+        // Archived records first, rebuilt around the live students and subjects
+        assertThat(records.subList(0, 4)).extracting(AttendanceRecord::getDate)
+                .allMatch(date -> archiveRepository.academicYearOf(date) == archivedYear);
+        assertThat(records.get(0).getStudent().getDepartment().getName()).isEqualTo(dataset.getDepartmentNames().get(0));
+        assertThat(records.get(0).getSubject().getId()).isEqualTo(dataset.getSubjectIds().get(0));
+
+        assertThat(attendanceRecordRepository.findByDateBetween(archivedDate, archivedDate)).hasSize(3);
+        assertThat(attendanceRecordRepository.findByDateBetween(closedLiveDate, dataset.getEndDate())).hasSize(21);
+    }
+
+    @Test
+    void filtersApplyToArchivedRecords() {
+        LocalDate from = archiveRepository.startOf(archivedYear);
+        LocalDate to = dataset.getEndDate();
+
+        assertThat(attendanceRecordRepository.findByStatusAndDateBetween(from, to))
+                .extracting(AttendanceRecord::getDate)
+                .containsExactlyInAnyOrder(archiveRepository.endOf(archivedYear), archivedDate, closedLiveDate);
+
+        Student student = studentRepository.findById(dataset.getStudentIds().get(0)).orElseThrow();
+        assertThat(attendanceRecordRepository.findByStudentAndDateBetween(student, from, to)).hasSize(3 + 5);
+
+        assertThat(attendanceRecordRepository.findByStudentDepartmentNameAndDateBetween(
+                dataset.getDepartmentNames().get(1), from, to)).hasSize(1 + 10);
+    }
+
+    @Test
+    void countsAddArchivedAndLiveRecords() {
+        LocalDate from = archiveRepository.startOf(archivedYear);
+        LocalDate to = dataset.getEndDate();
+
+        assertCounts(attendanceRecordRepository.countPresenceByDateBetween(from, to), 25, 22);
+        assertCounts(attendanceRecordRepository.countPresenceByDepartmentNameAndDateBetween(
+                dataset.getDepartmentNames().get(0), from, to), 14, 12);
+        assertCounts(attendanceRecordRepository.countPresenceByDateBetween(archivedDate, archivedDate), 3, 2);
+    }
+
+    @Test
+    void studentHistoryIncludesArchivedYears() {
+        Student student = studentRepository.findById(dataset.getStudentIds().get(0)).orElseThrow();
+        assertThat(attendanceRecordRepository.findByStudent(student)).hasSize(3 + 5);
+
+        List<Object[]> timeline = attendanceRecordRepository.findTimelineRowsByStudentId(student.getId());
+        assertThat(timeline).hasSize(3 + 5);
+        assertThat(timeline).extracting(row -> (LocalDate) row[0]).isSorted();
+        assertThat(timeline.get(0)[0]).isEqualTo(archivedDate);
+        assertThat(timeline.get(0)[1]).isEqualTo(dataset.getSubjectIds().get(0));
+        assertThat(timeline.get(0)[2]).isNotNull();
+        assertThat(attendanceRecordRepository.findTimelineRowsByStudentIdAndDateBetween(
+                student.getId(), archivedDate, closedLiveDate)).hasSize(3);
+
+        // The encoded timeline carries the ids of live and archived records alike
+        AttendanceTimelineDTO encoded = attendanceRecordService.getAttendanceTimeline(student.getStudentId(), null, null);
+        List<Long> ids = new ArrayList<>();
+        long id = 0;
+        for (long delta : encoded.getIdDeltas()) {
+            id += delta;
+            ids.add(id);
+        }
+        assertThat(ids).containsExactlyElementsOf(timeline.stream().map(row -> (Long) row[6]).toList());
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(attendanceRecordRepository.findByStudent(student).stream()
+                .map(AttendanceRecord::getId).toList());
+    }
+
+    @Test
+    void reportAbsencesIncludeArchivedYears() {
+        List<Object[]> department1 = attendanceRecordRepository.findAbsenceRowsForReports(dataset.getDepartmentIds().get(0), null);
+        assertThat(department1).extracting(row -> (LocalDate) row[1])
+                .containsExactly(archiveRepository.endOf(archivedYear), closedLiveDate);
+        assertThat(department1).extracting(row -> row[0]).containsOnly(dataset.getStudentIds().get(0));
+
+        assertThat(attendanceRecordRepository.findAbsenceRowsForReports(dataset.getDepartmentIds().get(1), dataset.getSemesterId()))
+                .extracting(row -> row[0]).containsExactly(dataset.getStudentIds().get(2));
+        assertThat(attendanceRecordRepository.findAbsenceRowsForReports(null, null)).hasSize(3);
+    }
+
+    @Test
+    void rangeOfTheOpenYearsSkipsTheArchive() {
+        assertThat(archiveRepository.getArchivedYearsBetween(dataset.getStartDate(), dataset.getEndDate())).isEmpty();
+        assertThat(archiveRepository.getArchivedYearsBetween(archivedDate, dataset.getEndDate())).containsExactly(archivedYear);
+
+        assertThat(attendanceRecordRepository.findByDateBetween(dataset.getStartDate(), dataset.getEndDate())).hasSize(20);
+        assertCounts(attendanceRecordRepository.countPresenceByDateBetween(dataset.getStartDate(), dataset.getEndDate()), 20, 20);
+    }
+
+    @Test
+    void archivingAgainMovesRecordsImportedLater() {
+        insert(dataset.getStudentIds().get(3), 2, archivedDate, true);
+
+        archiveService.archiveAcademicYear(archivedYear);
+        assertThat(archiveRepository.countArchivedRows(archivedYear)).isEqualTo(5);
+        assertThat(attendanceRecordRepository.findByDateBetween(archivedDate, archivedDate)).hasSize(4);
+    }
+
+    private void insert(Long studentId, int subject, LocalDate date, boolean present) {
+        jdbcTemplate.update("INSERT INTO attendance_records (student_reference_id, subject_id, date, duration, is_present) "
+                + "VALUES (?, ?, ?, ?, ?)", studentId, dataset.getSubjectIds().get(subject), Date.valueOf(date),
+                TestDataset.SESSION_MINUTES, present);
+    }
+
+    private static void assertCounts(List<Object[]> counts, long total, long present) {
+        assertThat(counts).hasSize(1);
+        assertThat(((Number) counts.get(0)[0]).longValue()).isEqualTo(total);
+        assertThat(((Number) counts.get(0)[1]).longValue()).isEqualTo(present);
+    }
+}
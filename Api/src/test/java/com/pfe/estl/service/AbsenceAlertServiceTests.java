@@ -0,0 +1,200 @@
+package com.pfe.estl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import com.pfe.estl.TestDataset;
+import com.pfe.estl.dto.AbsenceAlertDTO;
+import com.pfe.estl.dto.AbsenceThresholdDTO;
+import com.pfe.estl.dto.AttendanceRecordDTO;
+import com.pfe.estl.event.AbsenceThresholdCrossedEvent;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.repository.StudentRepository;
+
+/**
+ * Absence thresholds and the alerts they open and resolve as attendance is written. The default
+ * threshold is 9 hours, six 90-minute absences.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class AbsenceAlertServiceTests {
+
+    @Autowired
+    private AbsenceAlertService absenceAlertService;
+
+    @Autowired
+    private AttendanceRecordService attendanceRecordService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TestDataset dataset;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void createDataset() {
+        // No absences: every student starts without an alert
+        dataset.create(2, 2, 0);
+    }
+
+    @AfterEach
+    void clearDataset() {
+        dataset.clear();
+    }
+
+    @Test
+    void mostSpecificThresholdWins() {
+        Long department1 = dataset.getDepartmentIds().get(0);
+        Long department2 = dataset.getDepartmentIds().get(1);
+        Long semester = dataset.getSemesterId();
+        Student inDepartment1 = student(0);
+        Student inDepartment2 = student(2);
+
+        assertThat(absenceAlertService.getThresholdHours(inDepartment1)).isEqualTo(absenceAlertService.getDefaultThresholdHours());
+
+        saveThreshold(null, null, 20);
+        saveThreshold(null, semester, 12);
+        saveThreshold(department1, null, 15);
+        AbsenceThresholdDTO pair = saveThreshold(department2, semester, 6);
+
+        ToIntFunction<Student> resolver = absenceAlertService.getThresholdResolver();
+        // A department override beats a semester override
+        assertThat(resolver.applyAsInt(inDepartment1)).isEqualTo(15);
+        assertThat(resolver.applyAsInt(inDepartment2)).isEqualTo(6);
+
+        absenceAlertService.deleteThreshold(pair.getId());
+        assertThat(absenceAlertService.getThresholdHours(inDepartment2)).isEqualTo(12);
+
+        // Saving the same scope again updates it
+        saveThreshold(department1, null, 18);
+        assertThat(absenceAlertService.getThresholds()).hasSize(3);
+        assertThat(absenceAlertService.getThresholdHours(inDepartment1)).isEqualTo(18);
+    }
+
+    @Test
+    void alertOpensAtTheThresholdAndResolvesBelowIt() {
+        List<AttendanceRecordDTO> absences = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            absences.add(attendanceRecordService.saveAttendanceRecord(absence(0, i)));
+        }
+        assertThat(absenceAlertService.countActiveAlerts()).isZero();
+
+        // 6 x 90 minutes is exactly 9 hours
+        absences.add(attendanceRecordService.saveAttendanceRecord(absence(0, 5)));
+        List<AbsenceAlertDTO> alerts = absenceAlertService.getActiveAlerts();
+        assertThat(alerts).hasSize(1);
+        assertThat(alerts.get(0).getThresholdHours()).isEqualTo(9);
+        assertThat(alerts.get(0).getTotalAbsenceHours()).isEqualTo(9.0);
+        assertThat(crossedAlerts()).hasSize(1);
+
+        // Further absences update the open alert instead of opening another one
+        attendanceRecordService.saveAttendanceRecord(absence(0, 6));
+        assertThat(absenceAlertService.getActiveAlerts()).singleElement()
+                .satisfies(alert -> assertThat(alert.getTotalAbsenceHours()).isEqualTo(10.5));
+        assertThat(crossedAlerts()).hasSize(1);
+
+        attendanceRecordService.deleteAttendanceRecord(absences.get(0).getId());
+        attendanceRecordService.deleteAttendanceRecord(absences.get(1).getId());
+        assertThat(absenceAlertService.countActiveAlerts()).isZero();
+        assertThat(absenceAlertService.getAlerts(false, null, 0, 10).get("totalElements")).isEqualTo(1L);
+    }
+
+    @Test
+    void thresholdChangesReevaluateEveryStudent() {
+        for (int i = 0; i < 4; i++) {
+            attendanceRecordService.saveAttendanceRecord(absence(0, i));
+            attendanceRecordService.saveAttendanceRecord(absence(2, i));
+        }
+        assertThat(absenceAlertService.countActiveAlerts()).isZero();
+
+        // 6 hours: both students are over it
+        AbsenceThresholdDTO global = saveThreshold(null, null, 6);
+        assertThat(absenceAlertService.countActiveAlerts()).isEqualTo(2);
+
+        // Raising department 1 above 6 hours resolves only its student's alert
+        saveThreshold(dataset.getDepartmentIds().get(0), null, 8);
+        assertThat(absenceAlertService.getActiveAlerts()).extracting(AbsenceAlertDTO::getDepartmentName)
+                .containsExactly(dataset.getDepartmentNames().get(1));
+
+        absenceAlertService.deleteThreshold(global.getId());
+        assertThat(absenceAlertService.countActiveAlerts()).isZero();
+    }
+
+    @Test
+    void concurrentWritesOpenOneAlert() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            attendanceRecordService.saveAttendanceRecord(absence(0, i));
+        }
+        int writers = 6;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int day = 5 + w;
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    return attendanceRecordService.saveBulkAttendanceRecords(List.of(absence(0, day)));
+                }));
+            }
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(absenceAlertService.getActiveAlerts()).singleElement()
+                .satisfies(alert -> assertThat(alert.getTotalAbsenceHours()).isEqualTo(16.5));
+    }
+
+    private AbsenceThresholdDTO saveThreshold(Long departmentId, Long semesterId, int hours) {
+        AbsenceThresholdDTO threshold = new AbsenceThresholdDTO();
+        threshold.setDepartmentId(departmentId);
+        threshold.setSemesterId(semesterId);
+        threshold.setThresholdHours(hours);
+        return absenceAlertService.saveThreshold(threshold);
+    }
+
+    private Student student(int index) {
+        return studentRepository.findById(dataset.getStudentIds().get(index)).orElseThrow();
+    }
+
+    private AttendanceRecordDTO absence(int student, int daysBeforeEnd) {
+        AttendanceRecordDTO record = new AttendanceRecordDTO();
+        record.setStudentId(dataset.getStudentIds().get(student));
+        record.setSubjectId(dataset.getSubjectIds().get(student < 2 ? 0 : 2));
+        record.setDate(dataset.getEndDate().minusDays(daysBeforeEnd));
+        record.setDuration(TestDataset.SESSION_MINUTES);
+        record.setPresent(false);
+        return record;
+    }
+
+    private List<AbsenceAlertDTO> crossedAlerts() {
+        return events.stream(AbsenceThresholdCrossedEvent.class)
+                .flatMap(event -> event.getAlerts().stream())
+                .toList();
+    }
+}
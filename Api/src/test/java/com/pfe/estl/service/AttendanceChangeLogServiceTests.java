@@ -0,0 +1,192 @@
+package com.pfe.estl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.pfe.estl.TestDataset;
+import com.pfe.estl.dto.AttendanceChangeDTO;
+import com.pfe.estl.dto.AttendanceChangePageDTO;
+import com.pfe.estl.dto.AttendanceRecordDTO;
+
+/**
+ * Sequence numbering and cursor reads of the attendance change log, fed through the record
+ * service like the API does
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceChangeLogServiceTests {
+
+    @Autowired
+    private AttendanceChangeLogService changeLog;
+
+    @Autowired
+    private AttendanceRecordService attendanceRecordService;
+
+    @Autowired
+    private AttendanceImportService attendanceImportService;
+
+    @Autowired
+    private TestDataset dataset;
+
+    private long start;
+
+    @BeforeEach
+    void createDataset() {
+        dataset.create(4, 1, 0);
+        start = changeLog.getLatestSequence();
+    }
+
+    @AfterEach
+    void clearDataset() {
+        dataset.clear();
+    }
+
+    @Test
+    void logsCreateUpdateAndDelete() {
+        AttendanceRecordDTO created = attendanceRecordService.saveAttendanceRecord(record(0, true));
+        AttendanceRecordDTO absent = record(0, false);
+        absent.setId(created.getId());
+        attendanceRecordService.updateAttendanceRecord(absent);
+        attendanceRecordService.deleteAttendanceRecord(created.getId());
+
+        List<AttendanceChangeDTO> changes = changeLog.getChanges(start, 10).getChanges();
+        assertThat(changes).extracting(AttendanceChangeDTO::getOperation).containsExactly("CREATE", "UPDATE", "DELETE");
+        assertThat(changes).extracting(AttendanceChangeDTO::getSequence).containsExactly(start + 1, start + 2, start + 3);
+        assertThat(changes).extracting(AttendanceChangeDTO::getRecordId).containsOnly(created.getId());
+
+        AttendanceChangeDTO update = changes.get(1);
+        assertThat(update.getPresent()).isFalse();
+        assertThat(update.getPreviousPresent()).isTrue();
+        AttendanceChangeDTO delete = changes.get(2);
+        assertThat(delete.getPresent()).isNull();
+        assertThat(delete.getPreviousStudentId()).isEqualTo(created.getStudentId());
+        assertThat(changeLog.getLatestSequence()).isEqualTo(start + 3);
+    }
+
+    @Test
+    void pagesFromACursor() {
+        List<AttendanceRecordDTO> records = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            records.add(record(i, true));
+        }
+        attendanceRecordService.saveBulkAttendanceRecords(records);
+
+        AttendanceChangePageDTO first = changeLog.getChanges(start, 2);
+        assertThat(first.getChanges()).hasSize(2);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getNextCursor()).isEqualTo(start + 2);
+
+        AttendanceChangePageDTO rest = changeLog.getChanges(first.getNextCursor(), 10);
+        assertThat(rest.getChanges()).extracting(AttendanceChangeDTO::getSequence).containsExactly(start + 3, start + 4, start + 5);
+        assertThat(rest.isHasMore()).isFalse();
+
+        // An exhausted cursor stays where it is
+        AttendanceChangePageDTO empty = changeLog.getChanges(rest.getNextCursor(), 10);
+        assertThat(empty.getChanges()).isEmpty();
+        assertThat(empty.getNextCursor()).isEqualTo(start + 5);
+        assertThat(changeLog.getChanges(start, 0).getChanges()).hasSize(1);
+    }
+
+    @Test
+    void concurrentWritersGetGapFreeSequencesAndAReaderMissesNone() throws Exception {
+        int writers = 4;
+        int recordsPerWriter = 15;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            // Reads while the writers commit: a cursor must never move past an entry that commits later
+            Future<List<Long>> reader = executor.submit(() -> {
+                List<Long> seen = new ArrayList<>();
+                long cursor = start;
+                boolean last = false;
+                while (!last) {
+                    last = !writing.get();
+                    AttendanceChangePageDTO page = changeLog.getChanges(cursor, 7);
+                    page.getChanges().forEach(change -> seen.add(change.getSequence()));
+                    cursor = page.getNextCursor();
+                    last = last && !page.isHasMore();
+                }
+                return seen;
+            });
+            List<Future<?>> writes = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int student = w;
+                writes.add(executor.submit(() -> {
+                    for (int i = 0; i < recordsPerWriter; i++) {
+                        AttendanceRecordDTO record = record(student, i % 3 != 0);
+                        record.setDate(dataset.getEndDate().minusDays(i));
+                        attendanceRecordService.saveAttendanceRecord(record);
+                    }
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+
+            long total = (long) writers * recordsPerWriter;
+            List<Long> expected = LongStream.rangeClosed(start + 1, start + total).boxed().toList();
+            assertThat(reader.get(60, TimeUnit.SECONDS)).containsExactlyElementsOf(expected);
+            assertThat(changeLog.getChanges(start, 1000).getChanges())
+                    .extracting(AttendanceChangeDTO::getSequence).containsExactlyElementsOf(expected);
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fileImportLogsOneResyncPerBatch() throws IOException {
+        Path file = Files.createTempFile("attendance", ".csv");
+        try {
+            Files.writeString(file, "studentId,subjectCode,date,duration,present\n"
+                    + "TS010001,D01M01," + dataset.getEndDate() + ",90,true\n"
+                    + "TS010002,D01M01," + dataset.getEndDate() + ",90,false\n", StandardCharsets.UTF_8);
+            attendanceImportService.importFile(file, "attendance.csv", event -> { });
+        } finally {
+            Files.delete(file);
+        }
+
+        List<AttendanceChangeDTO> changes = changeLog.getChanges(start, 10).getChanges();
+        assertThat(changes).hasSize(1);
+        assertThat(changes.get(0).getOperation()).isEqualTo("RESYNC");
+        assertThat(changes.get(0).getRecordId()).isNull();
+        assertThat(changes.get(0).getSequence()).isEqualTo(start + 1);
+    }
+
+    @Test
+    void refusesChangesOutsideATransaction() {
+        assertThatThrownBy(() -> changeLog.recordBulkChange()).isInstanceOf(IllegalStateException.class);
+    }
+
+    private AttendanceRecordDTO record(int student, boolean present) {
+        AttendanceRecordDTO record = new AttendanceRecordDTO();
+        record.setStudentId(dataset.getStudentIds().get(student));
+        record.setSubjectId(dataset.getSubjectIds().get(0));
+        record.setDate(LocalDate.now());
+        record.setDuration(TestDataset.SESSION_MINUTES);
+        record.setPresent(present);
+        return record;
+    }
+}
@@ -0,0 +1,124 @@
+package com.pfe.estl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.pfe.estl.TestDataset;
+import com.pfe.estl.dto.AttendanceImportProgressDTO;
+
+/**
+ * CSV parsing of the attendance import (delimiter detection and quoted fields) and uploads of
+ * the same file again
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AttendanceImportServiceTests {
+
+    @Autowired
+    private AttendanceImportService attendanceImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestDataset dataset;
+
+    @AfterEach
+    void clearDataset() {
+        dataset.clear();
+    }
+
+    @Test
+    void importingAgainSkipsRowsAlreadyImported() throws IOException {
+        dataset.create(2, 1, 0);
+        String date = dataset.getEndDate().plusDays(1).toString();
+        String header = "studentId,subjectCode,date,duration,present\n";
+        String firstRows = "TS010001,D01M01," + date + ",90,true\n"
+                + "TS010002,D01M01," + date + ",90,false\n";
+
+        AttendanceImportProgressDTO first = importCsv(header + firstRows);
+        assertThat(first.getRowsImported()).isEqualTo(2);
+        assertThat(first.getRowsSkipped()).isZero();
+
+        // The same rows again, one of them twice, plus one new row
+        AttendanceImportProgressDTO second = importCsv(header + firstRows
+                + "TS010001,D01M02," + date + ",90,true\n"
+                + "TS010001,D01M02," + date + ",90,true\n");
+        assertThat(second.getRowsRead()).isEqualTo(4);
+        assertThat(second.getRowsImported()).isEqualTo(1);
+        assertThat(second.getRowsSkipped()).isEqualTo(3);
+        assertThat(second.getCompleted()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attendance_records WHERE date = ?",
+                Long.class, Date.valueOf(date))).isEqualTo(3);
+    }
+
+    @Test
+    void detectsTheDelimiterFromTheHeader() {
+        assertThat(AttendanceImportService.detectDelimiter("studentId,subjectCode,date,duration,present")).isEqualTo(',');
+        assertThat(AttendanceImportService.detectDelimiter("studentId;subjectCode;date;duration;present")).isEqualTo(';');
+        // A header with both is read as comma separated
+        assertThat(AttendanceImportService.detectDelimiter("studentId;subjectCode,date")).isEqualTo(',');
+        assertThat(AttendanceImportService.detectDelimiter("studentId")).isEqualTo(',');
+    }
+
+    @Test
+    void splitsPlainFields() {
+        assertThat(split("ST0001,INF101,2024-10-07,90,true", ','))
+                .containsExactly("ST0001", "INF101", "2024-10-07", "90", "true");
+        assertThat(split("ST0001;INF101;2024-10-07;90;P", ';'))
+                .containsExactly("ST0001", "INF101", "2024-10-07", "90", "P");
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertThat(split("ST0001,,2024-10-07,,", ',')).containsExactly("ST0001", "", "2024-10-07", "", "");
+        assertThat(split("", ',')).containsExactly("");
+    }
+
+    @Test
+    void honoursQuotedFields() {
+        assertThat(split("\"ST,0001\",INF101,\"2024-10-07\"", ',')).containsExactly("ST,0001", "INF101", "2024-10-07");
+        assertThat(split("\"say \"\"present\"\"\";90", ';')).containsExactly("say \"present\"", "90");
+        // The other delimiter is an ordinary character
+        assertThat(split("1,5;90", ';')).containsExactly("1,5", "90");
+        assertThat(split("\"\",x", ',')).containsExactly("", "x");
+    }
+
+    @Test
+    void reusesTheCellList() {
+        List<String> cells = new ArrayList<>();
+        AttendanceImportService.splitCsvLine("a,b,c", ',', cells);
+        AttendanceImportService.splitCsvLine("d", ',', cells);
+        assertThat(cells).containsExactly("d");
+    }
+
+    private AttendanceImportProgressDTO importCsv(String content) throws IOException {
+        Path file = Files.createTempFile("attendance", ".csv");
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+            return attendanceImportService.importFile(file, "attendance.csv", event -> { });
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<String> split(String line, char delimiter) {
+        List<String> cells = new ArrayList<>();
+        AttendanceImportService.splitCsvLine(line, delimiter, cells);
+        return cells;
+    }
+}
@@ -0,0 +1,143 @@
+package com.pfe.estl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.pfe.estl.dto.ImportIssueDTO;
+import com.pfe.estl.dto.ImportResult;
+import com.pfe.estl.dto.ImportValidationSummaryDTO;
+import com.pfe.estl.dto.UserDTO;
+
+/**
+ * The dry run / import handshake: an import of the exact bytes of a clean dry run skips the
+ * per-row existence checks, unless the data those checks read has changed in between.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExcelImportServiceTests {
+
+    private static final String FILENAME = "users.xlsx";
+
+    @Autowired
+    private ExcelImportService excelImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteImportedUsers() {
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN (SELECT id FROM users WHERE username LIKE 'import.%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'import.%'");
+    }
+
+    @Test
+    void cleanDryRunIsUsedByTheImport() throws IOException {
+        byte[] workbook = usersWorkbook("import.one", "import.two");
+
+        ImportValidationSummaryDTO summary = validate(workbook, new ArrayList<>());
+        assertThat(summary.isValid()).isTrue();
+        assertThat(summary.isImportPrevalidated()).isTrue();
+
+        ImportResult result = excelImportService.processExcelFile(file(workbook));
+        assertThat(result.isPrevalidated()).isTrue();
+        assertThat(result.getSuccessCount()).isEqualTo(2);
+
+        // A dry run is consumed by the import it was made for
+        ImportResult again = excelImportService.processExcelFile(file(workbook));
+        assertThat(again.isPrevalidated()).isFalse();
+        assertThat(again.getSuccessCount()).isZero();
+        assertThat(again.getWarnings()).hasSize(2);
+    }
+
+    @Test
+    void dryRunWithIssuesIsNotRemembered() throws IOException {
+        userService.createUser(user("import.taken"));
+        byte[] workbook = usersWorkbook("import.taken", "import.free");
+
+        List<ImportIssueDTO> issues = new ArrayList<>();
+        ImportValidationSummaryDTO summary = validate(workbook, issues);
+        assertThat(summary.getWarningCount()).isEqualTo(1);
+        assertThat(summary.isImportPrevalidated()).isFalse();
+        assertThat(issues).hasSize(1);
+
+        ImportResult result = excelImportService.processExcelFile(file(workbook));
+        assertThat(result.isPrevalidated()).isFalse();
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userCreatedAfterTheDryRunInvalidatesIt() throws IOException {
+        byte[] workbook = usersWorkbook("import.late", "import.other");
+        assertThat(validate(workbook, new ArrayList<>()).isImportPrevalidated()).isTrue();
+
+        userService.createUser(user("import.late"));
+
+        ImportResult result = excelImportService.processExcelFile(file(workbook));
+        assertThat(result.isPrevalidated()).isFalse();
+        assertThat(result.getSuccessCount()).isEqualTo(1);
+        assertThat(result.getWarnings()).anyMatch(warning -> warning.contains("import.late"));
+    }
+
+    @Test
+    void changedBytesAreNotPrevalidated() throws IOException {
+        assertThat(validate(usersWorkbook("import.first"), new ArrayList<>()).isImportPrevalidated()).isTrue();
+
+        ImportResult result = excelImportService.processExcelFile(file(usersWorkbook("import.first", "import.second")));
+        assertThat(result.isPrevalidated()).isFalse();
+        assertThat(result.getSuccessCount()).isEqualTo(2);
+    }
+
+    private ImportValidationSummaryDTO validate(byte[] workbook, List<ImportIssueDTO> issues) {
+        return excelImportService.validateExcelFile(workbook, FILENAME, issues::add);
+    }
+
+    private static MockMultipartFile file(byte[] workbook) {
+        return new MockMultipartFile("file", FILENAME,
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", workbook);
+    }
+
+    private static byte[] usersWorkbook(String... usernames) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("Users");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("username");
+            header.createCell(1).setCellValue("email");
+            header.createCell(2).setCellValue("password");
+            for (int i = 0; i < usernames.length; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(usernames[i]);
+                row.createCell(1).setCellValue(usernames[i] + "@test.estl");
+                row.createCell(2).setCellValue("secret" + i);
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static UserDTO user(String username) {
+        UserDTO user = new UserDTO();
+        user.setUsername(username);
+        user.setEmail(username + "@test.estl");
+        user.setPassword("secret");
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,149 @@
+package com.pfe.estl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.pfe.estl.service.ReferenceDataVersionService.Table;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Single-flight computation, version and TTL invalidation, and eviction of the report cache
+ */
+class ReportCacheServiceTests {
+
+    private final ReferenceDataVersionService versions = new ReferenceDataVersionService();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @Test
+    void concurrentIdenticalRequestsShareOneComputation() throws Exception {
+        ReportCacheService cache = cache(10, 600);
+        int callers = 8;
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("report", "a", () -> {
+                computing.countDown();
+                await(release);
+                return "result " + computations.incrementAndGet();
+            })));
+            assertThat(computing.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("report", "a", () -> "result " + computations.incrementAndGet())));
+            }
+            // Let the other callers reach the in-flight entry before it completes
+            while (coalescedCount() < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("result 1");
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(cache.getStatistics())
+                .containsEntry("misses", 1L)
+                .containsEntry("coalesced", (long) callers - 1)
+                .containsEntry("hitRatio", (callers - 1) / (double) callers);
+        assertThat(meterRegistry.get("estl.report.cache.coalesced.wait").timer().count()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void cachesByReportAndParameters() {
+        ReportCacheService cache = cache(10, 600);
+        assertThat(compute(cache, "report", "a")).isEqualTo(1);
+        assertThat(compute(cache, "report", "a")).isEqualTo(1);
+        assertThat(compute(cache, "report", "b")).isEqualTo(2);
+        assertThat(compute(cache, "other", "a")).isEqualTo(3);
+        assertThat(cache.getStatistics()).containsEntry("hits", 1L).containsEntry("misses", 3L);
+        assertThat(ReportCacheService.key("2024-09-01", "all", 7L, true)).isEqualTo("2024-09-01|all|7|true");
+    }
+
+    @Test
+    void writesToASourceTableInvalidate() {
+        ReportCacheService cache = cache(10, 600);
+        assertThat(compute(cache, "report", "a")).isEqualTo(1);
+
+        versions.markChanged(Table.ATTENDANCE);
+        assertThat(compute(cache, "report", "a")).isEqualTo(2);
+        versions.markChanged(Table.ABSENCE_THRESHOLDS);
+        assertThat(compute(cache, "report", "a")).isEqualTo(3);
+
+        // Not a source of any report
+        versions.markChanged(Table.ROLES, Table.USERS);
+        assertThat(compute(cache, "report", "a")).isEqualTo(3);
+    }
+
+    @Test
+    void expiresAfterTheTtl() {
+        ReportCacheService cache = cache(10, 0);
+        assertThat(compute(cache, "report", "a")).isEqualTo(1);
+        assertThat(compute(cache, "report", "a")).isEqualTo(2);
+    }
+
+    @Test
+    void failuresAreNotCached() {
+        ReportCacheService cache = cache(10, 600);
+        assertThatThrownBy(() -> cache.get("report", "a", () -> {
+            throw new IllegalStateException("database unavailable");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("database unavailable");
+
+        assertThat(compute(cache, "report", "a")).isEqualTo(1);
+        assertThat(cache.getStatistics()).containsEntry("entries", 1);
+    }
+
+    @Test
+    void evictsTheOldestEntriesBeyondTheLimit() {
+        ReportCacheService cache = cache(2, 600);
+        compute(cache, "report", "a");
+        compute(cache, "report", "b");
+        compute(cache, "report", "c");
+        assertThat(cache.getStatistics()).containsEntry("entries", 2);
+
+        // "a" was the oldest: computed again, the newer ones are still cached
+        assertThat(compute(cache, "report", "c")).isEqualTo(3);
+        assertThat(compute(cache, "report", "a")).isEqualTo(4);
+    }
+
+    private ReportCacheService cache(int maxEntries, long ttlSeconds) {
+        return new ReportCacheService(versions, meterRegistry, maxEntries, ttlSeconds);
+    }
+
+    private int compute(ReportCacheService cache, String report, String parameters) {
+        return cache.get(report, parameters, computations::incrementAndGet);
+    }
+
+    private long coalescedCount() {
+        return (long) meterRegistry.get("estl.report.cache.requests").tag("result", "coalesced")
+                .counters().stream().mapToDouble(counter -> counter.count()).sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the test");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.pfe.estl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.pfe.estl.dto.StudentSuggestionDTO;
+import com.pfe.estl.model.Department;
+import com.pfe.estl.model.Student;
+import com.pfe.estl.repository.StudentRepository;
+
+/**
+ * Matching and ranking of the typeahead index, and changes committed while it is rebuilt.
+ * Outside a transaction index() and remove() apply immediately, standing in for afterCommit.
+ */
+class StudentSearchIndexTests {
+
+    private StudentRepository studentRepository;
+    private StudentSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository = mock(StudentRepository.class);
+        searchIndex = new StudentSearchIndex(studentRepository, new ReferenceDataVersionService());
+    }
+
+    @Test
+    void foldsAccentsAndCase() {
+        assertThat(StudentSearchIndex.fold("Éloïse ÇAKIR")).isEqualTo("eloise cakir");
+        assertThat(StudentSearchIndex.tokenize("  Benali, Amine-Yassine ")).containsExactly("benali", "amine", "yassine");
+        assertThat(StudentSearchIndex.tokenize(" - ")).isEmpty();
+    }
+
+    @Test
+    void matchesPrefixesOfEveryTerm() {
+        rows(row(1L, "ST0001", "Amine Benali", "amine.benali@estl.ma", "Informatique"),
+                row(2L, "ST0002", "Amina Tazi", "amina.tazi@estl.ma", "Informatique"),
+                row(3L, "ST0003", "Youssef Benali", "youssef.benali@estl.ma", "Génie Civil"));
+        searchIndex.rebuild();
+
+        assertThat(ids(searchIndex.search("ami", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(searchIndex.search("benali amine", 10))).containsExactly(1L);
+        assertThat(ids(searchIndex.search("BÉNALI", 10))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(searchIndex.search("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    void findsStudentIdsAndCapsTheLimit() {
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= StudentSearchIndex.MAX_LIMIT + 10; id++) {
+            rows.add(row(id, String.format("ST%04d", id), "Student " + id, "student" + id + "@estl.ma", "Informatique"));
+        }
+        when(studentRepository.findSearchRows()).thenReturn(rows);
+        searchIndex.rebuild();
+
+        assertThat(ids(searchIndex.search("ST0042", 10))).containsExactly(42L);
+        assertThat(searchIndex.search("student", 1000)).hasSize(StudentSearchIndex.MAX_LIMIT);
+        assertThat(searchIndex.search("student", 0)).isEmpty();
+    }
+
+    @Test
+    void appliesIncrementalChanges() {
+        rows(row(1L, "ST0001", "Amine Benali", "amine.benali@estl.ma", "Informatique"));
+        searchIndex.rebuild();
+
+        searchIndex.index(student(1L, "ST0001", "Amine Idrissi"));
+        searchIndex.index(student(2L, "ST0002", "Salma Idrissi"));
+        assertThat(searchIndex.search("benali", 10)).isEmpty();
+        assertThat(ids(searchIndex.search("idrissi", 10))).containsExactlyInAnyOrder(1L, 2L);
+
+        searchIndex.remove(1L);
+        assertThat(ids(searchIndex.search("idrissi", 10))).containsExactly(2L);
+        assertThat(searchIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsChangesCommittedWhileRebuilding() {
+        rows(row(1L, "ST0001", "Amine Benali", "amine.benali@estl.ma", "Informatique"),
+                row(2L, "ST0002", "Amina Tazi", "amina.tazi@estl.ma", "Informatique"));
+        searchIndex.rebuild();
+
+        // The rebuild reads a snapshot taken before student 3 was added and student 2 removed
+        List<Object[]> snapshot = List.of(row(1L, "ST0001", "Amine Benali", "amine.benali@estl.ma", "Informatique"),
+                row(2L, "ST0002", "Amina Tazi", "amina.tazi@estl.ma", "Informatique"));
+        when(studentRepository.findSearchRows()).thenAnswer(invocation -> {
+            searchIndex.index(student(3L, "ST0003", "Salma Idrissi"));
+            searchIndex.remove(2L);
+            return snapshot;
+        });
+        searchIndex.rebuild();
+
+        assertThat(ids(searchIndex.search("idrissi", 10))).containsExactly(3L);
+        assertThat(searchIndex.search("tazi", 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(2);
+    }
+
+    private void rows(Object[]... rows) {
+        when(studentRepository.findSearchRows()).thenReturn(List.of(rows));
+    }
+
+    private static Object[] row(Long id, String studentId, String fullName, String email, String department) {
+        return new Object[] {id, studentId, fullName, email, department, "Semester 1"};
+    }
+
+    private static Student student(Long id, String studentId, String fullName) {
+        Department department = new Department();
+        department.setName("Informatique");
+        Student student = new Student();
+        student.setId(id);
+        student.setStudentId(studentId);
+        student.setFullName(fullName);
+        student.setEmail(studentId.toLowerCase() + "@estl.ma");
+        student.setDepartment(department);
+        return student;
+    }
+
+    private static List<Long> ids(List<StudentSuggestionDTO> suggestions) {
+        return suggestions.stream().map(StudentSuggestionDTO::getId).toList();
+    }
+}
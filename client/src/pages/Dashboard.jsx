@@ -90,17 +90,13 @@ export default function Dashboard() {
       // Get a date range for the last 30 days
       const { startDate, endDate } = getDateRange(selectedRange);
       
-      // Pass date parameters to the API call
-      const threshold = 9;
-      const [statsData, studentsData] = await Promise.all([
-        attendanceService.getDashboardStats(startDate, endDate),
-        attendanceService.getStudentsExceedingAbsenceThreshold(threshold)
-      ]);
+      // Pass date parameters to the API call; the over-threshold count comes from the alert engine
+      const statsData = await attendanceService.getDashboardStats(startDate, endDate);
       
       // Provide default values if API returns null/undefined
       setStats({
         totalStudents: statsData.data?.totalStudents ?? 0,
-        exceededAbsenceStudents: studentsData.data?.length ?? 0,
+        exceededAbsenceStudents: statsData.data?.exceededAbsenceStudents ?? 0,
         reportsGenerated: statsData.data?.reportsGenerated ?? 0,
         averageAttendanceRate: statsData.data?.averageAttendanceRate ?? null,
       });
@@ -147,6 +143,43 @@ export default function Dashboard() {
     fetchDepartmentComparison();
   }, [fetchDashboardStats, fetchDepartmentComparison]);
 
+  // Live updates pushed by the server after each roll call
+  useEffect(() => {
+    const unsubscribe = attendanceService.subscribeToLiveUpdates({
+      "attendance-saved": (update) => {
+        // The stream reports the trailing 30-day rate, so only apply it to that view
+        if (selectedRange === "30days") {
+          setStats((prev) => ({ ...prev, averageAttendanceRate: update.averageAttendanceRate }));
+        }
+      },
+      "department-rate": (update) => {
+        if (selectedRange !== "30days") {
+          return;
+        }
+        const averageAttendance = Math.round(update.attendanceRate);
+        setDepartmentData((prev) => {
+          const exists = prev.some((row) => row.departmentName === update.departmentName);
+          return exists
+            ? prev.map((row) => row.departmentName === update.departmentName ? { ...row, averageAttendance } : row)
+            : [...prev, { departmentName: update.departmentName, averageAttendance }];
+        });
+      },
+      "threshold-crossed": (update) => {
+        const count = update.students?.length ?? 0;
+        setStats((prev) => ({
+          ...prev,
+          exceededAbsenceStudents: (prev.exceededAbsenceStudents ?? 0) + count,
+        }));
+        toast({
+          title: "Absence Threshold Exceeded",
+          description: update.students.map((student) => student.studentName).join(", "),
+          variant: "destructive",
+        });
+      },
+    });
+    return unsubscribe;
+  }, [selectedRange, toast]);
+
   // Apply date range change
   const applyDateRangeChange = useCallback(() => {
     if (selectedRange === "custom" && customDateRange.from && customDateRange.to) {
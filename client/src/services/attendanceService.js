@@ -5,6 +5,7 @@ const handleBlobResponse = async (response) => {
     // Verify that we received a valid blob
     if (response.data.type && (response.data.type.includes('application/pdf') ||
         response.data.type.includes('application/vnd.openxmlformats-officedocument.spreadsheetml.sheet') ||
+        response.data.type.includes('application/zip') ||
         response.data.type.includes('application/octet-stream'))) {
         return response.data;
     } else if (response.data.type === 'application/json') {
@@ -38,8 +39,126 @@ const saveAttendance = async (attendanceData) => {
     }
 };
 
+// Subscribe to the live attendance stream (Server-Sent Events).
+// EventSource cannot send the Authorization header, so the stream is read with fetch.
+// `handlers` maps event names (attendance-saved, department-rate, threshold-crossed) to callbacks.
+// Returns a function that closes the stream.
+const subscribeToLiveUpdates = (handlers, retryDelayMs = 5000) => {
+    let controller = null;
+    let retryTimer = null;
+    let closed = false;
+
+    const dispatch = (frame) => {
+        let eventName = 'message';
+        const dataLines = [];
+        frame.split('\n').forEach((line) => {
+            if (line.startsWith('event:')) {
+                eventName = line.slice(6).trim();
+            } else if (line.startsWith('data:')) {
+                dataLines.push(line.slice(5).replace(/^ /, ''));
+            }
+        });
+        // Comment-only frames are heartbeats
+        if (dataLines.length === 0 || !handlers[eventName]) {
+            return;
+        }
+        try {
+            handlers[eventName](JSON.parse(dataLines.join('\n')));
+        } catch (error) {
+            console.error(`Error handling live ${eventName} event:`, error);
+        }
+    };
+
+    const connect = async () => {
+        const token = localStorage.getItem('authToken');
+        if (!token || closed) {
+            return;
+        }
+        controller = new AbortController();
+        try {
+            const response = await fetch(`${axiosInstance.defaults.baseURL}/attendance/stream`, {
+                headers: {
+                    'Accept': 'text/event-stream',
+                    'Authorization': token,
+                    'X-Requested-With': 'XMLHttpRequest'
+                },
+                signal: controller.signal
+            });
+            if (!response.ok || !response.body) {
+                throw new Error(`Stream request failed with status ${response.status}`);
+            }
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            while (!closed) {
+                const { value, done } = await reader.read();
+                if (done) {
+                    break;
+                }
+                buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n');
+                let boundary = buffer.indexOf('\n\n');
+                while (boundary !== -1) {
+                    dispatch(buffer.slice(0, boundary));
+                    buffer = buffer.slice(boundary + 2);
+                    boundary = buffer.indexOf('\n\n');
+                }
+            }
+        } catch (error) {
+            if (closed) {
+                return;
+            }
+            console.error("Live attendance stream error:", error);
+        }
+        if (!closed) {
+            retryTimer = setTimeout(connect, retryDelayMs);
+        }
+    };
+
+    connect();
+
+    return () => {
+        closed = true;
+        clearTimeout(retryTimer);
+        if (controller) {
+            controller.abort();
+        }
+    };
+};
+
+// Expand the columnar payload of /attendance/student/{id}/timeline into one object per record,
+// shaped like the AttendanceRecordDTO list (plus subject code and name), oldest first.
+const decodeAttendanceTimeline = (timeline) => {
+    if (!timeline || !timeline.count) {
+        return [];
+    }
+    const presenceBits = atob(timeline.presence || '');
+    const [year, month, day] = timeline.startDate.split('-').map(Number);
+    const startUtc = Date.UTC(year, month - 1, day);
+    const records = new Array(timeline.count);
+    let id = 0;
+    for (let i = 0; i < timeline.count; i++) {
+        id += timeline.idDeltas[i];
+        const subject = timeline.subjects[timeline.subjectIndexes[i]];
+        // Bytes past the end of the presence string were all-absent and dropped by the server
+        const byteIndex = i >> 3;
+        const byte = byteIndex < presenceBits.length ? presenceBits.charCodeAt(byteIndex) : 0;
+        records[i] = {
+            id,
+            studentId: timeline.studentId,
+            subjectId: subject.id,
+            subjectCode: subject.code,
+            subjectName: subject.name,
+            date: new Date(startUtc + timeline.dayOffsets[i] * 86400000).toISOString().slice(0, 10),
+            duration: timeline.durations[i],
+            present: ((byte >> (i & 7)) & 1) === 1,
+        };
+    }
+    return records;
+};
+
 const attendanceService = {
     saveAttendance: saveAttendance, // Add the saveAttendance function
+    subscribeToLiveUpdates: subscribeToLiveUpdates,
     saveAttendanceRecord: (attendanceRecord) => {
         return axiosInstance.post(`/attendance`, attendanceRecord);
     },
@@ -68,6 +187,14 @@ const attendanceService = {
             params: { startDate, endDate }
         });
     },
+    // Compact alternative to the two calls above; resolves to decoded records.
+    // startDate and endDate are optional but must be given together.
+    getAttendanceTimeline: async (studentId, startDate, endDate) => {
+        const params = startDate && endDate ? { startDate, endDate } : {};
+        const response = await axiosInstance.get(`/attendance/student/${studentId}/timeline`, { params });
+        return decodeAttendanceTimeline(response.data);
+    },
+    decodeAttendanceTimeline: decodeAttendanceTimeline,
     updateAttendanceRecord: (id, attendanceRecord) => {
         return axiosInstance.put(`/attendance/${id}`, attendanceRecord);
     },
@@ -87,11 +214,23 @@ const attendanceService = {
     getDailyAttendanceReport: (date) => {
         return axiosInstance.get(`/attendance/report/daily/${date}`);
     },
+    // Omit thresholdHours to get the students with an active absence alert (per-department thresholds)
     getStudentsExceedingAbsenceThreshold: (thresholdHours) => {
         return axiosInstance.get(`/attendance/absence/threshold`, {
             params: { thresholdHours }
         });
     },
+    getAbsenceAlerts: ({ active, departmentId, page = 0, size = 20 } = {}) => {
+        return axiosInstance.get(`/absence-alerts`, {
+            params: { active, departmentId, page, size }
+        });
+    },
+    getAbsenceThresholds: () => {
+        return axiosInstance.get(`/absence-alerts/thresholds`);
+    },
+    saveAbsenceThreshold: (threshold) => {
+        return axiosInstance.post(`/absence-alerts/thresholds`, threshold);
+    },
     getStudentAbsenceHours: (studentId) => {
         return axiosInstance.get(`/attendance/student/${studentId}/absence-hours`);
     },
@@ -205,6 +344,27 @@ const attendanceService = {
             }
             throw new Error(error.message || 'Unable to generate absence report');
         }
+    },
+    // One absence report PDF per student, bundled in a ZIP archive
+    exportStudentAbsenceReportsZip: async (departmentId = 'all', semesterId = 'all') => {
+        try {
+            const response = await axiosInstance.get(`/attendance/export/students/absence-reports`, {
+                params: {
+                    departmentId,
+                    semesterId
+                },
+                responseType: 'blob'
+            });
+            const blobData = await handleBlobResponse(response);
+            return { data: blobData };
+        } catch (error) {
+            console.error("Error exporting student absence reports:", error);
+            const message = error.response?.data?.message ||
+                (error.response?.data instanceof Blob ? await error.response.data.text() : null) ||
+                error.message ||
+                'Failed to export student absence reports';
+            throw new Error(message);
+        }
     }
 };
 
@@ -11,6 +11,10 @@ export const studentService = {
     getStudentById: (id) => {
         return axiosInstance.get(`/students/${id}`);
     },
+    // Typeahead: matches name, student id or email prefixes, ignoring case and accents
+    searchStudents: (q, limit = 10) => {
+        return axiosInstance.get('/students/search', { params: { q, limit } });
+    },
     getStudentsByDepartment: (departmentName) => {
         return axiosInstance.get(`/students/department/${departmentName}`);
     },